@@ -1,6 +1,9 @@
 package no.ntnu.idatg2003.controller;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Function;
 import javafx.beans.property.ReadOnlyDoubleWrapper;
 import javafx.collections.FXCollections;
@@ -10,12 +13,17 @@ import javafx.scene.control.TableColumn;
 import javafx.scene.paint.Color;
 import no.ntnu.idatg2003.model.file.handling.ChaosGameFileHandler;
 import no.ntnu.idatg2003.model.file.handling.ChaosGameTextFileReader;
+import no.ntnu.idatg2003.model.game.engine.AttractorBounds;
+import no.ntnu.idatg2003.model.game.engine.CancellationToken;
+import no.ntnu.idatg2003.model.game.engine.ChaosCanvas;
 import no.ntnu.idatg2003.model.game.engine.ChaosGame;
 import no.ntnu.idatg2003.model.game.engine.ChaosGameDescription;
 import no.ntnu.idatg2003.model.game.engine.ChaosGameDescriptionFactory;
+import no.ntnu.idatg2003.model.game.engine.ChaosGameResult;
 import no.ntnu.idatg2003.model.transformations.AffineTransform2D;
 import no.ntnu.idatg2003.model.transformations.Transform2D;
 import no.ntnu.idatg2003.utility.enums.PresetTransforms;
+import no.ntnu.idatg2003.utility.logging.LoggerUtil;
 import no.ntnu.idatg2003.view.ChaosGameApp;
 import no.ntnu.idatg2003.view.FractalDisplay;
 
@@ -37,9 +45,16 @@ import no.ntnu.idatg2003.view.FractalDisplay;
  */
 public class FractalDisplayController implements ControllerInterface {
 
-  private ChaosGame game;
+  private final ExecutorService gameRunner = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "chaos-game-runner");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private volatile ChaosGame game;
   private ChaosGameApp app;
   private FractalDisplay view;
+  private CancellationToken runToken = new CancellationToken();
 
   private ObservableList<Transform2D> transformations = FXCollections.observableArrayList();
 
@@ -68,9 +83,24 @@ public class FractalDisplayController implements ControllerInterface {
       default ->
           throw new IllegalArgumentException("Unknown game transformation: " + transformation);
     };
+    replaceGame(description);
+    view.updateForGameType(transformation.getType());
+  }
+
+  /**
+   * Replaces the game with a new game of the given description, and registers the view as an
+   * observer of it. The run of the old game is cancelled and the view stops observing it, so the
+   * old run does not publish into the view.
+   *
+   * @param description The description of the new game.
+   */
+  private void replaceGame(ChaosGameDescription description) {
+    cancelGame();
+    if (game != null) {
+      game.removeObserver(view);
+    }
     game = new ChaosGame(description, 800, 800);
     loadTransformations(description.getTransforms());
-    view.updateForGameType(transformation.getType());
     observeGame();
   }
 
@@ -93,18 +123,60 @@ public class FractalDisplayController implements ControllerInterface {
   }
 
   /**
-   * Runs the game for a given number of iterations.
+   * Runs the game for a given number of iterations, split across all available processors.
+   *
+   * <p>The game runs in the background, so the view stays responsive. While it runs, the view is
+   * shown the progress and the image drawn so far every {@link ChaosGame#PUBLISH_INTERVAL}. A run
+   * that is still going is cancelled first, and keeps what it has drawn so far.
    *
    * @param iterations The number of iterations to run the game for.
+   * @return A future that completes with the result of the run.
    */
-  public void runGame(int iterations) {
-    game.runSteps(iterations);
+  public CompletableFuture<ChaosGameResult> runGame(long iterations) {
+    ChaosGame runningGame = game;
+    CancellationToken token = startRun();
+    return CompletableFuture.supplyAsync(() -> runningGame.runStepsParallel(iterations,
+        Runtime.getRuntime().availableProcessors(), ChaosGame.NO_BUDGET, token), gameRunner);
   }
 
   /**
-   * Returns to the last page.
+   * Continues the game for a given number of iterations, adding to the image already drawn.
+   *
+   * <p>The game runs in the background, in the same way as {@link #runGame(long)}.
+   *
+   * @param iterations The number of additional iterations to run the game for.
+   * @return A future that completes with the result of the run.
+   */
+  public CompletableFuture<ChaosGameResult> continueGame(long iterations) {
+    ChaosGame runningGame = game;
+    CancellationToken token = startRun();
+    return CompletableFuture.supplyAsync(() -> runningGame.continueStepsParallel(iterations,
+        Runtime.getRuntime().availableProcessors(), ChaosGame.NO_BUDGET, token), gameRunner);
+  }
+
+  /**
+   * Cancels the run in progress, if any, and creates the token for a new run.
+   *
+   * @return The token of the new run.
+   */
+  private CancellationToken startRun() {
+    runToken.cancel();
+    runToken = new CancellationToken();
+    return runToken;
+  }
+
+  /**
+   * Cancels the run in progress, if any.
+   */
+  public void cancelGame() {
+    runToken.cancel();
+  }
+
+  /**
+   * Returns to the last page, cancelling the run in progress.
    */
   public void openRunGameView() {
+    cancelGame();
     app.showRunGameMenu();
   }
 
@@ -114,13 +186,35 @@ public class FractalDisplayController implements ControllerInterface {
    * @param fileName The name of the file to create the custom game from.
    */
   public void createCustomGame(String fileName) {
-    ChaosGameDescription description = ChaosGameFileHandler.readFromFile(
-        new ChaosGameTextFileReader(),
+    ChaosGameTextFileReader reader = new ChaosGameTextFileReader();
+    ChaosGameDescription description = ChaosGameFileHandler.readFromFile(reader,
         "src/main/user.files/" + fileName);
-    game = new ChaosGame(description, 800, 800);
-    loadTransformations(description.getTransforms());
+    if (!reader.hasEstimatedBounds()) {
+      warnIfOutOfBounds(description);
+    }
+    replaceGame(description);
     view.updateForGameType(description.getTransforms().getFirst().getType());
-    observeGame();
+  }
+
+  /**
+   * Estimates the bounds of the attractor of the description, and logs padded bounds as a
+   * suggestion if parts of the attractor would fall outside the bounds of the description. The
+   * check uses the unpadded bounds, so a file whose bounds hold the attractor exactly is not
+   * warned about.
+   *
+   * @param description the description to check
+   */
+  private void warnIfOutOfBounds(ChaosGameDescription description) {
+    try {
+      AttractorBounds bounds = AttractorBounds.estimateUnpadded(description);
+      if (!bounds.fitsIn(description)) {
+        AttractorBounds suggested = bounds.padded(AttractorBounds.DEFAULT_PADDING);
+        LoggerUtil.logWarning("Parts of the fractal fall outside the bounds of the file. "
+            + "Suggested bounds: " + suggested.minCoords() + " to " + suggested.maxCoords());
+      }
+    } catch (IllegalArgumentException e) {
+      LoggerUtil.logWarning("Could not estimate the bounds of the fractal: " + e.getMessage());
+    }
   }
 
   /**
@@ -129,17 +223,17 @@ public class FractalDisplayController implements ControllerInterface {
    * @param description The description of the custom game to create.
    */
   public void createCustomGame(ChaosGameDescription description) {
-    game = new ChaosGame(description, 800, 800);
-    loadTransformations(description.getTransforms());
+    replaceGame(description);
     view.updateForGameType(description.getTransforms().getFirst().getType());
-    observeGame();
   }
 
   /**
-   * Updates the canvas with the current state of the game.
+   * Updates the canvas with the current state of the game. This is called by the view from the
+   * thread of the run, which is why the game field is volatile.
    */
   public void updateCanvas() {
-    view.updateCanvas(game.getCanvas().getCanvasArray());
+    ChaosCanvas canvas = game.getCanvas();
+    view.updateCanvas(canvas.copyPixels(), canvas.getWidth(), canvas.getHeight());
   }
 
   /**
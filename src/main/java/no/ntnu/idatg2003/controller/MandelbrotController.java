@@ -1,9 +1,14 @@
 package no.ntnu.idatg2003.controller;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 import javafx.scene.Scene;
 import no.ntnu.idatg2003.model.game.engine.ChaosCanvas;
 import no.ntnu.idatg2003.model.game.engine.ChaosGameDescriptionFactory;
 import no.ntnu.idatg2003.model.game.engine.Mandelbrot;
+import no.ntnu.idatg2003.model.game.engine.MandelbrotViewport;
 import no.ntnu.idatg2003.model.math.datatypes.Complex;
 import no.ntnu.idatg2003.utility.logging.LoggerUtil;
 import no.ntnu.idatg2003.view.ChaosGameApp;
@@ -27,6 +32,14 @@ import no.ntnu.idatg2003.view.MandelbrotView;
  */
 public class MandelbrotController implements ControllerInterface {
 
+  private final ExecutorService renderer = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "mandelbrot-renderer");
+    thread.setDaemon(true);
+    return thread;
+  });
+  // Set while a drawing is waiting to start, so a burst of zooms only draws the latest view
+  private final AtomicBoolean drawQueued = new AtomicBoolean();
+
   private final Mandelbrot mandelbrot;
   private final ChaosGameApp app;
   private final MandelbrotView view;
@@ -59,9 +72,69 @@ public class MandelbrotController implements ControllerInterface {
 
   /**
    * Creates the Mandelbrot set.
+   *
+   * <p>The set is rendered in the background, with the tiles split across all available
+   * processors, so the view stays responsive while it is drawn.
+   *
+   * @return A future that completes when the set has been drawn.
    */
-  public void createMandelbrotGame() {
+  public CompletableFuture<Void> createMandelbrotGame() {
     LoggerUtil.logInfo("Starting to draw Mandelbrot set.");
+    mandelbrot.setViewport(MandelbrotViewport.fullView(mandelbrot.getViewport().width(),
+        mandelbrot.getViewport().height()));
+    drawQueued.set(true);
+    return CompletableFuture.runAsync(this::drawQueuedView, renderer);
+  }
+
+  /**
+   * Zooms the view of the set, keeping the point under the given pixel in place, and draws the
+   * new view in the background.
+   *
+   * @param factor The factor to zoom by, above 1 to zoom in and below 1 to zoom out.
+   * @param x      The column of the pixel to keep in place.
+   * @param y      The row of the pixel to keep in place.
+   */
+  public void zoom(double factor, double x, double y) {
+    mandelbrot.setViewport(mandelbrot.getViewport().zoom(factor, x, y));
+    requestDraw();
+  }
+
+  /**
+   * Moves the view of the set by the given number of pixels, and draws the new view in the
+   * background.
+   *
+   * @param dx The number of pixels to move the image to the right.
+   * @param dy The number of pixels to move the image down.
+   */
+  public void pan(double dx, double dy) {
+    mandelbrot.setViewport(mandelbrot.getViewport().pan(dx, dy));
+    requestDraw();
+  }
+
+  /**
+   * Returns the view of the set that is drawn.
+   *
+   * @return The viewport of the set.
+   */
+  public MandelbrotViewport getViewport() {
+    return mandelbrot.getViewport();
+  }
+
+  /**
+   * Draws the current view in the background, unless a drawing is already waiting to start, in
+   * which case that drawing picks up the current view.
+   */
+  private void requestDraw() {
+    if (drawQueued.compareAndSet(false, true)) {
+      renderer.execute(this::drawQueuedView);
+    }
+  }
+
+  /**
+   * Draws the current view, allowing the next change of view to queue another drawing.
+   */
+  private void drawQueuedView() {
+    drawQueued.set(false);
     mandelbrot.drawMandelbrot();
   }
 
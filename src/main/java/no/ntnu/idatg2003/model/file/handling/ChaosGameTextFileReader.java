@@ -8,6 +8,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.NoSuchElementException;
 import java.util.Scanner;
+import no.ntnu.idatg2003.model.game.engine.AttractorBounds;
 import no.ntnu.idatg2003.model.game.engine.ChaosGameDescription;
 import no.ntnu.idatg2003.model.game.engine.ChaosGameDescriptionFactory;
 import no.ntnu.idatg2003.model.math.datatypes.Complex;
@@ -25,6 +26,9 @@ import no.ntnu.idatg2003.utility.logging.LoggerUtil;
  * <p>
  * The ChaosGameTextFileReader class is responsible for reading a ChaosGameDescription from a text
  * file. It reads the file line by line and parses the content into a ChaosGameDescription object.
+ * Each affine transformation is written on its own line as
+ * <code>a00, a01, a10, a11, b0, b1</code>, optionally followed by the weight of the
+ * transformation.
  * </p>
  *
  * @version 1.0.0
@@ -35,6 +39,8 @@ import no.ntnu.idatg2003.utility.logging.LoggerUtil;
  */
 public class ChaosGameTextFileReader implements ChaosGameFileHandler.ChaosGameFileReader {
 
+  private boolean estimatedBounds;
+
   /**
    * Reads a ChaosGameDescription from a file.
    * <p>
@@ -42,6 +48,16 @@ public class ChaosGameTextFileReader implements ChaosGameFileHandler.ChaosGameFi
    * should contain valid data representing a ChaosGameDescription, including the transform type,
    * min and max coordinates, and transformation details.
    * </p>
+   * <p>
+   * The file is read line by line. Everything after a <code>#</code> is a comment, and blank lines
+   * are skipped. Affine transformations may have a seventh value on their line, which is the
+   * weight of the transformation. Either all or none of the transformations must have a weight.
+   * </p>
+   * <p>
+   * The min and max coordinates may be left out. The bounds are then estimated from the
+   * transformations with {@link AttractorBounds#estimate(ChaosGameDescription)}, and
+   * {@link #hasEstimatedBounds()} returns <code>true</code> until the next file is read.
+   * </p>
    *
    * @param path the path to the file. It should be a valid file path pointing to a readable file
    *             containing a ChaosGameDescription.
@@ -53,37 +69,111 @@ public class ChaosGameTextFileReader implements ChaosGameFileHandler.ChaosGameFi
   @Override
   public ChaosGameDescription readFromFile(String path)
       throws IOException, IllegalArgumentException {
-    ChaosGameDescription gameDescription = null;
-    try (Scanner scanner = new Scanner(Files.newBufferedReader(Path.of(path)))) {
-      scanner.useLocale(Locale.US); // Use US locale to ensure correct number formatting
-      scanner.useDelimiter(",|#(?<=#).+"); // Split on comma or # and everything following it
+    estimatedBounds = false;
+    List<String> lines = readLines(path);
+    if (lines.size() < 2) {
+      throw new IllegalArgumentException("The file must contain a type and the transformations");
+    }
 
-      // Read the transform type
-      String typeString = scanner.next().trim();
-      // Convert the string to TransformType enum
-      TransformType type = TransformType.fromString(typeString);
+    // Read the transform type
+    String typeString = lines.getFirst();
+    // Convert the string to TransformType enum
+    TransformType type = TransformType.fromString(typeString);
 
-      // Read the min and max coordinates
-      Vector2D minCoords = readVector2D(scanner);
-      Vector2D maxCoords = readVector2D(scanner);
+    if (!hasBounds(type, lines)) {
+      // Read the transformations first, and estimate the bounds from them
+      ChaosGameDescription description = createGameDescription(type,
+          lines.subList(1, lines.size()), new Vector2D(0, 0), new Vector2D(1, 1));
+      AttractorBounds bounds = AttractorBounds.estimate(description);
+      LoggerUtil.logInfo("No bounds in " + path + ", using the estimated bounds "
+          + bounds.minCoords() + " to " + bounds.maxCoords());
+      estimatedBounds = true;
+      return bounds.applyTo(description);
+    }
 
-      // Create the game description
-      gameDescription = createGameDescription(type, scanner, minCoords, maxCoords);
+    if (lines.size() < 4) {
+      throw new IllegalArgumentException(
+          "The file must contain a type, the min and max coordinates and the transformations");
     }
-    return gameDescription;
+
+    // Read the min and max coordinates
+    Vector2D minCoords = readCoordinates(lines.get(1));
+    Vector2D maxCoords = readCoordinates(lines.get(2));
+
+    // Create the game description
+    return createGameDescription(type, lines.subList(3, lines.size()), minCoords, maxCoords);
   }
 
   /**
-   * Creates a ChaosGameDescription based on the provided type and scanner.
+   * Checks if the bounds of the last file read were estimated, because the file had none. The
+   * estimated bounds hold the attractor, so they do not have to be checked again.
+   *
+   * @return <code>true</code> if the bounds of the last file read were estimated
+   */
+  public boolean hasEstimatedBounds() {
+    return estimatedBounds;
+  }
+
+  /**
+   * Checks if the lines after the type start with the min and max coordinates. A Julia file
+   * without bounds only has the line of the constant, and an affine file without bounds starts
+   * with a transformation of at least six values.
+   *
+   * @param type  the type of transform in the file
+   * @param lines the lines of the file, starting with the type
+   * @return <code>true</code> if the file contains the min and max coordinates
+   */
+  private boolean hasBounds(TransformType type, List<String> lines) {
+    if (type == TransformType.JULIA) {
+      return lines.size() >= 3;
+    }
+    return lines.get(1).split(",").length < 6;
+  }
+
+  /**
+   * Reads the lines of a file, with comments removed and blank lines skipped.
+   *
+   * @param path the path to the file
+   * @return the trimmed lines of the file that contain data
+   * @throws IOException if an I/O error occurs during reading the file
+   */
+  private List<String> readLines(String path) throws IOException {
+    List<String> lines = new ArrayList<>();
+    try (Scanner scanner = new Scanner(Files.newBufferedReader(Path.of(path)))) {
+      while (scanner.hasNextLine()) {
+        String line = scanner.nextLine().replaceFirst("#.*", "").trim();
+        if (!line.isEmpty()) {
+          lines.add(line);
+        }
+      }
+    }
+    return lines;
+  }
+
+  /**
+   * Creates a scanner that reads the comma separated values of a single line.
+   *
+   * @param line the line to read
+   * @return the scanner for the line
+   */
+  private Scanner createScanner(String line) {
+    Scanner scanner = new Scanner(line);
+    scanner.useLocale(Locale.US); // Use US locale to ensure correct number formatting
+    scanner.useDelimiter(",");
+    return scanner;
+  }
+
+  /**
+   * Creates a ChaosGameDescription based on the provided type and transform lines.
    * <p>
    * This method interprets the transform type and reads the appropriate transform data from the
-   * scanner. For {@code AFFINE2D}, it reads a list of affine transformations. For {@code JULIA}, it
+   * lines. For {@code AFFINE2D}, it reads a list of affine transformations. For {@code JULIA}, it
    * reads a complex number representing the Julia set transformation.
    * </p>
    *
    * @param type      the type of transform to read. It determines whether to read affine
    *                  transformations or a Julia set transform.
-   * @param scanner   the scanner to read the transform data from. The data format must match the
+   * @param lines     the lines to read the transform data from. The data format must match the
    *                  expected format for the specified transform type.
    * @param minCoords the minimum coordinates of the game. These define the lower bounds for the
    *                  game space.
@@ -93,17 +183,17 @@ public class ChaosGameTextFileReader implements ChaosGameFileHandler.ChaosGameFi
    * @throws IllegalArgumentException if the transform data is invalid or cannot be parsed, or if
    *                                  the transform type is unknown.
    */
-  private ChaosGameDescription createGameDescription(TransformType type, Scanner scanner,
+  private ChaosGameDescription createGameDescription(TransformType type, List<String> lines,
       Vector2D minCoords, Vector2D maxCoords) throws IllegalArgumentException {
     ChaosGameDescription gameDescription;
     try {
       gameDescription = switch (type) {
-        case AFFINE2D -> {
-          List<Transform2D> transform2Ds = readAffineTransforms(scanner);
-          yield new ChaosGameDescription(minCoords, maxCoords, transform2Ds);
-        }
+        case AFFINE2D -> readAffineDescription(lines, minCoords, maxCoords);
         case JULIA -> {
-          Complex complex = readJuliaTransform(scanner);
+          if (lines.isEmpty()) {
+            throw new IllegalArgumentException("Missing the complex constant");
+          }
+          Complex complex = readJuliaTransform(createScanner(lines.getFirst()));
           yield ChaosGameDescriptionFactory.createJuliaSet(minCoords, maxCoords, complex);
         }
         default ->
@@ -117,25 +207,51 @@ public class ChaosGameTextFileReader implements ChaosGameFileHandler.ChaosGameFi
   }
 
   /**
-   * Reads a list of affine transformations from the scanner.
+   * Reads the affine transformations and their weights from the lines, and creates the
+   * description.
    *
    * <p>
-   * This method reads the affine transformations from the scanner until there are no more tokens
-   * left.
+   * Lines that do not contain a valid transformation are skipped. If none of the transformations
+   * have a weight, the weights are derived by the description itself.
    * </p>
    *
-   * @param scanner the scanner to read the affine transformations from.
-   * @return the list of affine transformations.
+   * @param lines     the lines to read the affine transformations from, one per line
+   * @param minCoords the minimum coordinates of the game
+   * @param maxCoords the maximum coordinates of the game
+   * @return the created ChaosGameDescription
+   * @throws IllegalArgumentException if only some of the transformations have a weight, a line
+   *                                  has more than seven values, or there are no valid
+   *                                  transformations
    */
-  private List<Transform2D> readAffineTransforms(Scanner scanner) {
+  private ChaosGameDescription readAffineDescription(List<String> lines, Vector2D minCoords,
+      Vector2D maxCoords) {
     List<Transform2D> transform2Ds = new ArrayList<>();
-    while (scanner.hasNext()) {
+    List<Double> weights = new ArrayList<>();
+    for (String line : lines) {
+      Scanner scanner = createScanner(line);
       Transform2D transform = readAffineTransform2D(scanner);
       if (transform != null) {
         transform2Ds.add(transform);
+        if (scanner.hasNext()) {
+          weights.add(readDouble(scanner));
+        }
+        if (scanner.hasNext()) {
+          throw new IllegalArgumentException(
+              "Too many values for a transformation. Expected six values and a weight: " + line);
+        }
       }
     }
-    return transform2Ds;
+    if (transform2Ds.isEmpty()) {
+      throw new IllegalArgumentException("The file must contain at least one transformation");
+    }
+    if (weights.isEmpty()) {
+      return new ChaosGameDescription(minCoords, maxCoords, transform2Ds);
+    }
+    if (weights.size() != transform2Ds.size()) {
+      throw new IllegalArgumentException(
+          "Either all or none of the transformations must have a weight");
+    }
+    return new ChaosGameDescription(minCoords, maxCoords, transform2Ds, weights);
   }
 
   /**
@@ -155,9 +271,27 @@ public class ChaosGameTextFileReader implements ChaosGameFileHandler.ChaosGameFi
       var x0 = readDouble(scanner);
       var x1 = readDouble(scanner);
       return new Vector2D(x0, x1);
-    } catch (NumberFormatException e) {
-      throw new IllegalArgumentException(e);
+    } catch (NoSuchElementException | NumberFormatException e) {
+      throw new IllegalArgumentException(
+          "Invalid input for Vector2D. Expected two double values.", e);
+    }
+  }
+
+  /**
+   * Reads the min or max coordinates from a line, which must contain exactly two values.
+   *
+   * @param line the line to read the coordinates from
+   * @return the coordinates on the line
+   * @throws IllegalArgumentException if the line does not contain exactly two valid double values
+   */
+  private Vector2D readCoordinates(String line) {
+    Scanner scanner = createScanner(line);
+    Vector2D coordinates = readVector2D(scanner);
+    if (scanner.hasNext()) {
+      throw new IllegalArgumentException(
+          "Too many values for the coordinates. Expected two values: " + line);
     }
+    return coordinates;
   }
 
   /**
@@ -228,7 +362,15 @@ public class ChaosGameTextFileReader implements ChaosGameFileHandler.ChaosGameFi
     try {
       double real = readDouble(scanner);
       double imaginary = readDouble(scanner);
+      if (scanner.hasNext()) {
+        throw new IllegalArgumentException(
+            "Too many values for the complex constant. Expected two values.");
+      }
       return new Complex(real, imaginary);
+    } catch (NoSuchElementException e) {
+      LoggerUtil.logError("Failed to read Julia transform: " + e.getMessage());
+      throw new IllegalArgumentException(
+          "Invalid input for the complex constant. Expected two double values.", e);
     } catch (IllegalArgumentException e) {
       LoggerUtil.logError("Failed to read Julia transform: " + e.getMessage());
       throw e;
@@ -77,17 +77,16 @@ public class ChaosGameTextFileWriter implements ChaosGameFileHandler.ChaosGameFi
    * This method writes the provided ChaosGameDescription to a file specified by the given path. The
    * file will be formatted according to the type of transformations in the ChaosGameDescription. If
    * the description contains AffineTransform2D transformations, they will be written with the
-   * format:
+   * format, where p is the weight of the transformation:
    * </p>
    * <pre>{@code
    * AffineTransform2D:
    * minX, minY
    * maxX, maxY
-   * a00, a01, a10, a11, b0, b1 #1. Transform
-   * minX, minY
-   * a00, a01, a10, a11, b0, b1 #2. Transform
+   * a00, a01, a10, a11, b0, b1, p #1. Transform
+   * a00, a01, a10, a11, b0, b1, p #2. Transform
    * ...
-   * a00, a01, a10, a11, b0, b1 #n. Transform
+   * a00, a01, a10, a11, b0, b1, p #n. Transform
    * }</pre>
    * <p>
    * If the description contains JuliaTransform, it will be written with the format:
@@ -110,8 +109,12 @@ public class ChaosGameTextFileWriter implements ChaosGameFileHandler.ChaosGameFi
 
       writeTransformType(writer, type);
       writeMinMaxCoords(writer, description);
-      for (Transform2D transform : description.getTransforms()) {
-        writer.write("\n" + transform.toString() + " # transforms");
+      for (int i = 0; i < description.getTransforms().size(); i++) {
+        String transform = description.getTransforms().get(i).toString();
+        if (type == TransformType.AFFINE2D) {
+          transform += ", " + description.getWeights().get(i);
+        }
+        writer.write("\n" + transform + " # transforms");
         LoggerUtil.logInfo("Transform written to file");
       }
     } catch (IOException e) {
@@ -0,0 +1,77 @@
+package no.ntnu.idatg2003.model.game.engine;
+
+import java.util.List;
+import java.util.random.RandomGenerator;
+import no.ntnu.idatg2003.model.transformations.AffineTransform2D;
+import no.ntnu.idatg2003.model.transformations.Transform2D;
+
+/**
+ * A {@link TransformProgram} for descriptions made of affine transformations only.
+ *
+ * <p>The coefficients of the transformations are stored in one flat array with
+ * {@value #STRIDE} values per transformation, <code>a00, a01, a10, a11, b0, b1</code>. The loop
+ * keeps the current point in local variables and has no branch on the kind of transformation.
+ *
+ * @author Sigurd Riseth, Theodor Sjetnan Utvik
+ * @version 0.0.1
+ * @see TransformProgram
+ * @see AffineTransform2D
+ * @since 18.10.2026
+ */
+final class AffineProgram implements TransformProgram {
+
+  private static final int STRIDE = ChaosGameKernel.STRIDE;
+
+  private final double[] coefficients;
+  private final AliasTable selector;
+
+  /**
+   * Compiles the given affine transformations.
+   *
+   * @param transforms the transformations, which must all be affine
+   * @param selector   the table that chooses a transformation in each step
+   */
+  AffineProgram(List<Transform2D> transforms, AliasTable selector) {
+    this.coefficients = new double[transforms.size() * STRIDE];
+    this.selector = selector;
+    for (int i = 0; i < transforms.size(); i++) {
+      ChaosGameKernel.flattenAffine((AffineTransform2D) transforms.get(i), coefficients,
+          i * STRIDE);
+    }
+  }
+
+  @Override
+  public long run(double[] point, long steps, RandomGenerator random, ChaosCanvas canvas) {
+    final double[] c = coefficients;
+    double x = point[0];
+    double y = point[1];
+    long rejected = 0;
+    for (long i = 0; i < steps; i++) {
+      int offset = selector.sample(random) * STRIDE;
+      double newX = c[offset] * x + c[offset + 1] * y + c[offset + 4];
+      y = c[offset + 2] * x + c[offset + 3] * y + c[offset + 5];
+      x = newX;
+      if (!canvas.putPixel(x, y)) {
+        rejected++;
+      }
+    }
+    point[0] = x;
+    point[1] = y;
+    return rejected;
+  }
+
+  @Override
+  public void skip(double[] point, long steps, RandomGenerator random) {
+    final double[] c = coefficients;
+    double x = point[0];
+    double y = point[1];
+    for (long i = 0; i < steps; i++) {
+      int offset = selector.sample(random) * STRIDE;
+      double newX = c[offset] * x + c[offset + 1] * y + c[offset + 4];
+      y = c[offset + 2] * x + c[offset + 3] * y + c[offset + 5];
+      x = newX;
+    }
+    point[0] = x;
+    point[1] = y;
+  }
+}
@@ -0,0 +1,112 @@
+package no.ntnu.idatg2003.model.game.engine;
+
+import java.util.Objects;
+import java.util.random.RandomGenerator;
+
+/**
+ * Samples indices from a discrete probability distribution in constant time, using Vose's alias
+ * method.
+ *
+ * <p>The table is built once from a list of weights in linear time. Each column of the table holds
+ * a probability and an alias index, so a sample only needs one random number: the integer part
+ * picks a column and the fractional part decides between the column itself and its alias.
+ *
+ * @author Sigurd Riseth, Theodor Sjetnan Utvik
+ * @version 0.0.1
+ * @see ChaosGame
+ * @see ChaosGameDescription#getWeights()
+ * @since 18.10.2026
+ */
+public class AliasTable {
+
+  private final double[] probabilities;
+  private final int[] aliases;
+
+  /**
+   * Builds an alias table for the given weights. The weights do not have to sum to one.
+   *
+   * @param weights the weights of the indices
+   * @throws NullPointerException     if the weights are null
+   * @throws IllegalArgumentException if there are no weights, any weight is negative, NaN or
+   *                                  infinite, or all weights are zero
+   */
+  public AliasTable(double[] weights) {
+    Objects.requireNonNull(weights, "The weights cannot be null");
+    int size = weights.length;
+    if (size == 0) {
+      throw new IllegalArgumentException("There must be at least one weight");
+    }
+    double sum = 0;
+    for (double weight : weights) {
+      if (!Double.isFinite(weight) || weight < 0) {
+        throw new IllegalArgumentException("The weights must be finite and non-negative");
+      }
+      sum += weight;
+    }
+    if (sum <= 0) {
+      throw new IllegalArgumentException("At least one weight must be positive");
+    }
+
+    this.probabilities = new double[size];
+    this.aliases = new int[size];
+
+    double[] scaled = new double[size];
+    int[] small = new int[size];
+    int[] large = new int[size];
+    int smallCount = 0;
+    int largeCount = 0;
+    for (int i = 0; i < size; i++) {
+      scaled[i] = weights[i] * size / sum;
+      if (scaled[i] < 1) {
+        small[smallCount++] = i;
+      } else {
+        large[largeCount++] = i;
+      }
+    }
+
+    while (smallCount > 0 && largeCount > 0) {
+      int less = small[--smallCount];
+      int more = large[--largeCount];
+      probabilities[less] = scaled[less];
+      aliases[less] = more;
+      scaled[more] = (scaled[more] + scaled[less]) - 1;
+      if (scaled[more] < 1) {
+        small[smallCount++] = more;
+      } else {
+        large[largeCount++] = more;
+      }
+    }
+    // Whatever is left is one up to rounding errors
+    while (largeCount > 0) {
+      int index = large[--largeCount];
+      probabilities[index] = 1;
+      aliases[index] = index;
+    }
+    while (smallCount > 0) {
+      int index = small[--smallCount];
+      probabilities[index] = 1;
+      aliases[index] = index;
+    }
+  }
+
+  /**
+   * Draws a random index, where each index is drawn with a probability proportional to its weight.
+   *
+   * @param random the random number generator to draw with
+   * @return the drawn index
+   */
+  public int sample(RandomGenerator random) {
+    double value = random.nextDouble() * probabilities.length;
+    int column = (int) value;
+    return (value - column) < probabilities[column] ? column : aliases[column];
+  }
+
+  /**
+   * Returns the number of indices in the table.
+   *
+   * @return the number of indices
+   */
+  public int size() {
+    return probabilities.length;
+  }
+}
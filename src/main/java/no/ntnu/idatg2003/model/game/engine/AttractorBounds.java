@@ -0,0 +1,327 @@
+package no.ntnu.idatg2003.model.game.engine;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+import no.ntnu.idatg2003.model.math.datatypes.Complex;
+import no.ntnu.idatg2003.model.math.datatypes.Matrix2x2;
+import no.ntnu.idatg2003.model.math.datatypes.Vector2D;
+import no.ntnu.idatg2003.model.transformations.AffineTransform2D;
+import no.ntnu.idatg2003.model.transformations.JuliaTransform;
+import no.ntnu.idatg2003.model.transformations.Transform2D;
+
+/**
+ * An axis-aligned box around the attractor of a set of transformations.
+ *
+ * <p>The bounds can be estimated in two ways before a render. A short walk of the chaos game
+ * records the smallest and largest coordinates it visits, which gives tight bounds for the parts
+ * of the attractor the walk reaches. The contraction bounds are a square around the origin that
+ * every map sends into itself, so it is certain to contain the whole attractor, but is often much
+ * larger than it. For an affine map with matrix A and vector b, any radius of at least
+ * |b| / (1 - ||A||) works, and for a Julia map z → ±sqrt(z - c) the radius
+ * 1/2 + sqrt(1/4 + |c|) does.
+ *
+ * @param minCoords the lower left corner of the box
+ * @param maxCoords the upper right corner of the box
+ * @author Sigurd Riseth, Theodor Sjetnan Utvik
+ * @version 0.0.1
+ * @see ChaosGameDescription
+ * @since 18.10.2026
+ */
+public record AttractorBounds(Vector2D minCoords, Vector2D maxCoords) {
+
+  /**
+   * The share of the size of the bounds that is added on every side by
+   * {@link #estimate(ChaosGameDescription)}.
+   */
+  public static final double DEFAULT_PADDING = 0.05;
+
+  /**
+   * The number of steps of the walk used by {@link #estimate(ChaosGameDescription)}.
+   */
+  public static final int DEFAULT_WALK_STEPS = 100_000;
+
+  private static final int BURN_IN_STEPS = 100;
+
+  /**
+   * Constructs the bounds.
+   *
+   * @param minCoords the lower left corner of the box
+   * @param maxCoords the upper right corner of the box
+   * @throws NullPointerException if any of the corners are null
+   */
+  public AttractorBounds {
+    Objects.requireNonNull(minCoords, "The minimum coordinates cannot be null");
+    Objects.requireNonNull(maxCoords, "The maximum coordinates cannot be null");
+  }
+
+  /**
+   * Estimates padded bounds for the given description from a walk of
+   * {@value #DEFAULT_WALK_STEPS} steps with a fixed seed, so the same description always gets the
+   * same bounds. If the walk leaves every finite box, the contraction bounds are used instead.
+   *
+   * <p>The padding keeps the edges of the attractor away from the edges of the image, so these
+   * are the bounds to suggest for a render. To check if a render loses points, use the tighter
+   * {@link #estimateUnpadded(ChaosGameDescription)}.
+   *
+   * @param description the description to estimate the bounds of
+   * @return the estimated bounds, padded by {@value #DEFAULT_PADDING} of their size on every side
+   * @throws NullPointerException     if the description is null
+   * @throws IllegalArgumentException if the description has no transformations, or the walk
+   *                                  diverges and the transformations have no contraction bounds
+   */
+  public static AttractorBounds estimate(ChaosGameDescription description) {
+    AttractorBounds walkBounds = walk(description);
+    if (walkBounds != null) {
+      return walkBounds.padded(DEFAULT_PADDING);
+    }
+    return fromContraction(description.getTransforms());
+  }
+
+  /**
+   * Estimates the bounds of the points the given description visits, without any padding. This is
+   * the same walk as {@link #estimate(ChaosGameDescription)}, so a description with these bounds
+   * or larger ones loses no points of the walk.
+   *
+   * @param description the description to estimate the bounds of
+   * @return the bounds of the walk, or the contraction bounds if the walk diverges
+   * @throws NullPointerException     if the description is null
+   * @throws IllegalArgumentException if the description has no transformations, or the walk
+   *                                  diverges and the transformations have no contraction bounds
+   */
+  public static AttractorBounds estimateUnpadded(ChaosGameDescription description) {
+    AttractorBounds walkBounds = walk(description);
+    if (walkBounds != null) {
+      return walkBounds;
+    }
+    return fromContraction(description.getTransforms());
+  }
+
+  /**
+   * Walks the description for {@value #DEFAULT_WALK_STEPS} steps with a fixed seed.
+   *
+   * @param description the description to walk with
+   * @return the bounds of the walk, or <code>null</code> if the walk diverges
+   */
+  private static AttractorBounds walk(ChaosGameDescription description) {
+    Objects.requireNonNull(description, "The description cannot be null");
+    double[] extremes = walkExtremes(description, DEFAULT_WALK_STEPS,
+        RandomGeneratorFactory.of(ChaosGame.DEFAULT_ALGORITHM).create(0));
+    return isFinite(extremes) ? fromExtremes(extremes) : null;
+  }
+
+  /**
+   * Finds the bounds of the points visited by a walk of the chaos game, where the transformations
+   * are chosen by the weights of the description. The first steps of the walk are not counted,
+   * since the walk starts in the origin and needs a few steps to reach the attractor.
+   *
+   * <p>Points that are only reached after a long run of one unlikely map, like the tip of the
+   * Barnsley fern, are rarely visited by a short walk. The fixed points of the affine maps lie on
+   * the attractor, so they are added to the bounds as well.
+   *
+   * @param description the description to walk with
+   * @param steps       the number of steps to count
+   * @param random      the random number generator that chooses the transformations
+   * @return the smallest box containing the counted points and the fixed points
+   * @throws NullPointerException     if any of the parameters are null
+   * @throws IllegalArgumentException if the description has no transformations, steps is not
+   *                                  positive, or the walk diverges
+   */
+  public static AttractorBounds fromWalk(ChaosGameDescription description, long steps,
+      RandomGenerator random) {
+    Objects.requireNonNull(description, "The description cannot be null");
+    Objects.requireNonNull(random, "The random number generator cannot be null");
+    if (steps <= 0) {
+      throw new IllegalArgumentException("Steps must be positive");
+    }
+    double[] extremes = walkExtremes(description, steps, random);
+    if (!isFinite(extremes)) {
+      throw new IllegalArgumentException("The walk diverges, so it has no finite bounds");
+    }
+    return fromExtremes(extremes);
+  }
+
+  /**
+   * Walks the chaos game and records the smallest and largest coordinates of the counted points
+   * and the fixed points. The values are kept as primitives, so a walk that diverges gives
+   * infinite or NaN values instead of failing.
+   *
+   * @param description the description to walk with
+   * @param steps       the number of steps to count
+   * @param random      the random number generator that chooses the transformations
+   * @return the smallest x, smallest y, largest x and largest y, in that order
+   */
+  private static double[] walkExtremes(ChaosGameDescription description, long steps,
+      RandomGenerator random) {
+    ChaosGameKernel kernel = new ChaosGameKernel(description.getTransforms());
+    AliasTable selector = new AliasTable(
+        description.getWeights().stream().mapToDouble(Double::doubleValue).toArray());
+    for (int i = 0; i < BURN_IN_STEPS; i++) {
+      kernel.step(selector.sample(random));
+    }
+    double minX = Double.POSITIVE_INFINITY;
+    double minY = Double.POSITIVE_INFINITY;
+    double maxX = Double.NEGATIVE_INFINITY;
+    double maxY = Double.NEGATIVE_INFINITY;
+    for (long i = 0; i < steps; i++) {
+      kernel.step(selector.sample(random));
+      minX = Math.min(minX, kernel.getX());
+      minY = Math.min(minY, kernel.getY());
+      maxX = Math.max(maxX, kernel.getX());
+      maxY = Math.max(maxY, kernel.getY());
+    }
+    List<Transform2D> transforms = description.getTransforms();
+    for (int i = 0; i < transforms.size(); i++) {
+      if (transforms.get(i) instanceof AffineTransform2D affine
+          && description.getWeights().get(i) > 0) {
+        // The fixed point solves (I - A)x = b
+        Matrix2x2 matrix = affine.getMatrix();
+        Vector2D vector = affine.getVector();
+        double determinant = (1 - matrix.getA00()) * (1 - matrix.getA11())
+            - matrix.getA01() * matrix.getA10();
+        if (determinant != 0) {
+          double fixedX = ((1 - matrix.getA11()) * vector.getX0()
+              + matrix.getA01() * vector.getX1()) / determinant;
+          double fixedY = (matrix.getA10() * vector.getX0()
+              + (1 - matrix.getA00()) * vector.getX1()) / determinant;
+          minX = Math.min(minX, fixedX);
+          minY = Math.min(minY, fixedY);
+          maxX = Math.max(maxX, fixedX);
+          maxY = Math.max(maxY, fixedY);
+        }
+      }
+    }
+    return new double[] {minX, minY, maxX, maxY};
+  }
+
+  /**
+   * Checks if all the extremes of a walk are finite.
+   *
+   * @param extremes the smallest x, smallest y, largest x and largest y of the walk
+   * @return <code>true</code> if all the values are finite
+   */
+  private static boolean isFinite(double[] extremes) {
+    for (double extreme : extremes) {
+      if (!Double.isFinite(extreme)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Creates the bounds from the finite extremes of a walk.
+   *
+   * @param extremes the smallest x, smallest y, largest x and largest y of the walk
+   * @return the bounds with the extremes as corners
+   */
+  private static AttractorBounds fromExtremes(double[] extremes) {
+    return new AttractorBounds(new Vector2D(extremes[0], extremes[1]),
+        new Vector2D(extremes[2], extremes[3]));
+  }
+
+  /**
+   * Finds a square around the origin that every transformation maps into itself, and which
+   * therefore contains the whole attractor.
+   *
+   * @param transforms the transformations to find the bounds of
+   * @return the contraction bounds
+   * @throws NullPointerException     if the list or any of the transformations are null
+   * @throws IllegalArgumentException if the list is empty, or any transformation is an affine map
+   *                                  that is not a contraction or of an unknown type
+   */
+  public static AttractorBounds fromContraction(List<Transform2D> transforms) {
+    Objects.requireNonNull(transforms, "The list of transformations cannot be null");
+    if (transforms.isEmpty()) {
+      throw new IllegalArgumentException("The list of transformations cannot be empty");
+    }
+    double radius = 0;
+    for (Transform2D transform : transforms) {
+      Objects.requireNonNull(transform, "The transformations cannot be null");
+      if (transform instanceof AffineTransform2D affine) {
+        double norm = operatorNorm(affine.getMatrix());
+        if (norm >= 1) {
+          throw new IllegalArgumentException("All the affine transformations must be contractions");
+        }
+        Vector2D vector = affine.getVector();
+        radius = Math.max(radius, Math.hypot(vector.getX0(), vector.getX1()) / (1 - norm));
+      } else if (transform instanceof JuliaTransform julia) {
+        Complex constant = julia.getComplexConstant();
+        double magnitude = Math.hypot(constant.getX0(), constant.getX1());
+        radius = Math.max(radius, 0.5 + Math.sqrt(0.25 + magnitude));
+      } else {
+        throw new IllegalArgumentException("Unknown transformation type: " + transform.getType());
+      }
+    }
+    return new AttractorBounds(new Vector2D(-radius, -radius), new Vector2D(radius, radius));
+  }
+
+  /**
+   * Computes the operator norm of a matrix, which is the largest factor by which it stretches a
+   * vector.
+   *
+   * @param matrix the matrix
+   * @return the operator norm of the matrix
+   */
+  static double operatorNorm(Matrix2x2 matrix) {
+    double a = matrix.getA00();
+    double b = matrix.getA01();
+    double c = matrix.getA10();
+    double d = matrix.getA11();
+    double sum = (a * a + b * b + c * c + d * d) / 2;
+    double determinant = a * d - b * c;
+    return Math.sqrt(sum + Math.sqrt(Math.max(0, sum * sum - determinant * determinant)));
+  }
+
+  /**
+   * Returns bounds that are larger by the given share of their size on every side. Both sides are
+   * padded by the same amount, based on the larger side, so bounds of a flat attractor still get
+   * an area.
+   *
+   * @param fraction the share of the size to add on every side
+   * @return the padded bounds
+   * @throws IllegalArgumentException if the fraction is negative or not finite
+   */
+  public AttractorBounds padded(double fraction) {
+    if (!Double.isFinite(fraction) || fraction < 0) {
+      throw new IllegalArgumentException("The padding must be finite and non-negative");
+    }
+    double size = Math.max(maxCoords.getX0() - minCoords.getX0(),
+        maxCoords.getX1() - minCoords.getX1());
+    double padding = fraction * (size > 0 ? size : 1);
+    return new AttractorBounds(
+        new Vector2D(minCoords.getX0() - padding, minCoords.getX1() - padding),
+        new Vector2D(maxCoords.getX0() + padding, maxCoords.getX1() + padding));
+  }
+
+  /**
+   * Checks if these bounds lie inside the bounds of the given description, so that a render of
+   * the description does not lose any points.
+   *
+   * @param description the description to check
+   * @return <code>true</code> if these bounds fit inside the bounds of the description
+   * @throws NullPointerException if the description is null
+   */
+  public boolean fitsIn(ChaosGameDescription description) {
+    Objects.requireNonNull(description, "The description cannot be null");
+    return description.getMinCoords().getX0() <= minCoords.getX0()
+        && description.getMinCoords().getX1() <= minCoords.getX1()
+        && description.getMaxCoords().getX0() >= maxCoords.getX0()
+        && description.getMaxCoords().getX1() >= maxCoords.getX1();
+  }
+
+  /**
+   * Creates a copy of the given description with these bounds, and the same transformations and
+   * weights.
+   *
+   * @param description the description to copy
+   * @return the description with these bounds
+   * @throws NullPointerException if the description is null
+   */
+  public ChaosGameDescription applyTo(ChaosGameDescription description) {
+    Objects.requireNonNull(description, "The description cannot be null");
+    return new ChaosGameDescription(minCoords, maxCoords, description.getTransforms(),
+        description.getWeights());
+  }
+}
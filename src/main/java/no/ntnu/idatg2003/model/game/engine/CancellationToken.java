@@ -0,0 +1,34 @@
+package no.ntnu.idatg2003.model.game.engine;
+
+/**
+ * A flag that can be used to stop a running Chaos Game from another thread.
+ *
+ * <p>The game checks the token between batches of steps, so a run stops shortly after
+ * {@link #cancel()} is called and returns the image drawn so far. A token cannot be reset, so a
+ * new token is needed for each run that should be cancellable on its own.
+ *
+ * @author Sigurd Riseth, Theodor Sjetnan Utvik
+ * @version 0.0.1
+ * @see ChaosGame
+ * @since 18.10.2026
+ */
+public class CancellationToken {
+
+  private volatile boolean cancelled;
+
+  /**
+   * Asks the runs using this token to stop.
+   */
+  public void cancel() {
+    cancelled = true;
+  }
+
+  /**
+   * Checks if the token has been cancelled.
+   *
+   * @return <code>true</code> if the token has been cancelled, <code>false</code> otherwise
+   */
+  public boolean isCancelled() {
+    return cancelled;
+  }
+}
@@ -1,34 +1,73 @@
 package no.ntnu.idatg2003.model.game.engine;
 
+import java.util.Arrays;
 import java.util.Objects;
-import no.ntnu.idatg2003.model.math.datatypes.Matrix2x2;
 import no.ntnu.idatg2003.model.math.datatypes.Vector2D;
-import no.ntnu.idatg2003.model.transformations.AffineTransform2D;
 
 /**
  * Represents a canvas for the Chaos Game, providing methods to manipulate pixel values.
- * The canvas is represented as a 2D array of integers.
+ * The canvas is stored in row-major order, where the pixel in row <code>r</code> and column
+ * <code>c</code> is at index <code>r * width + c</code>. By default the pixels are kept in a
+ * single array of integers, which saves an indirection on every hit, and lets bulk operations such
+ * as clearing, merging and copying run over one array. Canvases too large for an array can be
+ * given another {@link PixelStorage}, such as an {@link OffHeapPixelStorage}, or a
+ * {@link MappedPixelStorage} for canvases larger than memory. Thin attractors at high
+ * resolutions only need a {@link SparsePixelStorage}, which allocates the parts that are drawn on.
  *
  * <p>This class includes methods to retrieve and set pixel values, as well as clearing the canvas.
  *
+ * <p>Each pixel counts the points that have landed on it. The counts saturate at the largest value
+ * of the storage, {@link Integer#MAX_VALUE} by default, instead of overflowing, so a dense pixel in
+ * a very long run stays the brightest pixel of the image.
+ *
+ * <p>The canvas also keeps track of how many pixels have been hit at least once, which tells how
+ * much of the attractor has been drawn without scanning the whole canvas.
+ *
+ * <p>Walkers that draw in parallel each draw on a walker canvas of their own, see
+ * {@link #createWalkerCanvas()}. A walker canvas of a canvas on the heap has a private array and
+ * lists the pixels it has drawn on, so merging it only visits those pixels. Other storage can be
+ * far too large to copy once per walker, so a walker canvas of such a canvas collects its
+ * increments in a small batch instead, and adds them to the one shared storage whenever the batch
+ * is full.
+ *
  * @author Sigurd Riseth, Theodor Sjetnan Utvik
  * @version 0.0.1
  * @since 27.02.2024
  * @see Vector2D
- * @see AffineTransform2D
- * @see Matrix2x2
+ * @see PixelStorage
  */
-public class ChaosCanvas {
+public class ChaosCanvas implements AutoCloseable {
 
-  private final AffineTransform2D transformCoordsToIndices;
+  // The number of increments a walker canvas collects before adding them to a shared storage
+  private static final int WALKER_BATCH_SIZE = 4096;
+
+  private final double rowScale;
+  private final double rowOffset;
+  private final double columnScale;
+  private final double columnOffset;
   private final int width;
   private final int height;
-  private int[][] canvas;
+  private final PixelStorage storage;
+  // The array of a heap storage, used directly in the hot paths, or null for other storage
+  private final int[] pixels;
+  // The canvas a walker canvas draws for, or null if this is not a walker canvas
+  private final ChaosCanvas target;
+  // The increments of a walker canvas without a private array, not yet added to the target
+  private final long[] batch;
+  private int batchLength;
+  // The pixels a walker canvas with a private array has drawn on since it was last merged
+  private int[] drawn;
+  private int drawnCount;
+  private long coveredPixels;
 
   /**
    * Constructor for the ChaosCanvas. It initializes the canvas with the given dimensions and
-   * creates an AffineTransform2D object to transform coordinates to indices. It also initializes
-   * the canvas with the given dimensions.
+   * precomputes the mapping from coordinates to pixels.
+   *
+   * <p>The row of a point only depends on its y-coordinate, and the column only on its
+   * x-coordinate, with the maximum y-coordinate in the top row. Each of them is therefore one
+   * multiply-add, whose offset includes the 0.5 that rounds to the nearest pixel, so the pixel is
+   * found by truncating the result.
    *
    * @param minCoords the minimum coordinates for the canvas
    * @param maxCoords the maximum coordinates for the canvas
@@ -38,28 +77,172 @@ public class ChaosCanvas {
    * @throws IllegalArgumentException if the width or height is less than or equal to 0
    */
   public ChaosCanvas(Vector2D minCoords, Vector2D maxCoords, int width, int height) {
+    this(minCoords, maxCoords, width, height, null);
+  }
+
+  /**
+   * Constructor for a ChaosCanvas that keeps its pixels in the given storage. The canvas takes
+   * ownership of the storage, and closes it when the canvas is closed.
+   *
+   * @param minCoords the minimum coordinates for the canvas
+   * @param maxCoords the maximum coordinates for the canvas
+   * @param width     the width of the canvas
+   * @param height    the height of the canvas
+   * @param storage   the storage of the pixels, which must hold width times height pixels, or
+   *                  <code>null</code> for an array on the heap. The pixels already counted in a
+   *                  {@link MappedPixelStorage} are kept
+   * @throws NullPointerException     if the minimum or maximum coordinates are null
+   * @throws IllegalArgumentException if the width or height is less than or equal to 0, or the
+   *                                  storage has the wrong size
+   */
+  public ChaosCanvas(Vector2D minCoords, Vector2D maxCoords, int width, int height,
+      PixelStorage storage) {
     Objects.requireNonNull(minCoords, "The minimum coordinates cannot be null");
     Objects.requireNonNull(maxCoords, "The maximum coordinates cannot be null");
     if (width <= 0 || height <= 0) {
       throw new IllegalArgumentException("The width and height must be positive");
     }
+    long size = (long) width * height;
+    if (storage != null && storage.size() != size) {
+      throw new IllegalArgumentException("The storage must hold width times height pixels");
+    }
     this.width = width;
     this.height = height;
-    this.canvas = new int[height][width];
+    this.storage = storage != null ? storage : new HeapPixelStorage(size);
+    this.pixels = this.storage instanceof HeapPixelStorage heap ? heap.array() : null;
+    this.target = null;
+    this.batch = null;
+    if (this.storage instanceof MappedPixelStorage mapped) {
+      // A file opened again keeps the pixels it covered in an earlier run
+      mapped.flush();
+      this.coveredPixels = mapped.getCoveredPixels();
+    }
 
-    Matrix2x2 matrixA =
-        new Matrix2x2(
-            0,
-            (height - 1) / (minCoords.getX1() - maxCoords.getX1()),
-            (width - 1) / (maxCoords.getX0() - minCoords.getX0()),
-            0);
+    this.rowScale = (height - 1) / (minCoords.getX1() - maxCoords.getX1());
+    this.rowOffset =
+        ((height - 1) * maxCoords.getX1()) / (maxCoords.getX1() - minCoords.getX1()) + 0.5;
+    this.columnScale = (width - 1) / (maxCoords.getX0() - minCoords.getX0());
+    this.columnOffset =
+        ((width - 1) * minCoords.getX0()) / (minCoords.getX0() - maxCoords.getX0()) + 0.5;
+  }
 
-    Vector2D b =
-        new Vector2D(
-            ((height - 1) * maxCoords.getX1()) / (maxCoords.getX1() - minCoords.getX1()),
-            ((width - 1) * minCoords.getX0()) / (minCoords.getX0() - maxCoords.getX0()));
+  /**
+   * Creates an empty canvas with the same mapping as the given canvas, and the given storage.
+   *
+   * @param other   the canvas to copy the mapping from
+   * @param storage the storage of the new canvas
+   * @param target  the canvas the new canvas draws for as a walker canvas, or <code>null</code>
+   */
+  private ChaosCanvas(ChaosCanvas other, PixelStorage storage, ChaosCanvas target) {
+    this.rowScale = other.rowScale;
+    this.rowOffset = other.rowOffset;
+    this.columnScale = other.columnScale;
+    this.columnOffset = other.columnOffset;
+    this.width = other.width;
+    this.height = other.height;
+    this.storage = storage;
+    this.pixels = storage instanceof HeapPixelStorage heap ? heap.array() : null;
+    this.target = target;
+    boolean batched = target != null && pixels == null;
+    this.batch = batched ? new long[WALKER_BATCH_SIZE] : null;
+    this.drawn = target != null && !batched ? new int[WALKER_BATCH_SIZE] : null;
+  }
 
-    this.transformCoordsToIndices = new AffineTransform2D(matrixA, b);
+  /**
+   * Creates an empty canvas with the same coordinates and dimensions as this canvas, and a new
+   * storage of the same kind.
+   *
+   * @return the new canvas
+   */
+  public ChaosCanvas createEmpty() {
+    return new ChaosCanvas(this, storage.createEmpty(), null);
+  }
+
+  /**
+   * Creates a canvas for one of several walkers that draw for this canvas in parallel. Each walker
+   * draws on its own walker canvas, and {@link #mergeWalker(ChaosCanvas)} adds what it has drawn
+   * to this canvas.
+   *
+   * <p>If the pixels of this canvas are in an array on the heap, the walker canvas gets a private
+   * array of the same size, and lists the pixels it draws on for the first time. Other storage is
+   * not copied. The walker canvas then collects its increments in a batch of
+   * {@value #WALKER_BATCH_SIZE}, and adds a full batch to the storage of this canvas while
+   * holding the lock of this canvas, so the storage is only allocated once however many walkers
+   * there are. The walker canvas can only be drawn on with {@link #putPixel(double, double)}.
+   *
+   * @return the walker canvas
+   */
+  ChaosCanvas createWalkerCanvas() {
+    if (pixels != null) {
+      return new ChaosCanvas(this, new HeapPixelStorage(storage.size()), this);
+    }
+    return new ChaosCanvas(this, storage, this);
+  }
+
+  /**
+   * Adds what a walker canvas of this canvas has drawn since it was last merged to this canvas,
+   * and empties the walker canvas, so it can go on drawing. Only the pixels the walker has drawn
+   * on are visited. This must not be called while the walker is drawing.
+   *
+   * @param walker the walker canvas to merge
+   * @throws IllegalArgumentException if the canvas is not a walker canvas of this canvas
+   */
+  void mergeWalker(ChaosCanvas walker) {
+    if (walker.target != this) {
+      throw new IllegalArgumentException("The canvas is not a walker canvas of this canvas");
+    }
+    if (walker.batch != null) {
+      walker.writeBatch();
+      return;
+    }
+    final int[] source = walker.pixels;
+    final int[] target = this.pixels;
+    for (int i = 0; i < walker.drawnCount; i++) {
+      int index = walker.drawn[i];
+      if (target[index] == 0) {
+        coveredPixels++;
+      }
+      target[index] = (int) Math.min((long) target[index] + source[index], Integer.MAX_VALUE);
+      source[index] = 0;
+    }
+    walker.drawnCount = 0;
+    walker.coveredPixels = 0;
+  }
+
+  /**
+   * Adds the increments in the batch of a walker canvas to the storage of its target, while
+   * holding the lock of the target, since other walkers share the storage.
+   */
+  private void writeBatch() {
+    if (batchLength == 0) {
+      return;
+    }
+    synchronized (target) {
+      for (int i = 0; i < batchLength; i++) {
+        target.increment(batch[i]);
+      }
+    }
+    batchLength = 0;
+  }
+
+  /**
+   * Finds the index in the pixel array of the pixel at the specified coordinates, without
+   * creating any intermediate objects. The mapping and the bounds check are fused, so a point
+   * outside the canvas costs no more than a point inside it.
+   *
+   * @param x0 the x-coordinate of the point
+   * @param x1 the y-coordinate of the point
+   * @return the index of the pixel in row-major order, or -1 if the point is outside the canvas
+   *         or has NaN coordinates
+   */
+  public long pixelIndex(double x0, double x1) {
+    double row = rowScale * x1 + rowOffset;
+    double column = columnScale * x0 + columnOffset;
+    // Truncation rounds down exactly when the values are not negative, and NaN fails every test
+    if (row >= 0 && row < height && column >= 0 && column < width) {
+      return (long) (int) row * width + (int) column;
+    }
+    return -1;
   }
 
   /**
@@ -67,12 +250,23 @@ public class ChaosCanvas {
    *
    * @param point the point for which to retrieve the pixel value
    * @return the value of the pixel at the specified point
+   * @throws IndexOutOfBoundsException if the point is outside the canvas
    */
   public int getPixel(Vector2D point) {
-    Vector2D indexPoint = transformCoordsToIndices.transform(point);
-    int xIndex = (int) Math.round(indexPoint.getX0());
-    int yIndex = (int) Math.round(indexPoint.getX1());
-    return canvas[xIndex][yIndex];
+    return value(index(point));
+  }
+
+  /**
+   * Retrieves the value of the pixel at the specified coordinates without creating any
+   * intermediate objects.
+   *
+   * @param x0 the x-coordinate of the point
+   * @param x1 the y-coordinate of the point
+   * @return the value of the pixel, or -1 if the point is outside the canvas
+   */
+  public int getPixel(double x0, double x1) {
+    long index = pixelIndex(x0, x1);
+    return index < 0 ? -1 : value(index);
   }
 
   /**
@@ -82,10 +276,106 @@ public class ChaosCanvas {
    * @throws IndexOutOfBoundsException if the point is outside the canvas
    */
   public void putPixel(Vector2D point) throws IndexOutOfBoundsException {
-    Vector2D indexPoint = transformCoordsToIndices.transform(point);
-    int xIndex = (int) Math.round(indexPoint.getX0());
-    int yIndex = (int) Math.round(indexPoint.getX1());
-    this.canvas[xIndex][yIndex] += 1;
+    increment(index(point));
+  }
+
+  /**
+   * Increases the value of the pixel at the specified coordinates on the canvas without creating
+   * any intermediate objects.
+   *
+   * <p>Unlike {@link #putPixel(Vector2D)}, this method does not throw if the point is outside the
+   * canvas. The point is discarded instead, and the caller is told so through the return value.
+   * Points with NaN coordinates are discarded as well.
+   *
+   * @param x0 the x-coordinate of the point
+   * @param x1 the y-coordinate of the point
+   * @return <code>true</code> if the pixel was increased, <code>false</code> if the point is
+   *         outside the canvas
+   */
+  public boolean putPixel(double x0, double x1) {
+    long index = pixelIndex(x0, x1);
+    if (index < 0) {
+      return false;
+    }
+    increment(index);
+    return true;
+  }
+
+  /**
+   * Returns the index of the pixel at a point in the pixel array.
+   *
+   * @param point the point
+   * @return the index of the pixel
+   * @throws IndexOutOfBoundsException if the point is outside the canvas
+   */
+  private long index(Vector2D point) {
+    return index((int) Math.floor(rowScale * point.getX1() + rowOffset),
+        (int) Math.floor(columnScale * point.getX0() + columnOffset));
+  }
+
+  /**
+   * Returns the index of a pixel in the pixel array.
+   *
+   * @param row    the row of the pixel
+   * @param column the column of the pixel
+   * @return the index of the pixel
+   * @throws IndexOutOfBoundsException if the pixel is outside the canvas
+   */
+  private long index(int row, int column) {
+    return (long) Objects.checkIndex(row, height) * width + Objects.checkIndex(column, width);
+  }
+
+  /**
+   * Returns the value of a pixel, limited to the range of an <code>int</code>.
+   *
+   * @param index the index of the pixel
+   * @return the value of the pixel
+   */
+  private int value(long index) {
+    if (pixels != null) {
+      return pixels[(int) index];
+    }
+    return (int) Math.min(storage.get(index), Integer.MAX_VALUE);
+  }
+
+  /**
+   * Increases the value of a pixel by one, unless it has already reached the maximum value.
+   *
+   * @param index the index of the pixel
+   */
+  private void increment(long index) {
+    if (pixels != null) {
+      int value = pixels[(int) index];
+      if (value == 0) {
+        coveredPixels++;
+        if (drawn != null) {
+          markDrawn((int) index);
+        }
+      }
+      if (value != Integer.MAX_VALUE) {
+        pixels[(int) index] = value + 1;
+      }
+    } else if (batch != null) {
+      batch[batchLength++] = index;
+      if (batchLength == batch.length) {
+        writeBatch();
+      }
+    } else if (storage.increment(index)) {
+      coveredPixels++;
+    }
+  }
+
+  /**
+   * Lists a pixel that a walker canvas has drawn on for the first time since it was last merged.
+   * Each pixel is listed at most once, so the list never grows beyond the size of the canvas.
+   *
+   * @param index the index of the pixel
+   */
+  private void markDrawn(int index) {
+    if (drawnCount == drawn.length) {
+      drawn = Arrays.copyOf(drawn, (int) Math.min(storage.size(), 2L * drawn.length));
+    }
+    drawn[drawnCount++] = index;
   }
 
   /**
@@ -97,23 +387,182 @@ public class ChaosCanvas {
    * @throws IndexOutOfBoundsException if the coordinates are outside the canvas
    */
   public void putPixel(int x, int y, int value) {
-    this.canvas[y][x] = value;
+    long index = index(y, x);
+    long oldValue = storage.get(index);
+    storage.set(index, value);
+    if (oldValue == 0 && value != 0) {
+      coveredPixels++;
+    } else if (oldValue != 0 && value == 0) {
+      coveredPixels--;
+    }
   }
 
   /**
-   * Retrieves the 2D array representing the canvas.
+   * Retrieves a snapshot copy of the canvas as a 2D array, indexed by row and then column.
+   *
+   * <p>The pixels are stored in one flat array, so this no longer returns a view of the canvas.
+   * A new array of all the pixels is created on every call, and writes to it do not reach the
+   * canvas.
    *
-   * @return the canvas array
+   * @return a snapshot copy of the canvas as a 2D array
+   * @deprecated Use {@link #copyPixels()} for a snapshot, or {@link #getPixels()} to read and
+   *             write the pixels of a heap canvas directly, both in row-major order.
    */
+  @Deprecated
   public int[][] getCanvasArray() {
-    return this.canvas;
+    int[][] canvasArray = new int[height][width];
+    for (int row = 0; row < height; row++) {
+      if (pixels != null) {
+        System.arraycopy(pixels, row * width, canvasArray[row], 0, width);
+      } else {
+        for (int column = 0; column < width; column++) {
+          canvasArray[row][column] = value((long) row * width + column);
+        }
+      }
+    }
+    return canvasArray;
+  }
+
+  /**
+   * Retrieves the array holding the pixels of the canvas in row-major order. The array is not
+   * copied, so it changes as points are drawn.
+   *
+   * @return the pixel array of the canvas
+   * @throws UnsupportedOperationException if the pixels are not stored in an array on the heap
+   */
+  public int[] getPixels() {
+    if (pixels == null) {
+      throw new UnsupportedOperationException("The pixels are not stored in an array");
+    }
+    return pixels;
+  }
+
+  /**
+   * Copies the pixels of the canvas in row-major order, for example to hand a snapshot of the
+   * image to another thread while the game keeps drawing.
+   *
+   * @return a copy of the pixels of the canvas
+   * @throws OutOfMemoryError if the canvas is too large for an array
+   */
+  public int[] copyPixels() {
+    if (pixels != null) {
+      return pixels.clone();
+    }
+    if (storage.size() > Integer.MAX_VALUE - 8) {
+      throw new OutOfMemoryError("The canvas is too large for an array");
+    }
+    int[] copy = new int[(int) storage.size()];
+    for (int i = 0; i < copy.length; i++) {
+      copy[i] = value(i);
+    }
+    return copy;
+  }
+
+  /**
+   * Returns the storage that holds the pixels of the canvas, for example to read 64-bit counts
+   * or to hand the memory to an image writer.
+   *
+   * @return the storage of the pixels
+   */
+  public PixelStorage getStorage() {
+    return storage;
+  }
+
+  /**
+   * Adds the pixel values of another canvas of the same dimensions to this canvas. The sums
+   * saturate at the largest value of the storage of this canvas.
+   *
+   * @param other the canvas to add to this canvas
+   * @return this canvas, to allow merges to be chained in a reduction
+   * @throws NullPointerException     if the other canvas is null
+   * @throws IllegalArgumentException if the canvases do not have the same dimensions
+   */
+  public ChaosCanvas merge(ChaosCanvas other) {
+    Objects.requireNonNull(other, "The canvas to merge cannot be null");
+    if (other.width != width || other.height != height) {
+      throw new IllegalArgumentException("The canvases must have the same dimensions");
+    }
+    if (this.pixels != null && other.pixels != null) {
+      final int[] target = this.pixels;
+      final int[] source = other.pixels;
+      for (int i = 0; i < target.length; i++) {
+        if (target[i] == 0 && source[i] != 0) {
+          coveredPixels++;
+        }
+        target[i] = (int) Math.min((long) target[i] + source[i], Integer.MAX_VALUE);
+      }
+      return this;
+    }
+    if (this.storage instanceof SparsePixelStorage target
+        && other.storage instanceof SparsePixelStorage source && target.hasSameLayout(source)) {
+      // Only the tiles the other canvas has drawn on need to be visited
+      coveredPixels += target.add(source);
+      return this;
+    }
+    long maxValue = storage.maxValue();
+    for (long i = 0; i < storage.size(); i++) {
+      long source = other.storage.get(i);
+      if (source != 0) {
+        long target = storage.get(i);
+        if (target == 0) {
+          coveredPixels++;
+        }
+        // Both counts are non-negative, so the sum only overflows past the maximum value
+        long sum = target + source;
+        storage.set(i, sum < 0 ? maxValue : Math.min(sum, maxValue));
+      }
+    }
+    return this;
+  }
+
+  /**
+   * Returns the number of pixels that have a value other than zero. Changes made directly to the
+   * array returned by {@link #getPixels()} or to the storage are not counted.
+   *
+   * @return the number of covered pixels
+   */
+  public long getCoveredPixels() {
+    // A storage that defers increments only knows which pixels they covered once they are written
+    coveredPixels += storage.flush();
+    return coveredPixels;
+  }
+
+  /**
+   * Returns the width of the canvas.
+   *
+   * @return the width of the canvas
+   */
+  public int getWidth() {
+    return width;
+  }
+
+  /**
+   * Returns the height of the canvas.
+   *
+   * @return the height of the canvas
+   */
+  public int getHeight() {
+    return height;
   }
 
   /**
-   * Clears the canvas by creating a new empty canvas array.
+   * Clears the canvas by setting every pixel to zero. The storage is reused, so clearing does not
+   * allocate new memory.
    */
   public void clear() {
-    this.canvas = new int[height][width];
+    storage.clear();
+    coveredPixels = 0;
+  }
+
+  /**
+   * Closes the storage of the canvas, releasing its memory. The canvas cannot be used afterwards.
+   * A walker canvas that draws straight into the storage of its target leaves it open.
+   */
+  @Override
+  public void close() {
+    if (batch == null) {
+      storage.close();
+    }
   }
 
 }
@@ -1,10 +1,19 @@
 package no.ntnu.idatg2003.model.game.engine;
 
-import java.util.ArrayList;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
-import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.JumpableGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
+import java.util.random.RandomGeneratorFactory;
+import java.util.stream.IntStream;
+import no.ntnu.idatg2003.model.game.engine.ChaosGameResult.StopReason;
 import no.ntnu.idatg2003.model.math.datatypes.Vector2D;
+import no.ntnu.idatg2003.model.transformations.AffineTransform2D;
 import no.ntnu.idatg2003.model.transformations.Transform2D;
 import no.ntnu.idatg2003.utility.logging.LoggerUtil;
 
@@ -13,6 +22,33 @@ import no.ntnu.idatg2003.utility.logging.LoggerUtil;
  * This class contains a canvas, a description of the game, a random number generator, and the current point.
  * It provides methods to run the game for a specified number of steps and to retrieve the canvas.
  *
+ * <p>The description is compiled into a {@link TransformProgram}, which runs batches of steps in
+ * a loop specialized for the kind of transformations, keeping the current point and the
+ * transformations as primitive values so that no objects are allocated per step. The steps can
+ * also be split across several independent walkers that run in parallel, each drawing on a
+ * walker canvas of its own that is merged into the canvas of the game. Runs can either start
+ * over on a cleared canvas or continue from where the previous run stopped, adding to the pixels
+ * already drawn.
+ *
+ * <p>In each step, a transformation is chosen with the probability given by
+ * {@link ChaosGameDescription#getWeights()}, using an {@link AliasTable} so that the choice takes
+ * constant time regardless of the number of transformations.
+ *
+ * <p>The random numbers come from a {@link RandomGenerator}, which can be given with a seed to make
+ * runs reproducible. By default the {@value #DEFAULT_ALGORITHM} algorithm is used. Parallel walkers
+ * get their own streams split from this generator.
+ *
+ * <p>Besides a number of steps, a run can be limited by a wall-clock budget and stopped from
+ * another thread with a {@link CancellationToken}. A run that stops early keeps what it has drawn.
+ * Runs can also stop by themselves once the image has converged, so the number of steps does not
+ * have to be guessed.
+ *
+ * <p>A run that starts from the origin first runs a number of burn-in steps that are not drawn,
+ * so the transient points on the way from the origin to the attractor leave no stray pixels.
+ * Every parallel walker runs its own burn-in. By default, the number of burn-in steps is derived
+ * from the contraction factors of the maps, so that the point is closer to the attractor than a
+ * pixel once the burn-in is done.
+ *
  * <p>It implements the {@link ChaosGameSubject} interface.
  *
  * @author Sigurd Riseth, Theodor Sjetnan Utvik
@@ -22,18 +58,60 @@ import no.ntnu.idatg2003.utility.logging.LoggerUtil;
  * @see ChaosGameObserver
  * @see ChaosCanvas
  * @see ChaosGameDescription
+ * @see TransformProgram
+ * @see ChaosGameResult
+ * @see CancellationToken
  * @see Vector2D
  */
 public class ChaosGame implements ChaosGameSubject {
 
-  private final ArrayList<ChaosGameObserver> observers = new ArrayList<>();
-  private final Random random;
+  /**
+   * The name of the random number generator algorithm used when none is given.
+   */
+  public static final String DEFAULT_ALGORITHM = "L64X128MixRandom";
+
+  /**
+   * The number of steps run between two checks of the time budget and the cancellation token.
+   */
+  public static final int CHECK_INTERVAL = 16_384;
+
+  /**
+   * The wall-clock time between two merges of the walkers of a parallel run. After each merge the
+   * progress and the image drawn so far are published to the observers.
+   */
+  public static final Duration PUBLISH_INTERVAL = Duration.ofMillis(250);
+
+  /**
+   * The number of steps between two measurements of how much the image has changed, in runs that
+   * stop when the image has converged.
+   */
+  public static final int CONVERGENCE_WINDOW = 1_000_000;
+
+  /**
+   * The time budget of runs that are only limited by their number of steps.
+   */
+  public static final Duration NO_BUDGET = ChronoUnit.FOREVER.getDuration();
+
+  /**
+   * The number of burn-in steps of descriptions whose maps are not all affine contractions.
+   */
+  public static final int DEFAULT_BURN_IN_STEPS = 100;
+
+  /**
+   * The largest number of burn-in steps derived from the contraction factors of the maps.
+   */
+  public static final int MAX_BURN_IN_STEPS = 1_000;
+
+  private final List<ChaosGameObserver> observers = new CopyOnWriteArrayList<>();
+  private final RandomGenerator random;
   private final ChaosCanvas canvas;
-  private final ChaosGameDescription description;
-  private Vector2D currentPoint;
+  private final TransformProgram program;
+  private final double[] point = new double[2];
+  private long burnInSteps;
+  private boolean burnedIn;
 
   /**
-   * Constructor for the ChaosGame.
+   * Constructor for the ChaosGame, using an unseeded random number generator.
    *
    * @param description the description of the game
    * @param width       the width of the canvas
@@ -43,15 +121,130 @@ public class ChaosGame implements ChaosGameSubject {
    */
   public ChaosGame(ChaosGameDescription description, int width, int height)
       throws IllegalArgumentException {
+    this(description, width, height, RandomGeneratorFactory.of(DEFAULT_ALGORITHM).create());
+  }
+
+  /**
+   * Constructor for the ChaosGame, using the default random number generator with the given
+   * seed. Two games with the same description, dimensions and seed draw the same image.
+   *
+   * @param description the description of the game
+   * @param width       the width of the canvas
+   * @param height      the height of the canvas
+   * @param seed        the seed of the random number generator
+   * @throws NullPointerException     if the description is null
+   * @throws IllegalArgumentException if the width or height is less than or equal to 0
+   */
+  public ChaosGame(ChaosGameDescription description, int width, int height, long seed)
+      throws IllegalArgumentException {
+    this(description, width, height, RandomGeneratorFactory.of(DEFAULT_ALGORITHM).create(seed));
+  }
+
+  /**
+   * Constructor for the ChaosGame, using the given random number generator.
+   *
+   * <p>The generator is used by this game only, and should not be shared with other threads. If
+   * it is a {@link SplittableGenerator} or a {@link JumpableGenerator}, parallel walkers get streams
+   * split or jumped from it.
+   *
+   * @param description the description of the game
+   * @param width       the width of the canvas
+   * @param height      the height of the canvas
+   * @param random      the random number generator to use
+   * @throws NullPointerException     if the description or the random number generator is null
+   * @throws IllegalArgumentException if the width or height is less than or equal to 0
+   */
+  public ChaosGame(ChaosGameDescription description, int width, int height,
+      RandomGenerator random) throws IllegalArgumentException {
+    this(description, width, height, random, null);
+  }
+
+  /**
+   * Constructor for the ChaosGame, using the given random number generator and keeping the pixels
+   * of the canvas in the given storage, such as an {@link OffHeapPixelStorage} for very large
+   * images. Such storage is never copied for parallel walkers, which add their points to it in
+   * small batches instead.
+   *
+   * @param description the description of the game
+   * @param width       the width of the canvas
+   * @param height      the height of the canvas
+   * @param random      the random number generator to use
+   * @param storage     the storage of the canvas, which must hold width times height pixels, or
+   *                    <code>null</code> for an array on the heap
+   * @throws NullPointerException     if the description or the random number generator is null
+   * @throws IllegalArgumentException if the width or height is less than or equal to 0, or the
+   *                                  storage has the wrong size
+   */
+  public ChaosGame(ChaosGameDescription description, int width, int height,
+      RandomGenerator random, PixelStorage storage) throws IllegalArgumentException {
     Objects.requireNonNull(description, "The description cannot be null");
+    Objects.requireNonNull(random, "The random number generator cannot be null");
     if (width <= 0 || height <= 0) {
       throw new IllegalArgumentException("The width and height must be positive");
     }
-    this.description = description;
-    this.canvas =
-        new ChaosCanvas(description.getMinCoords(), description.getMaxCoords(), width, height);
-    this.currentPoint = new Vector2D(0, 0);
-    this.random = new Random();
+    this.canvas = new ChaosCanvas(description.getMinCoords(), description.getMaxCoords(), width,
+        height, storage);
+    this.program = TransformProgram.compile(description);
+    this.random = random;
+    this.burnInSteps = defaultBurnInSteps(description, width, height);
+  }
+
+  /**
+   * Derives the number of burn-in steps from the contraction factors of the maps. The origin and
+   * the attractor both lie in the ball given by the contraction bounds, so after k steps the point
+   * is at most <code>s^k</code> times the diameter of the ball away from the attractor, where s is
+   * the largest contraction factor. The burn-in lasts until that distance is below a pixel.
+   *
+   * @param description the description of the game
+   * @param width       the width of the canvas
+   * @param height      the height of the canvas
+   * @return the number of burn-in steps
+   */
+  private static long defaultBurnInSteps(ChaosGameDescription description, int width,
+      int height) {
+    double contraction = 0;
+    for (Transform2D transform : description.getTransforms()) {
+      if (!(transform instanceof AffineTransform2D affine)) {
+        return DEFAULT_BURN_IN_STEPS;
+      }
+      contraction = Math.max(contraction, AttractorBounds.operatorNorm(affine.getMatrix()));
+    }
+    if (contraction >= 1) {
+      return DEFAULT_BURN_IN_STEPS;
+    }
+    double diameter =
+        2 * AttractorBounds.fromContraction(description.getTransforms()).maxCoords().getX0();
+    double pixelSize = Math.min(
+        (description.getMaxCoords().getX0() - description.getMinCoords().getX0()) / width,
+        (description.getMaxCoords().getX1() - description.getMinCoords().getX1()) / height);
+    if (contraction == 0 || diameter <= pixelSize) {
+      return 1;
+    }
+    double steps = Math.ceil(Math.log(pixelSize / diameter) / Math.log(contraction));
+    return steps < MAX_BURN_IN_STEPS ? (long) steps : MAX_BURN_IN_STEPS;
+  }
+
+  /**
+   * Returns the number of steps that are run without drawing before a run from the origin.
+   *
+   * @return the number of burn-in steps
+   */
+  public long getBurnInSteps() {
+    return burnInSteps;
+  }
+
+  /**
+   * Sets the number of steps that are run without drawing before a run from the origin. Parallel
+   * walkers each run this number of steps.
+   *
+   * @param burnInSteps the number of burn-in steps
+   * @throws IllegalArgumentException if the number of burn-in steps is negative
+   */
+  public void setBurnInSteps(long burnInSteps) {
+    if (burnInSteps < 0) {
+      throw new IllegalArgumentException("The number of burn-in steps cannot be negative");
+    }
+    this.burnInSteps = burnInSteps;
   }
 
   /**
@@ -64,36 +257,696 @@ public class ChaosGame implements ChaosGameSubject {
   }
 
   /**
-   * Runs the chaos game for the specified number of steps.
+   * Runs the chaos game for the specified number of steps on a cleared canvas, starting from the
+   * origin.
    *
    * @param steps the number of steps to run
+   * @return the result of the run
    * @throws IllegalArgumentException if steps is negative
+   * @see #continueSteps(long)
    */
-  public void runSteps(int steps) {
-    if (steps < 0) {
-      throw new IllegalArgumentException("Steps must be non-negative");
+  public ChaosGameResult runSteps(long steps) {
+    return runSteps(steps, NO_BUDGET, new CancellationToken());
+  }
+
+  /**
+   * Runs the chaos game on a cleared canvas, starting from the origin, for as many steps as fit in
+   * the given time budget.
+   *
+   * @param budget the wall-clock time the run may use
+   * @return the result of the run
+   * @throws NullPointerException     if the budget is null
+   * @throws IllegalArgumentException if the budget is negative
+   * @see #continueSteps(long, Duration, CancellationToken)
+   */
+  public ChaosGameResult runFor(Duration budget) {
+    return runSteps(Long.MAX_VALUE, budget, new CancellationToken());
+  }
+
+  /**
+   * Runs the chaos game on a cleared canvas, starting from the origin, until the given number of
+   * steps is run, the time budget is used up or the run is cancelled.
+   *
+   * @param steps  the maximum number of steps to run
+   * @param budget the wall-clock time the run may use
+   * @param token  the token that can cancel the run
+   * @return the result of the run
+   * @throws NullPointerException     if the budget or the token is null
+   * @throws IllegalArgumentException if steps or the budget is negative
+   * @see #continueSteps(long, Duration, CancellationToken)
+   */
+  public ChaosGameResult runSteps(long steps, Duration budget, CancellationToken token) {
+    StopCondition stopCondition = createStopCondition(steps, budget, token);
+    reset();
+    return run(steps, stopCondition, null);
+  }
+
+  /**
+   * Runs the chaos game on a cleared canvas, starting from the origin, until the image has
+   * converged or the maximum number of steps is run.
+   *
+   * @param tolerance the largest share of newly covered pixels at which the image has converged
+   * @param maxSteps  the maximum number of steps to run
+   * @return the result of the run, with the number of steps actually used
+   * @throws IllegalArgumentException if the tolerance is negative or not finite, or maxSteps is
+   *                                  negative
+   * @see #continueUntilConverged(double, long)
+   */
+  public ChaosGameResult runUntilConverged(double tolerance, long maxSteps) {
+    StopCondition stopCondition =
+        createStopCondition(maxSteps, NO_BUDGET, new CancellationToken());
+    validateTolerance(tolerance);
+    reset();
+    return run(maxSteps, stopCondition, new ConvergenceCheck(canvas, tolerance));
+  }
+
+  /**
+   * Runs the chaos game for additional steps, without clearing the canvas, until the image has
+   * converged or the maximum number of steps is run.
+   *
+   * <p>Every {@value #CONVERGENCE_WINDOW} steps, the number of pixels that were hit for the first
+   * time during those steps is compared to the number of pixels covered in total. When the share
+   * of newly covered pixels is at most the tolerance, the attractor is considered drawn and the run
+   * stops. This only uses the counters of the {@link ChaosCanvas}, so it works the same for every
+   * kind of transformation. A canvas that no point has hit yet is never considered converged.
+   *
+   * @param tolerance the largest share of newly covered pixels at which the image has converged
+   * @param maxSteps  the maximum number of steps to run
+   * @return the result of the run, with the number of steps actually used
+   * @throws IllegalArgumentException if the tolerance is negative or not finite, or maxSteps is
+   *                                  negative
+   */
+  public ChaosGameResult continueUntilConverged(double tolerance, long maxSteps) {
+    StopCondition stopCondition =
+        createStopCondition(maxSteps, NO_BUDGET, new CancellationToken());
+    validateTolerance(tolerance);
+    return run(maxSteps, stopCondition, new ConvergenceCheck(canvas, tolerance));
+  }
+
+  /**
+   * Runs the chaos game on a cleared canvas, split across one walker per available processor,
+   * until the image has converged or the maximum number of steps is run.
+   *
+   * <p>The walkers are created once and run in windows of {@value #CONVERGENCE_WINDOW} steps in
+   * total. After each window, only the pixels the walkers have drawn on during the window are
+   * merged into the canvas, and the image is checked in the same way as in
+   * {@link #continueUntilConverged(double, long)}. The progress is reported toward the maximum
+   * number of steps, and the image is published every {@link #PUBLISH_INTERVAL}.
+   *
+   * @param tolerance the largest share of newly covered pixels at which the image has converged
+   * @param maxSteps  the maximum number of steps to run
+   * @return the result of the run, with the number of steps actually used
+   * @throws IllegalArgumentException if the tolerance is negative or not finite, or maxSteps is
+   *                                  negative
+   */
+  public ChaosGameResult runUntilConvergedParallel(double tolerance, long maxSteps) {
+    StopCondition stopCondition =
+        createStopCondition(maxSteps, NO_BUDGET, new CancellationToken());
+    validateTolerance(tolerance);
+    reset();
+    return warnIfRejected(runParallel(maxSteps, Runtime.getRuntime().availableProcessors(),
+        stopCondition, new ConvergenceCheck(canvas, tolerance)));
+  }
+
+  /**
+   * Checks that a convergence tolerance is valid.
+   *
+   * @param tolerance the tolerance to check
+   * @throws IllegalArgumentException if the tolerance is negative or not finite
+   */
+  private static void validateTolerance(double tolerance) {
+    if (!Double.isFinite(tolerance) || tolerance < 0) {
+      throw new IllegalArgumentException("The tolerance must be finite and non-negative");
     }
-    canvas.clear();
+  }
+
+  /**
+   * Runs the chaos game for the specified number of additional steps, without clearing the canvas.
+   *
+   * <p>The steps continue from the current point, and their pixels are added to the pixels
+   * already on the canvas. Refining an image with more steps therefore only costs the new steps.
+   *
+   * <p>Points that land outside the canvas are not drawn, but the run goes on, and the number of
+   * such points is reported in the result.
+   *
+   * <p>The progress observers are told each time another percent of the steps has been run.
+   *
+   * @param steps the number of steps to run
+   * @return the result of the run
+   * @throws IllegalArgumentException if steps is negative
+   */
+  public ChaosGameResult continueSteps(long steps) {
+    return continueSteps(steps, NO_BUDGET, new CancellationToken());
+  }
+
+  /**
+   * Runs the chaos game for additional steps, without clearing the canvas, until the given number
+   * of steps is run, the time budget is used up or the run is cancelled.
+   *
+   * <p>The budget and the token are checked between batches of {@value #CHECK_INTERVAL} steps,
+   * so the run stops shortly after the budget is used up or the token is cancelled. Whatever has
+   * been drawn by then stays on the canvas, and the result tells why the run stopped.
+   *
+   * <p>The progress observers are told each time another percent of the steps or of the budget
+   * has been used, whichever comes first.
+   *
+   * @param steps  the maximum number of steps to run
+   * @param budget the wall-clock time the run may use
+   * @param token  the token that can cancel the run
+   * @return the result of the run
+   * @throws NullPointerException     if the budget or the token is null
+   * @throws IllegalArgumentException if steps or the budget is negative
+   */
+  public ChaosGameResult continueSteps(long steps, Duration budget, CancellationToken token) {
+    return run(steps, createStopCondition(steps, budget, token), null);
+  }
+
+  /**
+   * Runs the steps from the current point on the canvas of this game, reporting the progress.
+   *
+   * @param steps         the maximum number of steps to run
+   * @param stopCondition the condition that can stop the run early
+   * @param convergence   the check that stops the run when the image has converged, or
+   *                      <code>null</code> to run until the other limits are reached
+   * @return the result of the run
+   */
+  private ChaosGameResult run(long steps, StopCondition stopCondition,
+      ConvergenceCheck convergence) {
+    Walker walker = new Walker(point, random, canvas);
+    if (!burnedIn) {
+      walker.burnIn();
+      burnedIn = true;
+    }
+    StopReason stopReason = StopReason.COMPLETED;
     int progress = 0;
+    int stepProgress = 0;
+    long nextProgressStep = progressStep(steps, 1);
     try {
-      for (int i = 0; i < steps; i++) {
-        int randomTransform = random.nextInt(description.getTransforms().size());
-        List<Transform2D> transforms = description.getTransforms();
-        currentPoint = transforms.get(randomTransform).transform(currentPoint);
-        canvas.putPixel(currentPoint);
-
-        int newProgress = (int) ((i + 1) * 100.0 / steps);
+      while (walker.stepsRun < steps) {
+        stopReason = stopCondition.check();
+        if (stopReason != StopReason.COMPLETED) {
+          break;
+        }
+        long nextCheckStep = convergence == null ? Long.MAX_VALUE : convergence.nextCheckStep;
+        walker.runSteps(Math.min(Math.min(Math.min(steps, nextProgressStep), nextCheckStep)
+            - walker.stepsRun, CHECK_INTERVAL));
 
+        while (stepProgress < 100 && walker.stepsRun >= progressStep(steps, stepProgress + 1)) {
+          stepProgress++;
+        }
+        nextProgressStep =
+            stepProgress < 100 ? progressStep(steps, stepProgress + 1) : Long.MAX_VALUE;
+        int newProgress = Math.max(stepProgress, stopCondition.timeProgress());
         if (newProgress > progress) {
           progress = newProgress;
           notifyProgress(progress);
         }
+        if (convergence != null && convergence.isConverged(walker.stepsRun)) {
+          stopReason = StopReason.CONVERGED;
+          break;
+        }
+      }
+      if (stopReason != StopReason.COMPLETED && stopReason != StopReason.CANCELLED
+          && progress < 100) {
+        notifyProgress(100);
       }
     } catch (Exception e) {
       LoggerUtil.logError("An error occurred while running the game: " + e.getMessage());
     } finally {
       notifyObservers();
     }
+    return warnIfRejected(new ChaosGameResult(walker.stepsRun, walker.rejected, stopReason));
+  }
+
+  /**
+   * Returns the number of steps after which a run of the given length has reached the given
+   * percentage. The step is computed with integer arithmetic only, so it is exact and cannot
+   * overflow for any run length.
+   *
+   * @param steps   the total number of steps of the run
+   * @param percent the percentage, from 1 to 100
+   * @return the first step at which the percentage is reached
+   */
+  private static long progressStep(long steps, int percent) {
+    return steps / 100 * percent + Math.ceilDiv(steps % 100 * percent, 100);
+  }
+
+  /**
+   * Clears the canvas and moves the current point back to the origin. The next run starts with a
+   * burn-in.
+   */
+  public void reset() {
+    canvas.clear();
+    Arrays.fill(point, 0);
+    burnedIn = false;
+  }
+
+  /**
+   * Runs the chaos game for the specified number of steps, split across one walker per available
+   * processor.
+   *
+   * @param steps the total number of steps to run
+   * @return the result of the run
+   * @throws IllegalArgumentException if steps is negative
+   * @see #runStepsParallel(long, int)
+   */
+  public ChaosGameResult runStepsParallel(long steps) {
+    return runStepsParallel(steps, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Runs the chaos game on a cleared canvas, split across one walker per available processor, for
+   * as many steps as fit in the given time budget.
+   *
+   * @param budget the wall-clock time the run may use
+   * @return the result of the run
+   * @throws NullPointerException     if the budget is null
+   * @throws IllegalArgumentException if the budget is negative
+   * @see #continueStepsParallel(long, int, Duration, CancellationToken)
+   */
+  public ChaosGameResult runForParallel(Duration budget) {
+    return runStepsParallel(Long.MAX_VALUE, Runtime.getRuntime().availableProcessors(), budget,
+        new CancellationToken());
+  }
+
+  /**
+   * Runs the chaos game for the specified number of steps on a cleared canvas, split across the
+   * given number of independent walkers.
+   *
+   * @param steps   the total number of steps to run
+   * @param walkers the number of walkers to split the steps across
+   * @return the result of the run
+   * @throws IllegalArgumentException if steps is negative or walkers is not positive
+   * @see #continueStepsParallel(long, int)
+   */
+  public ChaosGameResult runStepsParallel(long steps, int walkers) {
+    return runStepsParallel(steps, walkers, NO_BUDGET, new CancellationToken());
+  }
+
+  /**
+   * Runs the chaos game on a cleared canvas, split across the given number of independent
+   * walkers, until the given number of steps is run, the time budget is used up or the run is
+   * cancelled.
+   *
+   * @param steps   the maximum total number of steps to run
+   * @param walkers the number of walkers to split the steps across
+   * @param budget  the wall-clock time the run may use
+   * @param token   the token that can cancel the run
+   * @return the result of the run
+   * @throws NullPointerException     if the budget or the token is null
+   * @throws IllegalArgumentException if steps or the budget is negative, or walkers is not
+   *                                  positive
+   * @see #continueStepsParallel(long, int, Duration, CancellationToken)
+   */
+  public ChaosGameResult runStepsParallel(long steps, int walkers, Duration budget,
+      CancellationToken token) {
+    StopCondition stopCondition = createStopCondition(steps, budget, token);
+    if (walkers <= 0) {
+      throw new IllegalArgumentException("The number of walkers must be positive");
+    }
+    reset();
+    return warnIfRejected(runParallel(steps, walkers, stopCondition, null));
+  }
+
+  /**
+   * Runs the chaos game for the specified number of additional steps, split across one walker per
+   * available processor.
+   *
+   * @param steps the total number of steps to run
+   * @return the result of the run
+   * @throws IllegalArgumentException if steps is negative
+   * @see #continueStepsParallel(long, int)
+   */
+  public ChaosGameResult continueStepsParallel(long steps) {
+    return continueStepsParallel(steps, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Runs the chaos game for the specified number of additional steps, split across the given
+   * number of independent walkers, without clearing the canvas.
+   *
+   * <p>Each walker starts from the current point and has its own copy of the point, its own
+   * random number stream split from the generator of this game and its own walker canvas. On a
+   * canvas on the heap, the walker canvas is private, so the walkers share no mutable state while
+   * running, and when all walkers are done only the pixels each of them has drawn on are added to
+   * the canvas of this game. Larger storage is shared, and the walkers add their points to it in
+   * small batches under a lock. The point of the first walker becomes the new current point.
+   *
+   * @param steps   the total number of steps to run
+   * @param walkers the number of walkers to split the steps across
+   * @return the result of the run
+   * @throws IllegalArgumentException if steps is negative or walkers is not positive
+   */
+  public ChaosGameResult continueStepsParallel(long steps, int walkers) {
+    return continueStepsParallel(steps, walkers, NO_BUDGET, new CancellationToken());
+  }
+
+  /**
+   * Runs the chaos game for additional steps, split across the given number of independent
+   * walkers, without clearing the canvas, until the given number of steps is run, the time budget
+   * is used up or the run is cancelled.
+   *
+   * <p>Every walker checks the budget and the token between batches of {@value #CHECK_INTERVAL}
+   * steps. The walkers are merged into the canvas of this game every {@link #PUBLISH_INTERVAL},
+   * after which the observers are told the progress and shown the image drawn so far, and once
+   * more when all of them have stopped, so the image drawn until then is kept.
+   *
+   * @param steps   the maximum total number of steps to run
+   * @param walkers the number of walkers to split the steps across
+   * @param budget  the wall-clock time the run may use
+   * @param token   the token that can cancel the run
+   * @return the result of the run
+   * @throws NullPointerException     if the budget or the token is null
+   * @throws IllegalArgumentException if steps or the budget is negative, or walkers is not
+   *                                  positive
+   * @see #continueStepsParallel(long, int)
+   */
+  public ChaosGameResult continueStepsParallel(long steps, int walkers, Duration budget,
+      CancellationToken token) {
+    StopCondition stopCondition = createStopCondition(steps, budget, token);
+    if (walkers <= 0) {
+      throw new IllegalArgumentException("The number of walkers must be positive");
+    }
+    return warnIfRejected(runParallel(steps, walkers, stopCondition, null));
+  }
+
+  /**
+   * Splits the steps across the given number of walkers and runs them in parallel, in rounds that
+   * end every {@link #PUBLISH_INTERVAL} and, when checking for convergence, after every window.
+   * After each round the walker canvases are merged into the canvas of this game and the progress
+   * is reported, and the image is published once the interval has passed. The walkers, with their
+   * points, random number streams and walker canvases, are kept from one round to the next.
+   *
+   * @param steps         the maximum total number of steps to run
+   * @param walkerCount   the number of walkers to split the steps across
+   * @param stopCondition the condition that can stop the walkers early
+   * @param convergence   the check that stops the run when the image has converged, or
+   *                      <code>null</code> to run until the other limits are reached
+   * @return the result of the run
+   */
+  private ChaosGameResult runParallel(long steps, int walkerCount, StopCondition stopCondition,
+      ConvergenceCheck convergence) {
+    Walker[] walkers = new Walker[walkerCount];
+    for (int i = 0; i < walkerCount; i++) {
+      walkers[i] = new Walker(point.clone(), splitRandom(), canvas.createWalkerCanvas());
+      if (!burnedIn) {
+        walkers[i].burnIn();
+      }
+    }
+    burnedIn = true;
+
+    StopReason[] stopReasons = new StopReason[walkerCount];
+    StopReason stopReason = StopReason.COMPLETED;
+    long stepsRun = 0;
+    long rejected = 0;
+    int progress = 0;
+    int stepProgress = 0;
+    long nextPublish = System.nanoTime() + PUBLISH_INTERVAL.toNanos();
+    try {
+      while (true) {
+        long roundEnd = convergence == null ? steps : Math.min(steps, convergence.nextCheckStep);
+        long deadline = nextPublish;
+        IntStream.range(0, walkerCount)
+            .parallel()
+            .forEach(i -> stopReasons[i] = runWalker(walkers[i],
+                share(roundEnd, walkerCount, i), stopCondition, deadline));
+
+        long roundSteps = -stepsRun;
+        stepsRun = 0;
+        rejected = 0;
+        for (Walker walker : walkers) {
+          canvas.mergeWalker(walker.walkerCanvas);
+          stepsRun += walker.stepsRun;
+          rejected += walker.rejected;
+        }
+        roundSteps += stepsRun;
+        List<StopReason> reasons = Arrays.asList(stopReasons);
+        stopReason = reasons.contains(StopReason.CANCELLED) ? StopReason.CANCELLED
+            : reasons.contains(StopReason.TIME_BUDGET) ? StopReason.TIME_BUDGET
+            : StopReason.COMPLETED;
+
+        while (stepProgress < 100 && stepsRun >= progressStep(steps, stepProgress + 1)) {
+          stepProgress++;
+        }
+        int newProgress = Math.max(stepProgress, stopCondition.timeProgress());
+        if (newProgress > progress) {
+          progress = newProgress;
+          notifyProgress(progress);
+        }
+        if (convergence != null && convergence.isConverged(stepsRun)) {
+          stopReason = StopReason.CONVERGED;
+          break;
+        }
+        // A round without steps means that every walker has stopped or failed
+        if (stepsRun >= steps || stopReason != StopReason.COMPLETED || roundSteps == 0) {
+          break;
+        }
+        if (System.nanoTime() - nextPublish >= 0) {
+          notifyObservers();
+          nextPublish = System.nanoTime() + PUBLISH_INTERVAL.toNanos();
+        }
+      }
+      if (stopReason != StopReason.COMPLETED && stopReason != StopReason.CANCELLED
+          && progress < 100) {
+        notifyProgress(100);
+      }
+    } finally {
+      for (Walker walker : walkers) {
+        walker.walkerCanvas.close();
+      }
+      System.arraycopy(walkers[0].walkerPoint, 0, point, 0, point.length);
+      notifyObservers();
+    }
+    return new ChaosGameResult(stepsRun, rejected, stopReason);
+  }
+
+  /**
+   * Returns the number of steps a walker runs when the given number of steps is split as evenly
+   * as possible across the walkers.
+   *
+   * @param steps       the total number of steps
+   * @param walkerCount the number of walkers
+   * @param walker      the number of the walker
+   * @return the number of steps of the walker
+   */
+  private static long share(long steps, int walkerCount, int walker) {
+    return steps / walkerCount + (walker < steps % walkerCount ? 1 : 0);
+  }
+
+  /**
+   * Creates a new random number generator for a walker, split from the generator of this game.
+   *
+   * <p>Splittable generators are split and jumpable generators are jumped, which gives streams
+   * that are statistically independent of the generator of this game. Other generators are used
+   * to seed a new generator of the default algorithm.
+   *
+   * @return a random number generator for a walker
+   */
+  private RandomGenerator splitRandom() {
+    if (random instanceof SplittableGenerator splittable) {
+      return splittable.split();
+    }
+    if (random instanceof JumpableGenerator jumpable) {
+      return jumpable.copyAndJump();
+    }
+    return RandomGeneratorFactory.of(DEFAULT_ALGORITHM).create(random.nextLong());
+  }
+
+  /**
+   * Runs a single parallel walker until it has run the given number of steps in total, or the
+   * round is over. A walker that has failed is not run again.
+   *
+   * @param walker        the walker to run
+   * @param steps         the number of steps the walker should have run in total
+   * @param stopCondition the condition that can stop the walker early
+   * @param deadline      the value of {@link System#nanoTime()} at which the round is over
+   * @return the reason the walker stopped, or {@link StopReason#COMPLETED} if it may go on in the
+   *         next round
+   */
+  private StopReason runWalker(Walker walker, long steps, StopCondition stopCondition,
+      long deadline) {
+    try {
+      while (!walker.failed && walker.stepsRun < steps) {
+        StopReason stopReason = stopCondition.check();
+        if (stopReason != StopReason.COMPLETED) {
+          return stopReason;
+        }
+        walker.runSteps(Math.min(steps - walker.stepsRun, CHECK_INTERVAL));
+        if (System.nanoTime() - deadline >= 0) {
+          break;
+        }
+      }
+    } catch (Exception e) {
+      walker.failed = true;
+      LoggerUtil.logError("An error occurred while running a walker: " + e.getMessage());
+    }
+    return StopReason.COMPLETED;
+  }
+
+  /**
+   * Validates the limits of a run and creates its stop condition. The clock of the time budget
+   * starts when the condition is created.
+   *
+   * @param steps  the maximum number of steps to run
+   * @param budget the wall-clock time the run may use
+   * @param token  the token that can cancel the run
+   * @return the stop condition of the run
+   * @throws NullPointerException     if the budget or the token is null
+   * @throws IllegalArgumentException if steps or the budget is negative
+   */
+  private static StopCondition createStopCondition(long steps, Duration budget,
+      CancellationToken token) {
+    if (steps < 0) {
+      throw new IllegalArgumentException("Steps must be non-negative");
+    }
+    Objects.requireNonNull(budget, "The time budget cannot be null");
+    Objects.requireNonNull(token, "The cancellation token cannot be null");
+    if (budget.isNegative()) {
+      throw new IllegalArgumentException("The time budget must be non-negative");
+    }
+    long budgetNanos = budget.compareTo(Duration.ofNanos(Long.MAX_VALUE)) >= 0
+        ? Long.MAX_VALUE : budget.toNanos();
+    return new StopCondition(System.nanoTime(), budgetNanos, token);
+  }
+
+  /**
+   * Logs a warning if any points of a run fell outside the canvas.
+   *
+   * @param result the result of the run
+   * @return the same result
+   */
+  private static ChaosGameResult warnIfRejected(ChaosGameResult result) {
+    if (result.rejectedPoints() > 0) {
+      LoggerUtil.logWarning(result.rejectedPoints() + " of " + result.steps()
+          + " points fell outside the canvas and were not drawn");
+    }
+    return result;
+  }
+
+  /**
+   * The time budget and the cancellation token of a run.
+   *
+   * @param startNanos  the value of {@link System#nanoTime()} when the run started
+   * @param budgetNanos the time the run may use in nanoseconds
+   * @param token       the token that can cancel the run
+   */
+  private record StopCondition(long startNanos, long budgetNanos, CancellationToken token) {
+
+    /**
+     * Checks if the run should stop.
+     *
+     * @return the reason to stop, or {@link StopReason#COMPLETED} if the run may go on
+     */
+    private StopReason check() {
+      if (token.isCancelled()) {
+        return StopReason.CANCELLED;
+      }
+      if (System.nanoTime() - startNanos >= budgetNanos) {
+        return StopReason.TIME_BUDGET;
+      }
+      return StopReason.COMPLETED;
+    }
+
+    /**
+     * Returns how much of the time budget has been used, in percent.
+     *
+     * @return the percentage of the budget used, from 0 to 100
+     */
+    private int timeProgress() {
+      if (budgetNanos == Long.MAX_VALUE) {
+        return 0;
+      }
+      return (int) Math.min(100, (System.nanoTime() - startNanos) * 100.0 / budgetNanos);
+    }
+  }
+
+  /**
+   * Measures how many pixels of a canvas are covered for the first time in each window of
+   * {@value #CONVERGENCE_WINDOW} steps.
+   */
+  private static final class ConvergenceCheck {
+
+    private final ChaosCanvas canvas;
+    private final double tolerance;
+    private long coveredPixels;
+    private long nextCheckStep = CONVERGENCE_WINDOW;
+
+    /**
+     * Creates a check that starts measuring from the current state of the canvas.
+     *
+     * @param canvas    the canvas to measure
+     * @param tolerance the largest share of newly covered pixels at which the image has converged
+     */
+    private ConvergenceCheck(ChaosCanvas canvas, double tolerance) {
+      this.canvas = canvas;
+      this.tolerance = tolerance;
+      this.coveredPixels = canvas.getCoveredPixels();
+    }
+
+    /**
+     * Checks if the image has converged. The canvas is only measured once a window is complete,
+     * and an empty canvas has not converged, since all the points so far fell outside it.
+     *
+     * @param stepsRun the number of steps run so far
+     * @return <code>true</code> if the canvas is not empty and the last complete window covered
+     *         few enough new pixels
+     */
+    private boolean isConverged(long stepsRun) {
+      if (stepsRun < nextCheckStep) {
+        return false;
+      }
+      long covered = canvas.getCoveredPixels();
+      long newlyCovered = covered - coveredPixels;
+      coveredPixels = covered;
+      nextCheckStep = stepsRun + CONVERGENCE_WINDOW;
+      return covered > 0 && newlyCovered <= tolerance * covered;
+    }
+  }
+
+  /**
+   * A walker that runs the program of this game from its own point, drawing on a canvas, and
+   * counts the steps it has run and the points that fell outside the canvas.
+   */
+  private final class Walker {
+
+    private final double[] walkerPoint;
+    private final RandomGenerator walkerRandom;
+    private final ChaosCanvas walkerCanvas;
+    private long stepsRun;
+    private long rejected;
+    private boolean failed;
+
+    /**
+     * Creates a walker.
+     *
+     * @param walkerPoint  the current point of the walker as <code>{x, y}</code>
+     * @param walkerRandom the random number generator of the walker
+     * @param walkerCanvas the canvas the walker draws on
+     */
+    private Walker(double[] walkerPoint, RandomGenerator walkerRandom,
+        ChaosCanvas walkerCanvas) {
+      this.walkerPoint = walkerPoint;
+      this.walkerRandom = walkerRandom;
+      this.walkerCanvas = walkerCanvas;
+    }
+
+    /**
+     * Runs the burn-in steps of this game without drawing them. They are not counted as steps of
+     * the walker.
+     */
+    private void burnIn() {
+      program.skip(walkerPoint, burnInSteps, walkerRandom);
+    }
+
+    /**
+     * Runs the given number of steps without any checks in between.
+     *
+     * @param steps the number of steps to run
+     */
+    private void runSteps(long steps) {
+      rejected += program.run(walkerPoint, steps, walkerRandom, walkerCanvas);
+      stepsRun += steps;
+    }
   }
 
   /**
@@ -109,7 +962,8 @@ public class ChaosGame implements ChaosGameSubject {
   }
 
   /**
-   * Method to remove an observer from the list of observers.
+   * Method to remove an observer from the list of observers. This is safe while a run on another
+   * thread notifies the observers, though a notification already under way may still reach it.
    *
    * @param observer The observer to remove.
    * @throws NullPointerException if the observer is null
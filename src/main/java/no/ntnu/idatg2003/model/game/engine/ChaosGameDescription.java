@@ -1,8 +1,11 @@
 package no.ntnu.idatg2003.model.game.engine;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import no.ntnu.idatg2003.model.math.datatypes.Matrix2x2;
 import no.ntnu.idatg2003.model.math.datatypes.Vector2D;
+import no.ntnu.idatg2003.model.transformations.AffineTransform2D;
 import no.ntnu.idatg2003.model.transformations.Transform2D;
 
 /**
@@ -11,6 +14,13 @@ import no.ntnu.idatg2003.model.transformations.Transform2D;
  *
  * <p>This class is responsible for defining the spatial limits and transformation rules applied to points within these bounds.
  *
+ * <p>Each transformation has a probability of being chosen in a step of the game. If no
+ * probabilities are given, they are derived from the absolute determinants of the affine
+ * transformations, since a map that shrinks the area less covers a larger part of the attractor
+ * and needs more samples to fill it. Every transformation keeps at least
+ * {@value #MIN_WEIGHT_FRACTION} of the total weight, so maps that collapse the plane onto a line,
+ * like the stem of the Barnsley fern, are still drawn.
+ *
  * @author Sigurd Riseth, Theodor Sjetnan Utvik
  * @version 0.0.1
  * @since 27.02.2024
@@ -19,14 +29,19 @@ import no.ntnu.idatg2003.model.transformations.Transform2D;
  */
 public class ChaosGameDescription {
 
+  private static final double MIN_WEIGHT_FRACTION = 0.01;
+
   private final Vector2D minCoords;
   private final Vector2D maxCoords;
   private final List<Transform2D> transforms;
+  private final List<Double> weights;
 
   /**
    * Constructs a new ChaosGameDescription instance to define the boundaries and transformation
    * rules of the Chaos Game.
    *
+   * <p>The probabilities of the transformations are derived from their determinants.
+   *
    * @param minCoords  The minimum coordinates (lower-left corner) for the game's boundary.
    * @param maxCoords  The maximum coordinates (upper-right corner) for the game's boundary.
    * @param transforms A list of transformations to be applied within the game's boundaries.
@@ -34,14 +49,87 @@ public class ChaosGameDescription {
    */
   public ChaosGameDescription(
       Vector2D minCoords, Vector2D maxCoords, List<Transform2D> transforms) {
+    this(minCoords, maxCoords, transforms, defaultWeights(
+        Objects.requireNonNull(transforms, "The list of transformations cannot be null")));
+  }
+
+  /**
+   * Constructs a new ChaosGameDescription instance with a given weight for each transformation.
+   * The weights are normalized, so they do not have to sum to one.
+   *
+   * @param minCoords  The minimum coordinates (lower-left corner) for the game's boundary.
+   * @param maxCoords  The maximum coordinates (upper-right corner) for the game's boundary.
+   * @param transforms A list of transformations to be applied within the game's boundaries.
+   * @param weights    The weight of each transformation, in the same order as the transformations.
+   * @throws NullPointerException     if any of the parameters are null
+   * @throws IllegalArgumentException if there is not one weight per transformation, any weight is
+   *                                  negative, NaN or infinite, or all weights are zero
+   */
+  public ChaosGameDescription(Vector2D minCoords, Vector2D maxCoords,
+      List<Transform2D> transforms, List<Double> weights) {
 
     Objects.requireNonNull(minCoords, "The minimum coordinates cannot be null");
     Objects.requireNonNull(maxCoords, "The maximum coordinates cannot be null");
     Objects.requireNonNull(transforms, "The list of transformations cannot be null");
+    Objects.requireNonNull(weights, "The list of weights cannot be null");
 
     this.minCoords = minCoords;
     this.maxCoords = maxCoords;
     this.transforms = transforms;
+    this.weights = normalizeWeights(weights, transforms.size());
+  }
+
+  /**
+   * Derives a weight for each transformation from the absolute determinant of its matrix.
+   * Transformations that are not affine get a weight of one.
+   *
+   * @param transforms the transformations to derive weights for
+   * @return the weights of the transformations
+   */
+  private static List<Double> defaultWeights(List<Transform2D> transforms) {
+    double[] weights = new double[transforms.size()];
+    double sum = 0;
+    for (int i = 0; i < weights.length; i++) {
+      if (transforms.get(i) instanceof AffineTransform2D affine) {
+        Matrix2x2 matrix = affine.getMatrix();
+        weights[i] = Math.abs(matrix.getA00() * matrix.getA11() - matrix.getA01() * matrix.getA10());
+      } else {
+        weights[i] = 1;
+      }
+      sum += weights[i];
+    }
+    if (sum == 0) {
+      return transforms.stream().map(transform -> 1.0).toList();
+    }
+    double minWeight = MIN_WEIGHT_FRACTION * sum;
+    return Arrays.stream(weights).map(weight -> Math.max(weight, minWeight)).boxed()
+        .toList();
+  }
+
+  /**
+   * Validates the weights and scales them to sum to one.
+   *
+   * @param weights        the weights to normalize
+   * @param transformCount the number of transformations the weights belong to
+   * @return the normalized weights
+   * @throws IllegalArgumentException if the weights are invalid
+   */
+  private static List<Double> normalizeWeights(List<Double> weights, int transformCount) {
+    if (weights.size() != transformCount) {
+      throw new IllegalArgumentException("There must be one weight per transformation");
+    }
+    double sum = 0;
+    for (Double weight : weights) {
+      if (weight == null || !Double.isFinite(weight) || weight < 0) {
+        throw new IllegalArgumentException("The weights must be finite and non-negative");
+      }
+      sum += weight;
+    }
+    if (transformCount > 0 && sum <= 0) {
+      throw new IllegalArgumentException("At least one weight must be positive");
+    }
+    final double total = sum;
+    return weights.stream().map(weight -> weight / total).toList();
   }
 
   /**
@@ -70,4 +158,14 @@ public class ChaosGameDescription {
   public List<Transform2D> getTransforms() {
     return transforms;
   }
+
+  /**
+   * Returns the probability of each transformation being chosen in a step, in the same order as
+   * the transformations. The probabilities sum to one.
+   *
+   * @return a list of probabilities
+   */
+  public List<Double> getWeights() {
+    return weights;
+  }
 }
@@ -33,7 +33,7 @@ public class ChaosGameDescriptionFactory {
   }
 
   /**
-   * Create the Barnsley fern description
+   * Create the Barnsley fern description, with the probabilities from Barnsley's original table.
    *
    * @return a <code>ChaosGameDescription</code> object
    */
@@ -44,9 +44,10 @@ public class ChaosGameDescriptionFactory {
         new AffineTransform2D(new Matrix2x2(0.2, -0.26, 0.23, 0.22), new Vector2D(0.0, 1.6)),
         new AffineTransform2D(new Matrix2x2(-0.15, 0.28, 0.26, 0.24), new Vector2D(0.0, 0.44))
     );
+    List<Double> weights = List.of(0.01, 0.85, 0.07, 0.07);
     Vector2D min = new Vector2D(-2.65, 0.0);
     Vector2D max = new Vector2D(2.65, 10);
-    return new ChaosGameDescription(min, max, transforms);
+    return new ChaosGameDescription(min, max, transforms, weights);
   }
 
   /**
@@ -0,0 +1,209 @@
+package no.ntnu.idatg2003.model.game.engine;
+
+import java.util.List;
+import java.util.Objects;
+import no.ntnu.idatg2003.model.math.datatypes.Matrix2x2;
+import no.ntnu.idatg2003.model.math.datatypes.Vector2D;
+import no.ntnu.idatg2003.model.transformations.AffineTransform2D;
+import no.ntnu.idatg2003.model.transformations.JuliaTransform;
+import no.ntnu.idatg2003.model.transformations.Transform2D;
+
+/**
+ * Allocation-free kernel for running the transformations of a Chaos Game.
+ *
+ * <p>The kernel keeps the current point as two raw <code>double</code> values and stores the
+ * transformations as flattened coefficients, so applying a transformation does not create any
+ * {@link Vector2D} objects. The {@link Transform2D} objects are only used when the kernel is built.
+ *
+ * <p>Each transformation occupies {@value #STRIDE} coefficients. For an
+ * {@link AffineTransform2D} these are <code>a00, a01, a10, a11, b0, b1</code>, and for a
+ * {@link JuliaTransform} they are the real and imaginary parts of the constant followed by the
+ * sign. Transformations of any other type are applied through their own
+ * {@link Transform2D#transform(Vector2D)} method.
+ *
+ * @author Sigurd Riseth, Theodor Sjetnan Utvik
+ * @version 0.0.1
+ * @see ChaosGame
+ * @see TransformProgram
+ * @see Transform2D
+ * @since 18.10.2026
+ */
+public class ChaosGameKernel {
+
+  /**
+   * The number of coefficients per transformation in the flattened arrays of the kernel, the
+   * {@link AffineProgram} and the {@link RecursiveIfsRenderer}.
+   */
+  static final int STRIDE = 6;
+  private static final byte AFFINE = 0;
+  private static final byte JULIA = 1;
+  private static final byte OTHER = 2;
+
+  private final int transformCount;
+  private final double[] coefficients;
+  private final byte[] kinds;
+  private final Transform2D[] transforms;
+  private double x;
+  private double y;
+
+  /**
+   * Constructs a kernel from the given list of transformations, starting in the origin.
+   *
+   * @param transforms the transformations to flatten
+   * @throws NullPointerException     if the list or any of the transformations are null
+   * @throws IllegalArgumentException if the list is empty
+   */
+  public ChaosGameKernel(List<Transform2D> transforms) {
+    Objects.requireNonNull(transforms, "The list of transformations cannot be null");
+    if (transforms.isEmpty()) {
+      throw new IllegalArgumentException("The list of transformations cannot be empty");
+    }
+    this.transformCount = transforms.size();
+    this.coefficients = new double[transformCount * STRIDE];
+    this.kinds = new byte[transformCount];
+    this.transforms = new Transform2D[transformCount];
+
+    for (int i = 0; i < transformCount; i++) {
+      Transform2D transform =
+          Objects.requireNonNull(transforms.get(i), "The transformations cannot be null");
+      this.transforms[i] = transform;
+      int offset = i * STRIDE;
+      if (transform instanceof AffineTransform2D affine) {
+        kinds[i] = AFFINE;
+        flattenAffine(affine, coefficients, offset);
+      } else if (transform instanceof JuliaTransform julia) {
+        kinds[i] = JULIA;
+        coefficients[offset] = julia.getComplexConstant().getX0();
+        coefficients[offset + 1] = julia.getComplexConstant().getX1();
+        coefficients[offset + 2] = julia.getSign();
+      } else {
+        kinds[i] = OTHER;
+      }
+    }
+  }
+
+  /**
+   * Writes the coefficients of an affine transformation into a flat array, in the order
+   * <code>a00, a01, a10, a11, b0, b1</code>.
+   *
+   * @param affine       the transformation to flatten
+   * @param coefficients the array to write the coefficients into
+   * @param offset       the index of the first coefficient in the array
+   */
+  static void flattenAffine(AffineTransform2D affine, double[] coefficients, int offset) {
+    Matrix2x2 matrix = affine.getMatrix();
+    Vector2D vector = affine.getVector();
+    coefficients[offset] = matrix.getA00();
+    coefficients[offset + 1] = matrix.getA01();
+    coefficients[offset + 2] = matrix.getA10();
+    coefficients[offset + 3] = matrix.getA11();
+    coefficients[offset + 4] = vector.getX0();
+    coefficients[offset + 5] = vector.getX1();
+  }
+
+  /**
+   * Constructs a kernel from the transformations of the given description.
+   *
+   * @param description the description to build the kernel from
+   * @throws NullPointerException if the description is null
+   */
+  public ChaosGameKernel(ChaosGameDescription description) {
+    this(Objects.requireNonNull(description, "The description cannot be null").getTransforms());
+  }
+
+  /**
+   * Constructs a kernel that shares the flattened transformations of another kernel, but has its
+   * own current point.
+   *
+   * @param other the kernel to copy
+   */
+  private ChaosGameKernel(ChaosGameKernel other) {
+    this.transformCount = other.transformCount;
+    this.coefficients = other.coefficients;
+    this.kinds = other.kinds;
+    this.transforms = other.transforms;
+    this.x = other.x;
+    this.y = other.y;
+  }
+
+  /**
+   * Creates a copy of this kernel with the same transformations and current point. The copy can be
+   * stepped independently of this kernel, for example by another thread.
+   *
+   * @return a copy of this kernel
+   */
+  public ChaosGameKernel copy() {
+    return new ChaosGameKernel(this);
+  }
+
+  /**
+   * Applies the transformation with the given index to the current point.
+   *
+   * @param index the index of the transformation to apply
+   * @throws IndexOutOfBoundsException if the index is not a valid transformation index
+   */
+  public void step(int index) {
+    int offset = index * STRIDE;
+    switch (kinds[index]) {
+      case AFFINE -> {
+        double newX = coefficients[offset] * x + coefficients[offset + 1] * y
+            + coefficients[offset + 4];
+        double newY = coefficients[offset + 2] * x + coefficients[offset + 3] * y
+            + coefficients[offset + 5];
+        x = newX;
+        y = newY;
+      }
+      case JULIA -> {
+        double re = x - coefficients[offset];
+        double im = y - coefficients[offset + 1];
+        double sign = coefficients[offset + 2];
+        double magnitude = Math.sqrt(re * re + im * im);
+        x = sign * Math.sqrt((magnitude + re) / 2);
+        y = sign * Math.copySign(Math.sqrt((magnitude - re) / 2), im);
+      }
+      default -> {
+        Vector2D next = transforms[index].transform(new Vector2D(x, y));
+        x = next.getX0();
+        y = next.getX1();
+      }
+    }
+  }
+
+  /**
+   * Moves the current point to the given coordinates.
+   *
+   * @param x the x-coordinate of the new point
+   * @param y the y-coordinate of the new point
+   */
+  public void setPoint(double x, double y) {
+    this.x = x;
+    this.y = y;
+  }
+
+  /**
+   * Returns the x-coordinate of the current point.
+   *
+   * @return the x-coordinate of the current point
+   */
+  public double getX() {
+    return x;
+  }
+
+  /**
+   * Returns the y-coordinate of the current point.
+   *
+   * @return the y-coordinate of the current point
+   */
+  public double getY() {
+    return y;
+  }
+
+  /**
+   * Returns the number of transformations in the kernel.
+   *
+   * @return the number of transformations
+   */
+  public int getTransformCount() {
+    return transformCount;
+  }
+}
@@ -0,0 +1,49 @@
+package no.ntnu.idatg2003.model.game.engine;
+
+/**
+ * The result of running a Chaos Game.
+ *
+ * <p>A point that lands outside the canvas is not drawn, but the step still counts. The number of
+ * such points is reported as rejected, so a description with too tight bounds can be detected.
+ *
+ * @param steps          the number of steps that were run
+ * @param rejectedPoints the number of points that fell outside the canvas
+ * @param stopReason     the reason the run stopped
+ * @author Sigurd Riseth, Theodor Sjetnan Utvik
+ * @version 0.0.1
+ * @see ChaosGame
+ * @since 18.10.2026
+ */
+public record ChaosGameResult(long steps, long rejectedPoints, StopReason stopReason) {
+
+  /**
+   * The reasons a run of the Chaos Game can stop.
+   */
+  public enum StopReason {
+    /**
+     * All the requested steps were run.
+     */
+    COMPLETED,
+    /**
+     * The time budget of the run was used up.
+     */
+    TIME_BUDGET,
+    /**
+     * The run was cancelled through its {@link CancellationToken}.
+     */
+    CANCELLED,
+    /**
+     * The image stopped changing by more than the tolerance of the run.
+     */
+    CONVERGED
+  }
+
+  /**
+   * Returns the number of points that were drawn on the canvas.
+   *
+   * @return the number of drawn points
+   */
+  public long drawnPoints() {
+    return steps - rejectedPoints;
+  }
+}
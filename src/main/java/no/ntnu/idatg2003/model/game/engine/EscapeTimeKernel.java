@@ -0,0 +1,31 @@
+package no.ntnu.idatg2003.model.game.engine;
+
+/**
+ * An escape-time kernel, which iterates a map from a starting point in the complex plane and
+ * counts the iterations until the orbit leaves a disc around the origin.
+ *
+ * <p>Implementations work on primitive <code>double</code> values and compare the squared length
+ * of the orbit with the squared escape radius, so an iteration creates no objects and takes no
+ * square root. A renderer calls the kernel once per pixel, and any escape-time fractal can be
+ * drawn by the same renderer by giving it another kernel.
+ *
+ * @author Sigurd Riseth, Theodor Sjetnan Utvik
+ * @version 0.0.1
+ * @see MandelbrotKernel
+ * @see Mandelbrot
+ * @since 18.10.2026
+ */
+@FunctionalInterface
+public interface EscapeTimeKernel {
+
+  /**
+   * Counts the iterations the orbit of the given point takes to escape.
+   *
+   * @param re            the real part of the point
+   * @param im            the imaginary part of the point
+   * @param maxIterations the largest number of iterations to run
+   * @return the number of iterations before the orbit escaped, or <code>maxIterations</code> if
+   *         it did not escape
+   */
+  int escapeTime(double re, double im, int maxIterations);
+}
@@ -0,0 +1,96 @@
+package no.ntnu.idatg2003.model.game.engine;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A {@link PixelStorage} that keeps the pixel counts in one <code>int</code> array on the Java
+ * heap. The counts saturate at {@link Integer#MAX_VALUE}.
+ *
+ * <p>This is the storage a {@link ChaosCanvas} uses by default. The canvas works on the array
+ * directly in its hot paths, so drawing on it costs no more than drawing on a plain array.
+ *
+ * @author Sigurd Riseth, Theodor Sjetnan Utvik
+ * @version 0.0.1
+ * @see PixelStorage
+ * @see ChaosCanvas
+ * @since 18.10.2026
+ */
+public final class HeapPixelStorage implements PixelStorage {
+
+  // Some virtual machines reserve a few header words in an array
+  private static final int MAX_SIZE = Integer.MAX_VALUE - 8;
+
+  private final int[] pixels;
+
+  /**
+   * Creates a storage with the given number of pixels, all set to zero.
+   *
+   * @param size the number of pixels
+   * @throws IllegalArgumentException if the size is negative or too large for one array
+   */
+  public HeapPixelStorage(long size) {
+    if (size < 0 || size > MAX_SIZE) {
+      throw new IllegalArgumentException("The size must be between 0 and " + MAX_SIZE);
+    }
+    this.pixels = new int[(int) size];
+  }
+
+  /**
+   * Returns the array holding the pixels. The array is not copied.
+   *
+   * @return the pixel array
+   */
+  int[] array() {
+    return pixels;
+  }
+
+  @Override
+  public long size() {
+    return pixels.length;
+  }
+
+  @Override
+  public long maxValue() {
+    return Integer.MAX_VALUE;
+  }
+
+  @Override
+  public long get(long index) {
+    return pixels[(int) Objects.checkIndex(index, pixels.length)];
+  }
+
+  @Override
+  public void set(long index, long value) {
+    pixels[(int) Objects.checkIndex(index, pixels.length)] =
+        Math.clamp(value, Integer.MIN_VALUE, Integer.MAX_VALUE);
+  }
+
+  @Override
+  public boolean increment(long index) {
+    int i = (int) Objects.checkIndex(index, pixels.length);
+    int value = pixels[i];
+    if (value != Integer.MAX_VALUE) {
+      pixels[i] = value + 1;
+    }
+    return value == 0;
+  }
+
+  @Override
+  public void clear() {
+    Arrays.fill(pixels, 0);
+  }
+
+  @Override
+  public PixelStorage createEmpty() {
+    return new HeapPixelStorage(pixels.length);
+  }
+
+  /**
+   * Does nothing, since the array is freed by the garbage collector.
+   */
+  @Override
+  public void close() {
+    // The array is freed by the garbage collector
+  }
+}
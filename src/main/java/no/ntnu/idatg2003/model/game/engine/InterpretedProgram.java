@@ -0,0 +1,57 @@
+package no.ntnu.idatg2003.model.game.engine;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * A {@link TransformProgram} that runs any description through a {@link ChaosGameKernel}, which
+ * dispatches on the kind of each transformation in every step.
+ *
+ * @author Sigurd Riseth, Theodor Sjetnan Utvik
+ * @version 0.0.1
+ * @see TransformProgram
+ * @see ChaosGameKernel
+ * @since 18.10.2026
+ */
+final class InterpretedProgram implements TransformProgram {
+
+  private final ChaosGameKernel kernel;
+  private final AliasTable selector;
+
+  /**
+   * Creates a program that runs the transformations of the given kernel.
+   *
+   * @param kernel   the kernel holding the transformations
+   * @param selector the table that chooses a transformation in each step
+   */
+  InterpretedProgram(ChaosGameKernel kernel, AliasTable selector) {
+    this.kernel = kernel;
+    this.selector = selector;
+  }
+
+  @Override
+  public long run(double[] point, long steps, RandomGenerator random, ChaosCanvas canvas) {
+    ChaosGameKernel runKernel = kernel.copy();
+    runKernel.setPoint(point[0], point[1]);
+    long rejected = 0;
+    for (long i = 0; i < steps; i++) {
+      runKernel.step(selector.sample(random));
+      if (!canvas.putPixel(runKernel.getX(), runKernel.getY())) {
+        rejected++;
+      }
+    }
+    point[0] = runKernel.getX();
+    point[1] = runKernel.getY();
+    return rejected;
+  }
+
+  @Override
+  public void skip(double[] point, long steps, RandomGenerator random) {
+    ChaosGameKernel runKernel = kernel.copy();
+    runKernel.setPoint(point[0], point[1]);
+    for (long i = 0; i < steps; i++) {
+      runKernel.step(selector.sample(random));
+    }
+    point[0] = runKernel.getX();
+    point[1] = runKernel.getY();
+  }
+}
@@ -0,0 +1,182 @@
+package no.ntnu.idatg2003.model.game.engine;
+
+import java.util.Objects;
+import no.ntnu.idatg2003.model.game.engine.ChaosGameResult.StopReason;
+import no.ntnu.idatg2003.model.math.datatypes.Complex;
+import no.ntnu.idatg2003.model.transformations.JuliaTransform;
+import no.ntnu.idatg2003.model.transformations.Transform2D;
+
+/**
+ * Renders a Julia set with the modified inverse iteration method (MIIM).
+ *
+ * <p>Plain inverse iteration picks one of the two preimages z → ±sqrt(z - c) at random in each
+ * step. The points then pile up where the set is easy to reach, while thin parts of the set stay
+ * empty for a very long time. This renderer instead explores the tree of preimages breadth-first,
+ * starting from the repelling fixed point of z² + c, which always lies in the Julia set. A
+ * preimage whose pixel has been hit fewer times than the density cap is drawn on the canvas and
+ * queued to have its own preimages explored. A preimage whose pixel has reached the cap is pruned,
+ * so it is neither drawn nor explored, and preimages outside the canvas are only counted as
+ * rejected. Branches in well covered regions end that way, and the work goes to the parts of the
+ * set that are still missing.
+ *
+ * <p>The points waiting to be explored are kept in a bounded ring buffer of primitive values.
+ * When the buffer is full, new preimages are drawn but not explored further. Since every explored
+ * preimage increases a pixel below the cap, the render always ends, after at most
+ * <code>densityCap</code> times the number of pixels preimages have been explored.
+ *
+ * @author Sigurd Riseth, Theodor Sjetnan Utvik
+ * @version 0.0.1
+ * @see ChaosCanvas
+ * @see JuliaTransform
+ * @since 18.10.2026
+ */
+public class JuliaMiimRenderer {
+
+  /**
+   * The number of hits after which the preimages of a pixel are no longer explored, if none is
+   * given.
+   */
+  public static final int DEFAULT_DENSITY_CAP = 16;
+
+  /**
+   * The number of points that can wait to be explored, if no capacity is given.
+   */
+  public static final int DEFAULT_QUEUE_CAPACITY = 1 << 16;
+
+  private final ChaosCanvas canvas;
+  private final double constantRe;
+  private final double constantIm;
+  private final int densityCap;
+  private final double[] queue;
+
+  /**
+   * Constructs a renderer with the default density cap and queue capacity.
+   *
+   * @param description the description of the Julia set to render
+   * @param width       the width of the canvas
+   * @param height      the height of the canvas
+   * @throws NullPointerException     if the description is null
+   * @throws IllegalArgumentException if the description is not a Julia set, or the width or
+   *                                  height is not positive
+   */
+  public JuliaMiimRenderer(ChaosGameDescription description, int width, int height) {
+    this(description, width, height, DEFAULT_DENSITY_CAP, DEFAULT_QUEUE_CAPACITY);
+  }
+
+  /**
+   * Constructs a renderer for the Julia set of the given description. All the transformations of
+   * the description must be Julia transformations with the same constant. Their signs and weights
+   * are not used, since both preimages are always explored.
+   *
+   * @param description   the description of the Julia set to render
+   * @param width         the width of the canvas
+   * @param height        the height of the canvas
+   * @param densityCap    the number of hits after which the preimages of a pixel are pruned
+   * @param queueCapacity the number of points that can wait to be explored
+   * @throws NullPointerException     if the description is null
+   * @throws IllegalArgumentException if the description is not a Julia set, or any of the numbers
+   *                                  are not positive
+   */
+  public JuliaMiimRenderer(ChaosGameDescription description, int width, int height,
+      int densityCap, int queueCapacity) {
+    Objects.requireNonNull(description, "The description cannot be null");
+    if (densityCap <= 0 || queueCapacity <= 0) {
+      throw new IllegalArgumentException("The density cap and queue capacity must be positive");
+    }
+    Complex constant = juliaConstant(description);
+    this.canvas =
+        new ChaosCanvas(description.getMinCoords(), description.getMaxCoords(), width, height);
+    this.constantRe = constant.getX0();
+    this.constantIm = constant.getX1();
+    this.densityCap = densityCap;
+    this.queue = new double[2 * queueCapacity];
+  }
+
+  /**
+   * Finds the constant shared by the Julia transformations of the description.
+   *
+   * @param description the description to read
+   * @return the constant of the Julia set
+   * @throws IllegalArgumentException if the description is not a Julia set with one constant
+   */
+  private static Complex juliaConstant(ChaosGameDescription description) {
+    if (description.getTransforms().isEmpty()) {
+      throw new IllegalArgumentException("The list of transformations cannot be empty");
+    }
+    Complex constant = null;
+    for (Transform2D transform : description.getTransforms()) {
+      if (!(transform instanceof JuliaTransform julia)) {
+        throw new IllegalArgumentException("All the transformations must be Julia transformations");
+      }
+      Complex current = julia.getComplexConstant();
+      if (constant != null && (current.getX0() != constant.getX0()
+          || current.getX1() != constant.getX1())) {
+        throw new IllegalArgumentException("All the Julia transformations must have the same "
+            + "constant");
+      }
+      constant = current;
+    }
+    return constant;
+  }
+
+  /**
+   * Returns the canvas the Julia set is drawn on.
+   *
+   * @return the canvas
+   */
+  public ChaosCanvas getCanvas() {
+    return canvas;
+  }
+
+  /**
+   * Renders the Julia set on a cleared canvas.
+   *
+   * @return the result of the render, where the steps are the number of preimages computed
+   */
+  public ChaosGameResult render() {
+    canvas.clear();
+    int capacity = queue.length / 2;
+    int head = 0;
+    int size = 0;
+    long steps = 0;
+    long rejected = 0;
+
+    // The repelling fixed point z = (1 + sqrt(1 - 4c)) / 2 lies in the Julia set
+    double[] root = new double[2];
+    JuliaProgram.principalRoot(1 - 4 * constantRe, -4 * constantIm, root);
+    double startRe = (1 + root[0]) / 2;
+    double startIm = root[1] / 2;
+    if (canvas.putPixel(startRe, startIm)) {
+      queue[0] = startRe;
+      queue[1] = startIm;
+      size = 1;
+    }
+
+    while (size > 0) {
+      double re = queue[2 * head] - constantRe;
+      double im = queue[2 * head + 1] - constantIm;
+      head = head + 1 == capacity ? 0 : head + 1;
+      size--;
+
+      JuliaProgram.principalRoot(re, im, root);
+      for (int sign = 1; sign >= -1; sign -= 2) {
+        double preimageRe = sign * root[0];
+        double preimageIm = sign * root[1];
+        steps++;
+        int hits = canvas.getPixel(preimageRe, preimageIm);
+        if (hits < 0) {
+          rejected++;
+        } else if (hits < densityCap) {
+          canvas.putPixel(preimageRe, preimageIm);
+          if (size < capacity) {
+            int tail = head + size < capacity ? head + size : head + size - capacity;
+            queue[2 * tail] = preimageRe;
+            queue[2 * tail + 1] = preimageIm;
+            size++;
+          }
+        }
+      }
+    }
+    return new ChaosGameResult(steps, rejected, StopReason.COMPLETED);
+  }
+}
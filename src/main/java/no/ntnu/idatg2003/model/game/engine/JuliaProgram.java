@@ -0,0 +1,124 @@
+package no.ntnu.idatg2003.model.game.engine;
+
+import java.util.List;
+import java.util.random.RandomGenerator;
+import no.ntnu.idatg2003.model.transformations.JuliaTransform;
+import no.ntnu.idatg2003.model.transformations.Transform2D;
+
+/**
+ * A {@link TransformProgram} for inverse iteration of a Julia set, z → ±sqrt(z - c).
+ *
+ * <p>A Julia description is normally a pair of {@link JuliaTransform} objects with the same
+ * constant and opposite signs, chosen with equal probability. This program replaces the pair with
+ * one loop: the principal square root is computed on primitives as
+ * <code>(sqrt((|w| + re) / 2), copySign(sqrt((|w| - re) / 2), im))</code>, which needs no
+ * branches, and the sign is taken from the top bit of one random <code>long</code> and applied by
+ * flipping the sign bits of the result.
+ *
+ * @author Sigurd Riseth, Theodor Sjetnan Utvik
+ * @version 0.0.1
+ * @see TransformProgram
+ * @see JuliaTransform
+ * @since 18.10.2026
+ */
+final class JuliaProgram implements TransformProgram {
+
+  private static final double WEIGHT_TOLERANCE = 1e-12;
+
+  private final double constantRe;
+  private final double constantIm;
+
+  /**
+   * Creates a program for the Julia set with the given constant.
+   *
+   * @param constantRe the real part of the constant
+   * @param constantIm the imaginary part of the constant
+   */
+  JuliaProgram(double constantRe, double constantIm) {
+    this.constantRe = constantRe;
+    this.constantIm = constantIm;
+  }
+
+  /**
+   * Checks if the given transformations can be run by this program. That is the case when all of
+   * them are Julia transformations with the same constant, and the positive and negative roots are
+   * chosen with equal probability.
+   *
+   * @param transforms the transformations of the description
+   * @param weights    the normalized weights of the transformations
+   * @return <code>true</code> if the transformations can be run by this program
+   */
+  static boolean canRun(List<Transform2D> transforms, List<Double> weights) {
+    if (!(transforms.getFirst() instanceof JuliaTransform first)) {
+      return false;
+    }
+    double positiveWeight = 0;
+    double negativeWeight = 0;
+    for (int i = 0; i < transforms.size(); i++) {
+      if (!(transforms.get(i) instanceof JuliaTransform julia)
+          || julia.getComplexConstant().getX0() != first.getComplexConstant().getX0()
+          || julia.getComplexConstant().getX1() != first.getComplexConstant().getX1()) {
+        return false;
+      }
+      if (julia.getSign() > 0) {
+        positiveWeight += weights.get(i);
+      } else if (julia.getSign() < 0) {
+        negativeWeight += weights.get(i);
+      } else if (weights.get(i) > 0) {
+        return false;
+      }
+    }
+    return Math.abs(positiveWeight - negativeWeight) < WEIGHT_TOLERANCE;
+  }
+
+  @Override
+  public long run(double[] point, long steps, RandomGenerator random, ChaosCanvas canvas) {
+    double x = point[0];
+    double y = point[1];
+    double[] root = new double[2];
+    long rejected = 0;
+    for (long i = 0; i < steps; i++) {
+      principalRoot(x - constantRe, y - constantIm, root);
+      long signBit = random.nextLong() & Long.MIN_VALUE;
+      x = Double.longBitsToDouble(Double.doubleToRawLongBits(root[0]) ^ signBit);
+      y = Double.longBitsToDouble(Double.doubleToRawLongBits(root[1]) ^ signBit);
+      if (!canvas.putPixel(x, y)) {
+        rejected++;
+      }
+    }
+    point[0] = x;
+    point[1] = y;
+    return rejected;
+  }
+
+  @Override
+  public void skip(double[] point, long steps, RandomGenerator random) {
+    double x = point[0];
+    double y = point[1];
+    double[] root = new double[2];
+    for (long i = 0; i < steps; i++) {
+      principalRoot(x - constantRe, y - constantIm, root);
+      long signBit = random.nextLong() & Long.MIN_VALUE;
+      x = Double.longBitsToDouble(Double.doubleToRawLongBits(root[0]) ^ signBit);
+      y = Double.longBitsToDouble(Double.doubleToRawLongBits(root[1]) ^ signBit);
+    }
+    point[0] = x;
+    point[1] = y;
+  }
+
+  /**
+   * Computes the principal square root of a complex number on primitives. The sign of the
+   * imaginary part is copied from <code>im</code>, so a number on the negative real axis gets the
+   * root ±i·sqrt(|re|) instead of zero. This is the same convention as {@link
+   * no.ntnu.idatg2003.model.math.datatypes.Complex#sqrt()} and {@link ChaosGameKernel}.
+   *
+   * @param re   the real part of the number
+   * @param im   the imaginary part of the number
+   * @param root the array to store the real and imaginary part of the root in
+   */
+  static void principalRoot(double re, double im, double[] root) {
+    double magnitude = Math.sqrt(re * re + im * im);
+    root[0] = Math.sqrt((magnitude + re) * 0.5);
+    root[1] = Math.copySign(Math.sqrt((magnitude - re) * 0.5), im);
+  }
+}
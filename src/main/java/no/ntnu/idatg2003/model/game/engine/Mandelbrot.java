@@ -3,7 +3,8 @@ package no.ntnu.idatg2003.model.game.engine;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import no.ntnu.idatg2003.model.math.datatypes.Complex;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import no.ntnu.idatg2003.model.math.datatypes.Vector2D;
 import no.ntnu.idatg2003.utility.logging.LoggerUtil;
 
@@ -15,103 +16,178 @@ import no.ntnu.idatg2003.utility.logging.LoggerUtil;
  * <p>The Mandelbrot class generates the Mandelbrot set by iterating through each pixel on the canvas,
  * converting its coordinates to a complex number, and calculating the number of iterations required for
  * the corresponding complex number to escape a certain threshold. The number of iterations determines the
- * color of the pixel.
+ * color of the pixel. The iterations are counted by an {@link EscapeTimeKernel}, a
+ * {@link MandelbrotKernel} unless another kernel is given, so other escape-time fractals can be
+ * drawn in the same way.
+ *
+ * <p>The part of the plane that is drawn, and the number of iterations, are given by a
+ * {@link MandelbrotViewport}. Changing the viewport and drawing again renders the new view from
+ * scratch, so zooming in shows new detail instead of enlarging the pixels.
+ *
+ * <p>Below a pixel size of {@value #PERTURBATION_SCALE}, a <code>double</code> can no longer tell
+ * the points of neighbouring pixels apart. The Mandelbrot set is then drawn with perturbation: one
+ * reference orbit at the center of the view is computed at high precision, and each pixel is
+ * iterated in <code>double</code> precision as a small difference from it, see
+ * {@link PerturbationOrbit}. This keeps deep zooms close to the speed of the shallow ones. It is
+ * only used with the {@link MandelbrotKernel}, since other kernels iterate other maps.
+ *
+ * <p>Every pixel is computed independently, so the canvas is split into tiles that are rendered in
+ * parallel on a {@link ForkJoinPool}. A task splits its tile in half until the tiles are small,
+ * so idle threads can steal the halves of a slow tile. The tiles do not overlap, so each task
+ * writes its pixels straight into the pixel array of the canvas without any locking.
  *
  * @author Sigurd Riseth
  * @version 1.0.0
  * @see ChaosGameSubject
  * @see ChaosGameObserver
  * @see ChaosCanvas
- * @see Complex
+ * @see EscapeTimeKernel
+ * @see MandelbrotViewport
+ * @see PerturbationOrbit
  * @since 27.02.2024
  */
 public class Mandelbrot implements ChaosGameSubject {
 
-  private static final int MAX_ITERATIONS = 40;
+  /**
+   * The pixel size below which the Mandelbrot set is drawn with perturbation.
+   */
+  public static final double PERTURBATION_SCALE = 1e-12;
+
+  // Tiles of at most this many pixels are rendered by one task without splitting further
+  private static final int TILE_PIXELS = 64 * 64;
   private final List<ChaosGameObserver> observers = new ArrayList<>();
   private final ChaosCanvas canvas;
+  private final EscapeTimeKernel kernel;
   private final int width;
   private final int height;
+  private volatile MandelbrotViewport viewport;
 
   /**
-   * Constructs a Mandelbrot object with the specified width and height.
+   * Constructs a Mandelbrot object with the specified width and height, showing the whole set.
    *
    * @param width  The width of the canvas.
    * @param height The height of the canvas.
    * @throws IllegalArgumentException if the width or height is less than or equal to 0
    */
   public Mandelbrot(int width, int height) {
+    this(width, height, new MandelbrotKernel());
+  }
+
+  /**
+   * Constructs a Mandelbrot object with the specified width and height, showing the whole set,
+   * that counts the iterations of each pixel with the given kernel.
+   *
+   * @param width  The width of the canvas.
+   * @param height The height of the canvas.
+   * @param kernel The kernel that counts the iterations of a pixel.
+   * @throws NullPointerException     if the kernel is null
+   * @throws IllegalArgumentException if the width or height is less than or equal to 0
+   */
+  public Mandelbrot(int width, int height, EscapeTimeKernel kernel) {
+    Objects.requireNonNull(kernel, "The kernel cannot be null");
     if (width <= 0 || height <= 0) {
       throw new IllegalArgumentException("The width and height must be positive");
     }
+    this.kernel = kernel;
     this.width = width;
     this.height = height;
+    this.viewport = MandelbrotViewport.fullView(width, height);
     canvas = new ChaosCanvas(new Vector2D(-2, -2), new Vector2D(2, 2), width, height);
   }
 
   /**
-   * Draws the Mandelbrot set on the canvas.
+   * Returns the viewport that is drawn.
+   *
+   * @return the viewport
    */
-  public void drawMandelbrot() {
-    for (int y = 0; y < height; y++) {
-      for (int x = 0; x < width; x++) {
-        Complex c = indexToComplex(x, y);
-        int iterations = calculateMandelbrot(c);
-        canvas.putPixel(x, y, getColor(iterations));
-      }
-    }
-    notifyObservers();
-    LoggerUtil.logInfo("Mandelbrot set drawn.");
+  public MandelbrotViewport getViewport() {
+    return viewport;
   }
 
-
   /**
-   * Converts pixel coordinates to a complex number.
+   * Sets the viewport to draw the next time the set is drawn. It may be set from another thread
+   * than the one drawing, and a drawing that has already started keeps its viewport.
    *
-   * @param x The x-coordinate of the pixel.
-   * @param y The y-coordinate of the pixel.
-   * @return The corresponding complex number.
+   * @param viewport the viewport to draw
+   * @throws NullPointerException     if the viewport is null
+   * @throws IllegalArgumentException if the viewport does not have the size of the canvas
    */
-  private Complex indexToComplex(int x, int y) {
-    double real = indexToCoordinate(x);
-    double imaginary = indexToCoordinate(y);
-    return new Complex(real, imaginary);
+  public void setViewport(MandelbrotViewport viewport) {
+    Objects.requireNonNull(viewport, "The viewport cannot be null");
+    if (viewport.width() != width || viewport.height() != height) {
+      throw new IllegalArgumentException("The viewport must have the size of the canvas");
+    }
+    this.viewport = viewport;
+  }
+
+  /**
+   * Draws the Mandelbrot set on the canvas, rendering the tiles in parallel on the common
+   * {@link ForkJoinPool}. The observers are notified on the calling thread once every pixel has
+   * been drawn.
+   */
+  public void drawMandelbrot() {
+    drawMandelbrot(ForkJoinPool.commonPool());
   }
 
   /**
-   * Converts pixel index to a coordinate value.
+   * Draws the Mandelbrot set on the canvas, rendering the tiles in parallel on the given pool. The
+   * viewport is read once, when the drawing starts. The observers are notified on the calling
+   * thread once every pixel has been drawn.
    *
-   * @param index The index value.
-   * @return The corresponding coordinate value.
+   * @param pool the pool to render the tiles on
+   * @throws NullPointerException if the pool is null
    */
-  private double indexToCoordinate(int index) {
-    return (double) (index - 500) / 250;
+  public void drawMandelbrot(ForkJoinPool pool) {
+    Objects.requireNonNull(pool, "The pool cannot be null");
+    MandelbrotViewport view = viewport;
+    PerturbationOrbit orbit = null;
+    if (kernel instanceof MandelbrotKernel && view.scale() < PERTURBATION_SCALE) {
+      orbit = PerturbationOrbit.compute(view.centerRe(), view.centerIm(), view.maxIterations(),
+          view.mathContext());
+    }
+    pool.invoke(new TileTask(view, orbit, canvas.getPixels(), 0, 0, width, height));
+    notifyObservers();
+    LoggerUtil.logInfo("Mandelbrot set drawn.");
   }
 
   /**
-   * Calculates the number of iterations required for the given complex number to escape a certain threshold.
+   * Draws the pixels of a tile into the pixel array of the canvas.
    *
-   * @param c The complex number.
-   * @return The number of iterations.
+   * @param view   the viewport to draw
+   * @param orbit  the reference orbit at the center of the view, or <code>null</code> to draw
+   *               with the kernel
+   * @param pixels the pixel array of the canvas
+   * @param left   the first column of the tile
+   * @param top    the first row of the tile
+   * @param right  the column after the last column of the tile
+   * @param bottom the row after the last row of the tile
    */
-  private int calculateMandelbrot(Complex c) {
-    Complex z = new Complex(0, 0);
-    int iterations = 0;
-    while (z.getLength() < 2 && iterations < MAX_ITERATIONS) {
-      z = z.multiply(z).add(c);
-      iterations++;
+  private void drawTile(MandelbrotViewport view, PerturbationOrbit orbit, int[] pixels, int left,
+      int top, int right, int bottom) {
+    int maxIterations = view.maxIterations();
+    double centerRe = view.centerRe().doubleValue();
+    double centerIm = view.centerIm().doubleValue();
+    for (int y = top; y < bottom; y++) {
+      int row = y * width;
+      double deltaIm = view.deltaIm(y);
+      for (int x = left; x < right; x++) {
+        int iterations = orbit != null
+            ? orbit.escapeTime(view.deltaRe(x), deltaIm, maxIterations)
+            : kernel.escapeTime(centerRe + view.deltaRe(x), centerIm + deltaIm, maxIterations);
+        pixels[row + x] = getColor(iterations, maxIterations);
+      }
     }
-    return iterations;
   }
 
   /**
    * Method to get the color of a pixel based on the number of iterations.
    *
-   * @param iterations The number of iterations.
+   * @param iterations    The number of iterations.
+   * @param maxIterations The largest number of iterations.
    * @return The color of the pixel.
    */
-  private int getColor(int iterations) {
-    return iterations * 255 / MAX_ITERATIONS; // Grayscale
+  private int getColor(int iterations, int maxIterations) {
+    return (int) ((long) iterations * 255 / maxIterations); // Grayscale
   }
 
   /**
@@ -123,6 +199,49 @@ public class Mandelbrot implements ChaosGameSubject {
     return canvas;
   }
 
+  /**
+   * A task that splits a tile of the canvas in half along its longer side until it is small
+   * enough, and then draws it on the thread that runs it.
+   */
+  private final class TileTask extends RecursiveAction {
+
+    private final transient MandelbrotViewport view;
+    private final transient PerturbationOrbit orbit;
+    private final transient int[] pixels;
+    private final int left;
+    private final int top;
+    private final int right;
+    private final int bottom;
+
+    private TileTask(MandelbrotViewport view, PerturbationOrbit orbit, int[] pixels, int left,
+        int top, int right, int bottom) {
+      this.view = view;
+      this.orbit = orbit;
+      this.pixels = pixels;
+      this.left = left;
+      this.top = top;
+      this.right = right;
+      this.bottom = bottom;
+    }
+
+    @Override
+    protected void compute() {
+      int tileWidth = right - left;
+      int tileHeight = bottom - top;
+      if ((long) tileWidth * tileHeight <= TILE_PIXELS) {
+        drawTile(view, orbit, pixels, left, top, right, bottom);
+      } else if (tileWidth >= tileHeight) {
+        int middle = left + tileWidth / 2;
+        invokeAll(new TileTask(view, orbit, pixels, left, top, middle, bottom),
+            new TileTask(view, orbit, pixels, middle, top, right, bottom));
+      } else {
+        int middle = top + tileHeight / 2;
+        invokeAll(new TileTask(view, orbit, pixels, left, top, right, middle),
+            new TileTask(view, orbit, pixels, left, middle, right, bottom));
+      }
+    }
+  }
+
   /**
    * Registers an observer to the list of observers.
    *
@@ -0,0 +1,97 @@
+package no.ntnu.idatg2003.model.game.engine;
+
+/**
+ * The escape-time kernel of the Mandelbrot set, z → z<sup>2</sup> + c with z starting at zero.
+ *
+ * <p>The orbit is kept in four locals, the real and imaginary parts and their squares. The squares
+ * are needed both for the next iteration and for the escape test, so each iteration takes three
+ * multiplications, and the orbit escapes once the sum of the squares reaches
+ * {@value #ESCAPE_RADIUS_SQUARED}, without taking a square root.
+ *
+ * <p>Points in the set never escape, so they are the most expensive ones, running all the
+ * iterations. Two shortcuts avoid most of that work. The main cardioid and the period-2 bulb, which
+ * hold most of the area of the set, are recognised by a closed formula before iterating. For the
+ * other points, the orbit is compared with a saved point, which is replaced whenever the number of
+ * iterations since it was saved reaches a power of two, as in Brent's cycle detection. An orbit
+ * that returns exactly to the saved point repeats forever, so it can never escape and the
+ * iteration stops. For points inside the cardioid and the bulb, and for orbits that repeat
+ * exactly, the result is the same as when all the iterations are run. The closed formula is
+ * evaluated with rounding, though, so a point within rounding distance outside the boundary of
+ * the cardioid or the bulb may be counted as in the set, where the full loop would have let it
+ * escape after very many iterations.
+ *
+ * @author Sigurd Riseth, Theodor Sjetnan Utvik
+ * @version 0.0.1
+ * @see EscapeTimeKernel
+ * @see Mandelbrot
+ * @since 18.10.2026
+ */
+public final class MandelbrotKernel implements EscapeTimeKernel {
+
+  /**
+   * The square of the escape radius. An orbit that leaves the disc of radius 2 never returns.
+   */
+  public static final double ESCAPE_RADIUS_SQUARED = 4;
+
+  /**
+   * Counts the iterations the orbit of zero under z → z<sup>2</sup> + c takes to escape.
+   *
+   * @param re            the real part of c
+   * @param im            the imaginary part of c
+   * @param maxIterations the largest number of iterations to run
+   * @return the number of iterations before the orbit escaped, or <code>maxIterations</code> if
+   *         it did not escape
+   */
+  @Override
+  public int escapeTime(double re, double im, int maxIterations) {
+    if (isInCardioidOrBulb(re, im)) {
+      return Math.max(maxIterations, 0);
+    }
+    double zr = 0;
+    double zi = 0;
+    double zr2 = 0;
+    double zi2 = 0;
+    double savedZr = 0;
+    double savedZi = 0;
+    int period = 1;
+    int sinceSaved = 0;
+    int iterations = 0;
+    while (zr2 + zi2 < ESCAPE_RADIUS_SQUARED && iterations < maxIterations) {
+      zi = 2 * zr * zi + im;
+      zr = zr2 - zi2 + re;
+      zr2 = zr * zr;
+      zi2 = zi * zi;
+      iterations++;
+      if (zr == savedZr && zi == savedZi) {
+        // The orbit has come back to the saved point, so it is periodic and stays bounded
+        return maxIterations;
+      }
+      if (++sinceSaved == period) {
+        savedZr = zr;
+        savedZi = zi;
+        sinceSaved = 0;
+        period = period < (1 << 30) ? period << 1 : period;
+      }
+    }
+    return iterations;
+  }
+
+  /**
+   * Checks if a point lies in the main cardioid or in the period-2 bulb to its left, which are
+   * both inside the Mandelbrot set.
+   *
+   * @param re the real part of the point
+   * @param im the imaginary part of the point
+   * @return <code>true</code> if the point is in the main cardioid or the period-2 bulb
+   */
+  public static boolean isInCardioidOrBulb(double re, double im) {
+    double im2 = im * im;
+    double shifted = re - 0.25;
+    double q = shifted * shifted + im2;
+    if (q * (q + shifted) <= 0.25 * im2) {
+      return true;
+    }
+    double bulb = re + 1;
+    return bulb * bulb + im2 <= 0.0625;
+  }
+}
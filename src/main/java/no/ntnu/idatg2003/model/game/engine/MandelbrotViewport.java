@@ -0,0 +1,254 @@
+package no.ntnu.idatg2003.model.game.engine;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Objects;
+
+/**
+ * The part of the complex plane a {@link Mandelbrot} renders, and how deep it iterates.
+ *
+ * <p>The viewport is given by the point at the center of the image, the size of one pixel in the
+ * complex plane, the size of the image in pixels and the largest number of iterations. The real
+ * part grows to the right and the imaginary part grows upwards, so the top row has the largest
+ * imaginary part.
+ *
+ * <p>A viewport cannot be changed. Zooming and panning return a new viewport, which the
+ * {@link Mandelbrot} renders from scratch, so the image stays sharp at any depth. Zooming also
+ * adapts the number of iterations to the depth, since the boundary of the set needs more
+ * iterations to resolve the closer it is looked at.
+ *
+ * <p>A <code>double</code> only resolves about 16 digits, so deep in a zoom it can no longer tell
+ * the center from its neighbours. The center is therefore kept as a {@link BigDecimal}, with
+ * enough digits to resolve a pixel at the current scale. Offsets from the center, a few hundred
+ * pixels at most, are small and fit a <code>double</code> at any depth.
+ *
+ * @param centerRe      the real part of the point at the center of the image
+ * @param centerIm      the imaginary part of the point at the center of the image
+ * @param scale         the width and height of one pixel in the complex plane
+ * @param width         the width of the image in pixels
+ * @param height        the height of the image in pixels
+ * @param maxIterations the largest number of iterations of a pixel
+ * @author Sigurd Riseth, Theodor Sjetnan Utvik
+ * @version 0.0.1
+ * @see Mandelbrot
+ * @since 18.10.2026
+ */
+public record MandelbrotViewport(BigDecimal centerRe, BigDecimal centerIm, double scale,
+                                 int width, int height, int maxIterations) {
+
+  /**
+   * The number of iterations of the full view of the set.
+   */
+  public static final int DEFAULT_MAX_ITERATIONS = 40;
+
+  /**
+   * The number of iterations added each time the view is zoomed in by a factor of two.
+   */
+  public static final int ITERATIONS_PER_DOUBLING = 32;
+
+  // The full view shows the square [-2, 2] x [-2, 2]
+  private static final double FULL_SPAN = 4;
+  // Digits kept beyond the ones needed to resolve a pixel
+  private static final int GUARD_DIGITS = 20;
+
+  /**
+   * Checks the values of the viewport.
+   *
+   * @throws NullPointerException     if the center is null
+   * @throws IllegalArgumentException if the scale is not positive and finite, or the width,
+   *                                  height or largest number of iterations is less than or equal
+   *                                  to 0
+   */
+  public MandelbrotViewport {
+    Objects.requireNonNull(centerRe, "The real part of the center cannot be null");
+    Objects.requireNonNull(centerIm, "The imaginary part of the center cannot be null");
+    if (!(scale > 0) || !Double.isFinite(scale)) {
+      throw new IllegalArgumentException("The scale must be positive and finite");
+    }
+    if (width <= 0 || height <= 0) {
+      throw new IllegalArgumentException("The width and height must be positive");
+    }
+    if (maxIterations <= 0) {
+      throw new IllegalArgumentException("The largest number of iterations must be positive");
+    }
+  }
+
+  /**
+   * Creates a viewport centered on a point given as <code>double</code> values.
+   *
+   * @param centerRe      the real part of the point at the center of the image
+   * @param centerIm      the imaginary part of the point at the center of the image
+   * @param scale         the width and height of one pixel in the complex plane
+   * @param width         the width of the image in pixels
+   * @param height        the height of the image in pixels
+   * @param maxIterations the largest number of iterations of a pixel
+   * @throws IllegalArgumentException if the center is not finite, the scale is not positive and
+   *                                  finite, or the width, height or largest number of iterations
+   *                                  is less than or equal to 0
+   */
+  public MandelbrotViewport(double centerRe, double centerIm, double scale, int width, int height,
+      int maxIterations) {
+    this(toBigDecimal(centerRe), toBigDecimal(centerIm), scale, width, height, maxIterations);
+  }
+
+  /**
+   * Converts a coordinate of the center to a {@link BigDecimal}.
+   *
+   * @param value the coordinate
+   * @return the exact value of the coordinate
+   * @throws IllegalArgumentException if the coordinate is not finite
+   */
+  private static BigDecimal toBigDecimal(double value) {
+    if (!Double.isFinite(value)) {
+      throw new IllegalArgumentException("The center must be finite");
+    }
+    return new BigDecimal(value);
+  }
+
+  /**
+   * Creates a viewport showing the whole set, the square [-2, 2] × [-2, 2] fitted to the shorter
+   * side of the image, with {@value #DEFAULT_MAX_ITERATIONS} iterations.
+   *
+   * @param width  the width of the image in pixels
+   * @param height the height of the image in pixels
+   * @return the viewport of the whole set
+   * @throws IllegalArgumentException if the width or height is less than or equal to 0
+   */
+  public static MandelbrotViewport fullView(int width, int height) {
+    if (width <= 0 || height <= 0) {
+      throw new IllegalArgumentException("The width and height must be positive");
+    }
+    return new MandelbrotViewport(0, 0, FULL_SPAN / Math.min(width, height), width, height,
+        DEFAULT_MAX_ITERATIONS);
+  }
+
+  /**
+   * Returns the real part of the points in a column of the image, rounded to a
+   * <code>double</code>.
+   *
+   * @param x the column
+   * @return the real part of the column
+   */
+  public double re(double x) {
+    return centerRe.doubleValue() + deltaRe(x);
+  }
+
+  /**
+   * Returns the imaginary part of the points in a row of the image, rounded to a
+   * <code>double</code>.
+   *
+   * @param y the row
+   * @return the imaginary part of the row
+   */
+  public double im(double y) {
+    return centerIm.doubleValue() + deltaIm(y);
+  }
+
+  /**
+   * Returns the distance along the real axis from the center to the points in a column.
+   *
+   * @param x the column
+   * @return the offset of the column from the center
+   */
+  public double deltaRe(double x) {
+    return (x - width / 2) * scale;
+  }
+
+  /**
+   * Returns the distance along the imaginary axis from the center to the points in a row.
+   *
+   * @param y the row
+   * @return the offset of the row from the center
+   */
+  public double deltaIm(double y) {
+    return -(y - height / 2) * scale;
+  }
+
+  /**
+   * Returns the precision needed to tell the points of neighbouring pixels apart, plus some guard
+   * digits, for computing the center and points near it.
+   *
+   * @return the precision of the viewport
+   */
+  public MathContext mathContext() {
+    return mathContext(scale);
+  }
+
+  /**
+   * Returns the precision needed to tell the points of neighbouring pixels of the given scale
+   * apart, plus some guard digits.
+   *
+   * @param scale the width and height of one pixel in the complex plane
+   * @return the precision for the scale
+   */
+  private static MathContext mathContext(double scale) {
+    int pixelDigits = (int) Math.ceil(-Math.log10(scale));
+    return new MathContext(GUARD_DIGITS + Math.max(0, pixelDigits));
+  }
+
+  /**
+   * Returns the number of iterations for a pixel of the given scale. It grows with the number of
+   * times the view has been zoomed in by two from the full view, and never drops below
+   * {@value #DEFAULT_MAX_ITERATIONS}.
+   *
+   * @param scale  the width and height of one pixel in the complex plane
+   * @param width  the width of the image in pixels
+   * @param height the height of the image in pixels
+   * @return the number of iterations for the scale
+   */
+  public static int iterationsForScale(double scale, int width, int height) {
+    double doublings = Math.log(FULL_SPAN / (scale * Math.min(width, height))) / Math.log(2);
+    return (int) Math.min(Integer.MAX_VALUE,
+        DEFAULT_MAX_ITERATIONS + Math.round(ITERATIONS_PER_DOUBLING * Math.max(0, doublings)));
+  }
+
+  /**
+   * Zooms the view by the given factor, keeping the point under the given pixel in place. The
+   * number of iterations is adapted to the new depth.
+   *
+   * @param factor the factor to zoom by, above 1 to zoom in and below 1 to zoom out
+   * @param x      the column of the pixel to keep in place
+   * @param y      the row of the pixel to keep in place
+   * @return the zoomed viewport
+   * @throws IllegalArgumentException if the factor is not positive and finite
+   */
+  public MandelbrotViewport zoom(double factor, double x, double y) {
+    if (!(factor > 0) || !Double.isFinite(factor)) {
+      throw new IllegalArgumentException("The zoom factor must be positive and finite");
+    }
+    double newScale = scale / factor;
+    // The point under the pixel stays in place when the center moves towards it by 1 - 1 / factor
+    double shift = 1 - 1 / factor;
+    MathContext context = mathContext(newScale);
+    return new MandelbrotViewport(
+        centerRe.add(new BigDecimal(deltaRe(x) * shift), context),
+        centerIm.add(new BigDecimal(deltaIm(y) * shift), context),
+        newScale, width, height, iterationsForScale(newScale, width, height));
+  }
+
+  /**
+   * Moves the view by the given number of pixels, so the image follows a drag by the same amount.
+   *
+   * @param dx the number of pixels to move the image to the right
+   * @param dy the number of pixels to move the image down
+   * @return the moved viewport
+   */
+  public MandelbrotViewport pan(double dx, double dy) {
+    MathContext context = mathContext();
+    return new MandelbrotViewport(
+        centerRe.subtract(new BigDecimal(dx * scale), context),
+        centerIm.add(new BigDecimal(dy * scale), context),
+        scale, width, height, maxIterations);
+  }
+
+  /**
+   * Returns a viewport of the same part of the plane with the given number of iterations.
+   *
+   * @param maxIterations the largest number of iterations of a pixel
+   * @return the viewport with the new number of iterations
+   * @throws IllegalArgumentException if the number of iterations is less than or equal to 0
+   */
+  public MandelbrotViewport withMaxIterations(int maxIterations) {
+    return new MandelbrotViewport(centerRe, centerIm, scale, width, height, maxIterations);
+  }
+}
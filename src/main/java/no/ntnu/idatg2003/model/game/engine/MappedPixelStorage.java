@@ -0,0 +1,507 @@
+package no.ntnu.idatg2003.model.game.engine;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A {@link PixelStorage} that keeps 32-bit pixel counts in a memory-mapped file, for histograms
+ * larger than physical memory, such as 100000 × 100000 pixels. The operating system pages the
+ * file in and out as it is used, and the counts stay in the file when the storage is closed, so a
+ * render can be continued by a later process with {@link #open(Path)}.
+ *
+ * <p>The pixels are stored in square tiles of 2<sup>tileShift</sup> × 2<sup>tileShift</sup>
+ * pixels instead of in rows, so the pixels near each other in the image are also near each other
+ * in the file. Increments are not written at once, but collected in a batch. When the batch is
+ * full, it is sorted by position in the file and applied in that order, so each tile is paged in
+ * once per batch instead of once per point. The counts saturate at {@link Integer#MAX_VALUE}.
+ *
+ * <p>The file starts with a small header holding the dimensions, the tile size and the number of
+ * covered pixels, followed by the tiles in row-major order. A single mapping can hold at most
+ * 2 GiB, so the tiles are mapped in regions of 1 GiB. The number of covered pixels is written
+ * each time the increments are flushed, and the header is marked as open until the storage is
+ * closed. A file that is opened while still marked as open was not closed properly, for example
+ * because the process was killed, so its covered pixels are counted again instead of trusting the
+ * header.
+ *
+ * @author Sigurd Riseth, Theodor Sjetnan Utvik
+ * @version 0.0.1
+ * @see PixelStorage
+ * @see ChaosCanvas
+ * @since 18.10.2026
+ */
+public final class MappedPixelStorage implements PixelStorage {
+
+  /**
+   * The base two logarithm of the width of a tile, if none is given, which makes each tile
+   * 256 × 256 pixels, or 256 KiB.
+   */
+  public static final int DEFAULT_TILE_SHIFT = 8;
+
+  /**
+   * The number of increments collected before they are written to the file, if none is given.
+   */
+  public static final int DEFAULT_BATCH_SIZE = 1 << 16;
+
+  private static final int MAGIC = 0x43484153;
+  private static final int HEADER_BYTES = 64;
+  private static final int WIDTH_POSITION = 4;
+  private static final int HEIGHT_POSITION = 8;
+  private static final int TILE_SHIFT_POSITION = 12;
+  private static final int COVERED_POSITION = 16;
+  private static final int OPEN_POSITION = 24;
+  // A region of 2^28 counts fills 1 GiB, and the largest tile fills exactly one region
+  private static final int REGION_SHIFT = 28;
+  private static final int MAX_TILE_SHIFT = REGION_SHIFT / 2;
+  private static final int[] ZEROS = new int[8192];
+
+  private final Path path;
+  private final boolean temporary;
+  private final int width;
+  private final int height;
+  private final int tileShift;
+  private final int tileMask;
+  private final int tilesPerRow;
+  private final long slots;
+  private final long[] batch;
+  private int batchLength;
+  private long coveredPixels;
+  private long unreportedCoveredPixels;
+  private FileChannel channel;
+  private MappedByteBuffer header;
+  private MappedByteBuffer[] buffers;
+  private IntBuffer[] regions;
+
+  /**
+   * Maps a file with the given layout, creating it or reading its header.
+   *
+   * @param path      the file
+   * @param temporary whether the file is deleted when the storage is closed
+   * @param width     the width of the image
+   * @param height    the height of the image
+   * @param tileShift the base two logarithm of the width of a tile
+   * @param batchSize the number of increments collected before they are written
+   * @param channel   the open channel of the file
+   * @param existing  whether the file already holds a storage
+   * @throws IOException if the file cannot be mapped
+   */
+  private MappedPixelStorage(Path path, boolean temporary, int width, int height, int tileShift,
+      int batchSize, FileChannel channel, boolean existing) throws IOException {
+    this.path = path;
+    this.temporary = temporary;
+    this.width = width;
+    this.height = height;
+    this.tileShift = tileShift;
+    this.tileMask = (1 << tileShift) - 1;
+    this.tilesPerRow = (int) Math.ceilDiv(width, 1L << tileShift);
+    long tileRows = Math.ceilDiv(height, 1L << tileShift);
+    // Tiles on the right and bottom edges are padded to full tiles
+    this.slots = (tileRows * tilesPerRow) << (2 * tileShift);
+    this.batch = new long[batchSize];
+    this.channel = channel;
+
+    this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+    header.order(ByteOrder.LITTLE_ENDIAN);
+    boolean stale = existing && header.getInt(OPEN_POSITION) != 0;
+    if (existing) {
+      this.coveredPixels = header.getLong(COVERED_POSITION);
+    } else {
+      header.putInt(0, MAGIC);
+      header.putInt(WIDTH_POSITION, width);
+      header.putInt(HEIGHT_POSITION, height);
+      header.putInt(TILE_SHIFT_POSITION, tileShift);
+      header.putLong(COVERED_POSITION, 0);
+    }
+    header.putInt(OPEN_POSITION, 1);
+    header.force();
+
+    long regionSize = 1L << REGION_SHIFT;
+    int regionCount = (int) Math.ceilDiv(slots, regionSize);
+    this.buffers = new MappedByteBuffer[regionCount];
+    this.regions = new IntBuffer[regionCount];
+    for (int i = 0; i < regionCount; i++) {
+      long countsInRegion = Math.min(regionSize, slots - i * regionSize);
+      // Mapping past the end of the file extends it with zeros
+      buffers[i] = channel.map(FileChannel.MapMode.READ_WRITE,
+          HEADER_BYTES + i * regionSize * Integer.BYTES, countsInRegion * Integer.BYTES);
+      buffers[i].order(ByteOrder.LITTLE_ENDIAN);
+      regions[i] = buffers[i].asIntBuffer();
+    }
+    if (stale) {
+      this.coveredPixels = countCoveredPixels();
+      header.putLong(COVERED_POSITION, coveredPixels);
+    }
+  }
+
+  /**
+   * Counts the pixels with a count other than zero by reading every tile. The padding of the
+   * edge tiles is never written, so it does not add to the count.
+   *
+   * @return the number of covered pixels in the file
+   */
+  private long countCoveredPixels() {
+    long covered = 0;
+    for (IntBuffer region : regions) {
+      int capacity = region.capacity();
+      for (int offset = 0; offset < capacity; offset++) {
+        if (region.get(offset) != 0) {
+          covered++;
+        }
+      }
+    }
+    return covered;
+  }
+
+  /**
+   * Creates a new file holding an image of the given dimensions, with every count set to zero, and
+   * the default tile and batch sizes. An existing file at the path is replaced.
+   *
+   * @param path   the file
+   * @param width  the width of the image
+   * @param height the height of the image
+   * @return the storage of the file
+   * @throws NullPointerException     if the path is null
+   * @throws IllegalArgumentException if the width or height is less than or equal to 0
+   * @throws UncheckedIOException     if the file cannot be created or mapped
+   */
+  public static MappedPixelStorage create(Path path, int width, int height) {
+    return create(path, width, height, DEFAULT_TILE_SHIFT, DEFAULT_BATCH_SIZE);
+  }
+
+  /**
+   * Creates a new file holding an image of the given dimensions, with every count set to zero. An
+   * existing file at the path is replaced.
+   *
+   * @param path      the file
+   * @param width     the width of the image
+   * @param height    the height of the image
+   * @param tileShift the base two logarithm of the width of a tile
+   * @param batchSize the number of increments collected before they are written to the file
+   * @return the storage of the file
+   * @throws NullPointerException     if the path is null
+   * @throws IllegalArgumentException if the width or height is less than or equal to 0, the tile
+   *                                  shift is negative or larger than 14, or the batch size is
+   *                                  less than 1
+   * @throws UncheckedIOException     if the file cannot be created or mapped
+   */
+  public static MappedPixelStorage create(Path path, int width, int height, int tileShift,
+      int batchSize) {
+    return create(path, false, width, height, tileShift, batchSize);
+  }
+
+  /**
+   * Creates a new file, checking the layout first.
+   *
+   * @param path      the file
+   * @param temporary whether the file is deleted when the storage is closed
+   * @param width     the width of the image
+   * @param height    the height of the image
+   * @param tileShift the base two logarithm of the width of a tile
+   * @param batchSize the number of increments collected before they are written to the file
+   * @return the storage of the file
+   */
+  private static MappedPixelStorage create(Path path, boolean temporary, int width, int height,
+      int tileShift, int batchSize) {
+    Objects.requireNonNull(path, "The path cannot be null");
+    if (width <= 0 || height <= 0) {
+      throw new IllegalArgumentException("The width and height must be positive");
+    }
+    if (tileShift < 0 || tileShift > MAX_TILE_SHIFT) {
+      throw new IllegalArgumentException("The tile shift must be between 0 and "
+          + MAX_TILE_SHIFT);
+    }
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("The batch size must be positive");
+    }
+    try {
+      FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+          StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+          StandardOpenOption.WRITE);
+      return new MappedPixelStorage(path, temporary, width, height, tileShift, batchSize,
+          channel, false);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not create the file " + path, e);
+    }
+  }
+
+  /**
+   * Opens a file written by an earlier storage, keeping its counts, so a render can be continued.
+   * If the earlier storage was not closed, the covered pixels in the header may be out of date, and
+   * they are counted again from the tiles.
+   *
+   * @param path the file
+   * @return the storage of the file
+   * @throws NullPointerException if the path is null
+   * @throws UncheckedIOException if the file cannot be read or mapped, or does not hold a storage
+   */
+  public static MappedPixelStorage open(Path path) {
+    Objects.requireNonNull(path, "The path cannot be null");
+    try {
+      FileChannel channel = FileChannel.open(path, StandardOpenOption.READ,
+          StandardOpenOption.WRITE);
+      try {
+        if (channel.size() < HEADER_BYTES) {
+          throw new IOException("The file is too short to hold a pixel storage");
+        }
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+        header.order(ByteOrder.LITTLE_ENDIAN);
+        int width = header.getInt(WIDTH_POSITION);
+        int height = header.getInt(HEIGHT_POSITION);
+        int tileShift = header.getInt(TILE_SHIFT_POSITION);
+        if (header.getInt(0) != MAGIC || width <= 0
+            || height <= 0 || tileShift < 0 || tileShift > MAX_TILE_SHIFT) {
+          throw new IOException("The file does not hold a pixel storage");
+        }
+        return new MappedPixelStorage(path, false, width, height, tileShift, DEFAULT_BATCH_SIZE,
+            channel, true);
+      } catch (IOException e) {
+        channel.close();
+        throw e;
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not open the file " + path, e);
+    }
+  }
+
+  /**
+   * Finds the position in the file, counted in pixels after the header, of the pixel with the
+   * given row-major index.
+   *
+   * @param index the row-major index of the pixel
+   * @return the position of the pixel in the tiles
+   * @throws IndexOutOfBoundsException if the index is outside the storage
+   */
+  private long slot(long index) {
+    Objects.checkIndex(index, size());
+    int row = (int) (index / width);
+    int column = (int) (index - (long) row * width);
+    long tile = (long) (row >>> tileShift) * tilesPerRow + (column >>> tileShift);
+    return (tile << (2 * tileShift)) | ((long) (row & tileMask) << tileShift)
+        | (column & tileMask);
+  }
+
+  /**
+   * Returns the region holding the given slot.
+   *
+   * @param slot the position of a pixel in the tiles
+   * @return the region of the slot
+   * @throws IllegalStateException if the storage has been closed
+   */
+  private IntBuffer region(long slot) {
+    if (regions == null) {
+      throw new IllegalStateException("The storage has been closed");
+    }
+    return regions[(int) (slot >>> REGION_SHIFT)];
+  }
+
+  /**
+   * Returns the width of the image in the file.
+   *
+   * @return the width of the image
+   */
+  public int getWidth() {
+    return width;
+  }
+
+  /**
+   * Returns the height of the image in the file.
+   *
+   * @return the height of the image
+   */
+  public int getHeight() {
+    return height;
+  }
+
+  /**
+   * Returns the number of pixels that have a count other than zero, including the pixels counted
+   * before the file was opened and the increments that have not been written yet.
+   *
+   * @return the number of covered pixels
+   */
+  public long getCoveredPixels() {
+    writeBatch();
+    return coveredPixels;
+  }
+
+  @Override
+  public long size() {
+    return (long) width * height;
+  }
+
+  @Override
+  public long maxValue() {
+    return Integer.MAX_VALUE;
+  }
+
+  @Override
+  public long get(long index) {
+    long slot = slot(index);
+    writeBatch();
+    return region(slot).get((int) (slot & ((1 << REGION_SHIFT) - 1)));
+  }
+
+  @Override
+  public void set(long index, long value) {
+    long slot = slot(index);
+    writeBatch();
+    IntBuffer region = region(slot);
+    int offset = (int) (slot & ((1 << REGION_SHIFT) - 1));
+    int oldValue = region.get(offset);
+    int newValue = (int) Math.clamp(value, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    region.put(offset, newValue);
+    if (oldValue == 0 && newValue != 0) {
+      coveredPixels++;
+    } else if (oldValue != 0 && newValue == 0) {
+      coveredPixels--;
+    }
+  }
+
+  /**
+   * Adds an increment of a pixel to the batch, writing the batch first if it is full. The
+   * increment is not written at once, so this always returns <code>false</code>, and the pixel is
+   * counted as covered by {@link #flush()} instead.
+   *
+   * @param index the index of the pixel
+   * @return <code>false</code>, since the increment has not been written yet
+   * @throws IndexOutOfBoundsException if the index is outside the storage
+   * @throws IllegalStateException     if the storage has been closed
+   */
+  @Override
+  public boolean increment(long index) {
+    long slot = slot(index);
+    if (regions == null) {
+      throw new IllegalStateException("The storage has been closed");
+    }
+    if (batchLength == batch.length) {
+      writeBatch();
+    }
+    batch[batchLength++] = slot;
+    return false;
+  }
+
+  /**
+   * Writes the increments in the batch to the file, sorted by their position so the tiles are
+   * visited in order, and remembers how many pixels they covered for {@link #flush()}.
+   */
+  private void writeBatch() {
+    if (batchLength == 0) {
+      return;
+    }
+    Arrays.sort(batch, 0, batchLength);
+    int regionMask = (1 << REGION_SHIFT) - 1;
+    long covered = 0;
+    for (int i = 0; i < batchLength; i++) {
+      long slot = batch[i];
+      IntBuffer region = region(slot);
+      int offset = (int) (slot & regionMask);
+      int value = region.get(offset);
+      if (value == 0) {
+        covered++;
+      }
+      if (value != Integer.MAX_VALUE) {
+        region.put(offset, value + 1);
+      }
+    }
+    batchLength = 0;
+    coveredPixels += covered;
+    unreportedCoveredPixels += covered;
+  }
+
+  /**
+   * Writes the increments in the batch and the number of covered pixels to the file.
+   *
+   * @return the number of pixels that were zero before the increments written since the last
+   *         call
+   */
+  @Override
+  public long flush() {
+    writeBatch();
+    if (header != null) {
+      header.putLong(COVERED_POSITION, coveredPixels);
+    }
+    long covered = unreportedCoveredPixels;
+    unreportedCoveredPixels = 0;
+    return covered;
+  }
+
+  /**
+   * Sets the count of every pixel to zero, dropping the increments in the batch.
+   *
+   * @throws IllegalStateException if the storage has been closed
+   */
+  @Override
+  public void clear() {
+    if (regions == null) {
+      throw new IllegalStateException("The storage has been closed");
+    }
+    batchLength = 0;
+    unreportedCoveredPixels = 0;
+    coveredPixels = 0;
+    for (IntBuffer region : regions) {
+      int capacity = region.capacity();
+      for (int offset = 0; offset < capacity; offset += ZEROS.length) {
+        region.put(offset, ZEROS, 0, Math.min(ZEROS.length, capacity - offset));
+      }
+    }
+  }
+
+  /**
+   * Creates a storage of the same layout in a temporary file next to this one, which is deleted
+   * when the new storage is closed. The new file is as large as this one, so this is only meant
+   * for an explicit copy of the canvas. Parallel runs of a {@link ChaosGame} do not copy the
+   * storage, but add the points of every walker to this file.
+   *
+   * @return the new storage
+   * @throws UncheckedIOException if the temporary file cannot be created or mapped
+   */
+  @Override
+  public PixelStorage createEmpty() {
+    try {
+      Path directory = path.toAbsolutePath().getParent();
+      Path file = Files.createTempFile(directory, "chaos-canvas", ".tmp");
+      return create(file, true, width, height, tileShift, batch.length);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not create a temporary file next to " + path, e);
+    }
+  }
+
+  /**
+   * Writes the batch and the number of covered pixels to the file, marks the header as closed,
+   * forces the changes to the disk and unmaps the file. Closing a storage twice has no effect.
+   *
+   * @throws UncheckedIOException if the file cannot be closed
+   */
+  @Override
+  public void close() {
+    if (regions == null) {
+      return;
+    }
+    writeBatch();
+    header.putLong(COVERED_POSITION, coveredPixels);
+    header.putInt(OPEN_POSITION, 0);
+    header.force();
+    for (MappedByteBuffer buffer : buffers) {
+      buffer.force();
+    }
+    header = null;
+    buffers = null;
+    regions = null;
+    try {
+      channel.close();
+      channel = null;
+      if (temporary) {
+        Files.deleteIfExists(path);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not close the file " + path, e);
+    }
+  }
+}
@@ -0,0 +1,192 @@
+package no.ntnu.idatg2003.model.game.engine;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.Objects;
+
+/**
+ * A {@link PixelStorage} that keeps 64-bit pixel counts in native memory outside the Java heap,
+ * for renders too large for an array, such as posters of 20000 × 20000 pixels and more.
+ *
+ * <p>A single buffer can hold at most 2 GiB, so the pixels are split into chunks of
+ * 2<sup>{@value #DEFAULT_CHUNK_SHIFT}</sup> counts by default, each in its own direct buffer. The chunk of a pixel
+ * is found by shifting its index, and its place in the chunk by masking it. The counts are stored
+ * in the native byte order and saturate at {@link Long#MAX_VALUE}.
+ *
+ * <p>The memory is allocated when the storage is created. After {@link #close()}, the storage
+ * drops its buffers and can no longer be used. The memory is then returned when the buffers are
+ * collected, since Java 21 has no standard way to free a direct buffer at once. The buffers can
+ * be handed to image writers without copying through {@link #buffers()}.
+ *
+ * @author Sigurd Riseth, Theodor Sjetnan Utvik
+ * @version 0.0.1
+ * @see PixelStorage
+ * @see ChaosCanvas
+ * @since 18.10.2026
+ */
+public final class OffHeapPixelStorage implements PixelStorage {
+
+  /**
+   * The base two logarithm of the number of counts in a chunk, if none is given. It is also the
+   * largest one, since a chunk of 2<sup>27</sup> counts fills 1 GiB.
+   */
+  public static final int DEFAULT_CHUNK_SHIFT = 27;
+
+  private static final long[] ZEROS = new long[8192];
+
+  private final long size;
+  private final int chunkShift;
+  private final long chunkMask;
+  private ByteBuffer[] buffers;
+  private LongBuffer[] chunks;
+
+  /**
+   * Allocates a storage with the given number of pixels, all set to zero.
+   *
+   * @param size the number of pixels
+   * @throws IllegalArgumentException if the size is negative
+   * @throws OutOfMemoryError         if there is not enough native memory
+   */
+  public OffHeapPixelStorage(long size) {
+    this(size, DEFAULT_CHUNK_SHIFT);
+  }
+
+  /**
+   * Allocates a storage with the given number of pixels, all set to zero, split into chunks of
+   * the given size.
+   *
+   * @param size       the number of pixels
+   * @param chunkShift the base two logarithm of the number of counts in a chunk
+   * @throws IllegalArgumentException if the size is negative, or the chunk shift is negative or
+   *                                  larger than {@value #DEFAULT_CHUNK_SHIFT}
+   * @throws OutOfMemoryError         if there is not enough native memory
+   */
+  public OffHeapPixelStorage(long size, int chunkShift) {
+    if (size < 0) {
+      throw new IllegalArgumentException("The size cannot be negative");
+    }
+    if (chunkShift < 0 || chunkShift > DEFAULT_CHUNK_SHIFT) {
+      throw new IllegalArgumentException("The chunk shift must be between 0 and "
+          + DEFAULT_CHUNK_SHIFT);
+    }
+    this.size = size;
+    this.chunkShift = chunkShift;
+    long chunkSize = 1L << chunkShift;
+    this.chunkMask = chunkSize - 1;
+    int chunkCount = (int) Math.ceilDiv(size, chunkSize);
+    this.buffers = new ByteBuffer[chunkCount];
+    this.chunks = new LongBuffer[chunkCount];
+    for (int i = 0; i < chunkCount; i++) {
+      long countsInChunk = Math.min(chunkSize, size - i * chunkSize);
+      // Direct buffers are zeroed when they are allocated
+      buffers[i] = ByteBuffer.allocateDirect((int) countsInChunk * Long.BYTES)
+          .order(ByteOrder.nativeOrder());
+      chunks[i] = buffers[i].asLongBuffer();
+    }
+  }
+
+  /**
+   * Returns the chunk holding the pixel with the given index.
+   *
+   * @param index the index of the pixel
+   * @return the chunk of the pixel
+   * @throws IndexOutOfBoundsException if the index is outside the storage
+   * @throws IllegalStateException     if the storage has been closed
+   */
+  private LongBuffer chunk(long index) {
+    if (chunks == null) {
+      throw new IllegalStateException("The storage has been closed");
+    }
+    return chunks[(int) (Objects.checkIndex(index, size) >>> chunkShift)];
+  }
+
+  @Override
+  public long size() {
+    return size;
+  }
+
+  @Override
+  public long maxValue() {
+    return Long.MAX_VALUE;
+  }
+
+  @Override
+  public long get(long index) {
+    return chunk(index).get((int) (index & chunkMask));
+  }
+
+  @Override
+  public void set(long index, long value) {
+    chunk(index).put((int) (index & chunkMask), value);
+  }
+
+  @Override
+  public boolean increment(long index) {
+    LongBuffer chunk = chunk(index);
+    int offset = (int) (index & chunkMask);
+    long value = chunk.get(offset);
+    if (value != Long.MAX_VALUE) {
+      chunk.put(offset, value + 1);
+    }
+    return value == 0;
+  }
+
+  /**
+   * Sets the count of every pixel to zero.
+   *
+   * @throws IllegalStateException if the storage has been closed
+   */
+  @Override
+  public void clear() {
+    if (chunks == null) {
+      throw new IllegalStateException("The storage has been closed");
+    }
+    for (LongBuffer chunk : chunks) {
+      int capacity = chunk.capacity();
+      for (int offset = 0; offset < capacity; offset += ZEROS.length) {
+        chunk.put(offset, ZEROS, 0, Math.min(ZEROS.length, capacity - offset));
+      }
+    }
+  }
+
+  @Override
+  public PixelStorage createEmpty() {
+    return new OffHeapPixelStorage(size, chunkShift);
+  }
+
+  /**
+   * Returns read-only views of the chunks, in order, with the counts as 64-bit values in the
+   * native byte order. The views share the memory of the storage, so no pixels are copied, and
+   * they must not be used after the storage has been closed.
+   *
+   * @return the chunks of the storage
+   * @throws IllegalStateException if the storage has been closed
+   */
+  public ByteBuffer[] buffers() {
+    if (buffers == null) {
+      throw new IllegalStateException("The storage has been closed");
+    }
+    ByteBuffer[] views = new ByteBuffer[buffers.length];
+    for (int i = 0; i < buffers.length; i++) {
+      views[i] = buffers[i].asReadOnlyBuffer().order(ByteOrder.nativeOrder());
+    }
+    return views;
+  }
+
+  /**
+   * Drops the buffers of the storage, so their memory can be returned. Closing a storage twice
+   * has no effect.
+   *
+   * <p>The native memory is not freed here, but only when the garbage collector has collected the
+   * buffers, and until then it still counts against the limit on direct memory of the virtual
+   * machine, set with <code>-XX:MaxDirectMemorySize</code>. A storage should therefore be
+   * allocated once and reused, for example by clearing it, rather than allocated per run.
+   * Parallel runs of a {@link ChaosGame} share the storage of its canvas for the same reason.
+   */
+  @Override
+  public void close() {
+    buffers = null;
+    chunks = null;
+  }
+}
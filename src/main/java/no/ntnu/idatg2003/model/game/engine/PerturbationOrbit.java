@@ -0,0 +1,156 @@
+package no.ntnu.idatg2003.model.game.engine;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A reference orbit of the Mandelbrot set, for rendering deep zooms with perturbation.
+ *
+ * <p>Deep in a zoom the points of neighbouring pixels differ in digits a <code>double</code>
+ * cannot hold. Iterating every pixel with {@link BigDecimal} would be far too slow, so only one
+ * point, the reference C, is iterated at high precision. Its orbit Z<sub>n</sub> is stored rounded
+ * to <code>double</code> values, which is enough since the orbit itself has a moderate size. A
+ * pixel at C + dc then follows the orbit Z<sub>n</sub> + δ<sub>n</sub>, where the difference
+ * δ<sub>n</sub> stays small and is iterated in <code>double</code> precision:
+ *
+ * <pre>
+ *   δ<sub>n+1</sub> = (2 Z<sub>n</sub> + δ<sub>n</sub>) δ<sub>n</sub> + dc
+ * </pre>
+ *
+ * <p>The difference stays accurate as long as it is small compared with the orbit of the pixel.
+ * When the orbit of the pixel comes closer to zero than its difference from the reference, the
+ * pixel has moved away from the reference and would be rendered wrongly, a glitch. The pixel is
+ * then rebased: its orbit becomes the new difference, and it follows the reference again from the
+ * start, where Z<sub>0</sub> = 0. The same is done when the pixel outlives a reference that has
+ * escaped. One reference orbit therefore serves every pixel of the image.
+ *
+ * @author Sigurd Riseth, Theodor Sjetnan Utvik
+ * @version 0.0.1
+ * @see Mandelbrot
+ * @see MandelbrotKernel
+ * @since 18.10.2026
+ */
+public final class PerturbationOrbit {
+
+  private static final BigDecimal ESCAPE_RADIUS_SQUARED =
+      BigDecimal.valueOf(MandelbrotKernel.ESCAPE_RADIUS_SQUARED);
+
+  private final double[] orbitRe;
+  private final double[] orbitIm;
+  // The index of the last point of the orbit
+  private final int last;
+
+  /**
+   * Creates a reference orbit from its points.
+   *
+   * @param orbitRe the real parts of the points
+   * @param orbitIm the imaginary parts of the points
+   * @param length  the number of points
+   */
+  private PerturbationOrbit(double[] orbitRe, double[] orbitIm, int length) {
+    this.orbitRe = orbitRe;
+    this.orbitIm = orbitIm;
+    this.last = length - 1;
+  }
+
+  /**
+   * Computes the orbit of zero under z → z<sup>2</sup> + C at the given precision, until it
+   * escapes or has run the given number of iterations.
+   *
+   * @param re            the real part of the reference C
+   * @param im            the imaginary part of the reference C
+   * @param maxIterations the largest number of iterations to run
+   * @param context       the precision of the iteration
+   * @return the reference orbit
+   * @throws NullPointerException     if the reference or the precision is null
+   * @throws IllegalArgumentException if the number of iterations is less than or equal to 0
+   */
+  public static PerturbationOrbit compute(BigDecimal re, BigDecimal im, int maxIterations,
+      MathContext context) {
+    Objects.requireNonNull(re, "The real part of the reference cannot be null");
+    Objects.requireNonNull(im, "The imaginary part of the reference cannot be null");
+    Objects.requireNonNull(context, "The precision cannot be null");
+    if (maxIterations <= 0) {
+      throw new IllegalArgumentException("The largest number of iterations must be positive");
+    }
+    double[] orbitRe = new double[Math.min(maxIterations, 1024) + 1];
+    double[] orbitIm = new double[orbitRe.length];
+    BigDecimal zr = BigDecimal.ZERO;
+    BigDecimal zi = BigDecimal.ZERO;
+    BigDecimal zr2 = BigDecimal.ZERO;
+    BigDecimal zi2 = BigDecimal.ZERO;
+    int length = 1;
+    while (length <= maxIterations) {
+      zi = zr.multiply(zi, context).multiply(BigDecimal.TWO).add(im, context);
+      zr = zr2.subtract(zi2, context).add(re, context);
+      if (length == orbitRe.length) {
+        int capacity = (int) Math.min((long) maxIterations + 1, 2L * orbitRe.length);
+        orbitRe = Arrays.copyOf(orbitRe, capacity);
+        orbitIm = Arrays.copyOf(orbitIm, capacity);
+      }
+      orbitRe[length] = zr.doubleValue();
+      orbitIm[length] = zi.doubleValue();
+      length++;
+      zr2 = zr.multiply(zr, context);
+      zi2 = zi.multiply(zi, context);
+      // The escaped point is kept, since a pixel near the reference may still be inside
+      if (zr2.add(zi2, context).compareTo(ESCAPE_RADIUS_SQUARED) >= 0) {
+        break;
+      }
+    }
+    return new PerturbationOrbit(orbitRe, orbitIm, length);
+  }
+
+  /**
+   * Returns the number of iterations the reference ran before it escaped, or the largest number
+   * of iterations if it did not escape.
+   *
+   * @return the number of iterations of the reference
+   */
+  public int getReferenceIterations() {
+    return last;
+  }
+
+  /**
+   * Counts the iterations the orbit of the point at the given offset from the reference takes to
+   * escape, in the same way as {@link MandelbrotKernel#escapeTime(double, double, int)}.
+   *
+   * @param dcRe          the real part of the offset from the reference
+   * @param dcIm          the imaginary part of the offset from the reference
+   * @param maxIterations the largest number of iterations to run
+   * @return the number of iterations before the orbit escaped, or <code>maxIterations</code> if
+   *         it did not escape
+   */
+  public int escapeTime(double dcRe, double dcIm, int maxIterations) {
+    final double[] zr = orbitRe;
+    final double[] zi = orbitIm;
+    double dr = 0;
+    double di = 0;
+    int reference = 0;
+    int iterations = 0;
+    while (iterations < maxIterations) {
+      double twoZr = 2 * zr[reference] + dr;
+      double twoZi = 2 * zi[reference] + di;
+      double nextDr = twoZr * dr - twoZi * di + dcRe;
+      di = twoZr * di + twoZi * dr + dcIm;
+      dr = nextDr;
+      reference++;
+      iterations++;
+
+      double pixelRe = zr[reference] + dr;
+      double pixelIm = zi[reference] + di;
+      double pixelLength = pixelRe * pixelRe + pixelIm * pixelIm;
+      if (pixelLength >= MandelbrotKernel.ESCAPE_RADIUS_SQUARED) {
+        return iterations;
+      }
+      if (pixelLength < dr * dr + di * di || reference == last) {
+        dr = pixelRe;
+        di = pixelIm;
+        reference = 0;
+      }
+    }
+    return iterations;
+  }
+}
@@ -0,0 +1,94 @@
+package no.ntnu.idatg2003.model.game.engine;
+
+/**
+ * The memory that holds the pixel counts of a {@link ChaosCanvas}, addressed by a
+ * <code>long</code> index in row-major order.
+ *
+ * <p>By default a canvas keeps its pixels in a {@link HeapPixelStorage}, an <code>int</code>
+ * array on the Java heap. Canvases that are too large for one array, or that need 64-bit counts,
+ * can use an {@link OffHeapPixelStorage} instead, and canvases larger than the memory of the
+ * machine a {@link MappedPixelStorage}. A {@link SparsePixelStorage} only allocates the parts
+ * of the image that are drawn on.
+ *
+ * <p>Every count saturates at {@link #maxValue()} instead of overflowing. A storage is not
+ * thread-safe, and it must not be used after it has been closed.
+ *
+ * @author Sigurd Riseth, Theodor Sjetnan Utvik
+ * @version 0.0.1
+ * @see ChaosCanvas
+ * @since 18.10.2026
+ */
+public sealed interface PixelStorage extends AutoCloseable
+    permits HeapPixelStorage, MappedPixelStorage, OffHeapPixelStorage, SparsePixelStorage {
+
+  /**
+   * Returns the number of pixels in the storage.
+   *
+   * @return the number of pixels
+   */
+  long size();
+
+  /**
+   * Returns the largest count a pixel can hold.
+   *
+   * @return the largest count of a pixel
+   */
+  long maxValue();
+
+  /**
+   * Returns the count of a pixel.
+   *
+   * @param index the index of the pixel
+   * @return the count of the pixel
+   * @throws IndexOutOfBoundsException if the index is outside the storage
+   */
+  long get(long index);
+
+  /**
+   * Sets the count of a pixel. Values above {@link #maxValue()} are stored as the maximum value.
+   *
+   * @param index the index of the pixel
+   * @param value the new count of the pixel
+   * @throws IndexOutOfBoundsException if the index is outside the storage
+   */
+  void set(long index, long value);
+
+  /**
+   * Increases the count of a pixel by one, unless it has already reached the maximum value.
+   *
+   * @param index the index of the pixel
+   * @return <code>true</code> if the pixel was zero before the increment
+   * @throws IndexOutOfBoundsException if the index is outside the storage
+   */
+  boolean increment(long index);
+
+  /**
+   * Writes the increments the storage has deferred, if any. A storage that defers increments
+   * returns <code>false</code> from {@link #increment(long)}, and reports the pixels they covered
+   * here instead.
+   *
+   * @return the number of pixels that were zero before the deferred increments written since the
+   *         last call
+   */
+  default long flush() {
+    return 0;
+  }
+
+  /**
+   * Sets the count of every pixel to zero.
+   */
+  void clear();
+
+  /**
+   * Creates a new storage of the same kind and size, with every count set to zero.
+   *
+   * @return the new storage
+   */
+  PixelStorage createEmpty();
+
+  /**
+   * Releases the memory of the storage.
+   */
+  @Override
+  void close();
+}
@@ -0,0 +1,252 @@
+package no.ntnu.idatg2003.model.game.engine;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import no.ntnu.idatg2003.model.game.engine.ChaosGameResult.StopReason;
+import no.ntnu.idatg2003.model.math.datatypes.Matrix2x2;
+import no.ntnu.idatg2003.model.math.datatypes.Vector2D;
+import no.ntnu.idatg2003.model.transformations.AffineTransform2D;
+import no.ntnu.idatg2003.model.transformations.Transform2D;
+
+/**
+ * Renders the attractor of affine transformations deterministically, without random sampling.
+ *
+ * <p>The attractor lies inside a square around the origin that every map sends into itself. The
+ * renderer applies every sequence of maps to that square, recursively: a branch composes one more
+ * map onto the maps applied so far, which shrinks the image of the square. As soon as the image
+ * is smaller than one pixel of the canvas, the branch stops and hits the pixel of the image of a
+ * point on the attractor, the fixed point of the first map. The result covers the whole attractor
+ * up to one pixel, and takes a bounded amount of work that does not depend on a number of
+ * steps.
+ *
+ * <p>The first levels of the recursion are split into tasks that run on the common
+ * {@link ForkJoinPool}. Each thread that follows branches draws on a canvas of its own, and the
+ * canvases are merged when the render is done.
+ *
+ * <p>All the maps must be contractions, so that every branch ends.
+ *
+ * @author Sigurd Riseth, Theodor Sjetnan Utvik
+ * @version 0.0.1
+ * @see ChaosCanvas
+ * @see AffineTransform2D
+ * @see AttractorBounds
+ * @since 18.10.2026
+ */
+public class RecursiveIfsRenderer {
+
+  private static final int STRIDE = ChaosGameKernel.STRIDE;
+  private static final int FORK_DEPTH = 4;
+
+  private final ChaosGameDescription description;
+  private final ChaosCanvas canvas;
+  private final double[] coefficients;
+  private final int mapCount;
+  private final double radius;
+  private final double fixedX;
+  private final double fixedY;
+  private final double pixelWidth;
+  private final double pixelHeight;
+
+  /**
+   * Constructs a renderer for the affine transformations of the given description.
+   *
+   * @param description the description to render
+   * @param width       the width of the canvas
+   * @param height      the height of the canvas
+   * @throws NullPointerException     if the description is null
+   * @throws IllegalArgumentException if the description is empty, any transformation is not
+   *                                  affine or not a contraction, or the width or height is not
+   *                                  positive
+   */
+  public RecursiveIfsRenderer(ChaosGameDescription description, int width, int height) {
+    Objects.requireNonNull(description, "The description cannot be null");
+    List<Transform2D> transforms = description.getTransforms();
+    if (transforms.isEmpty()) {
+      throw new IllegalArgumentException("The list of transformations cannot be empty");
+    }
+    this.description = description;
+    this.canvas =
+        new ChaosCanvas(description.getMinCoords(), description.getMaxCoords(), width, height);
+    this.mapCount = transforms.size();
+    this.coefficients = new double[mapCount * STRIDE];
+
+    double maxRadius = 0;
+    for (int i = 0; i < mapCount; i++) {
+      if (!(transforms.get(i) instanceof AffineTransform2D affine)) {
+        throw new IllegalArgumentException("All the transformations must be affine");
+      }
+      Matrix2x2 matrix = affine.getMatrix();
+      Vector2D vector = affine.getVector();
+      double norm = AttractorBounds.operatorNorm(matrix);
+      if (norm >= 1) {
+        throw new IllegalArgumentException("All the transformations must be contractions");
+      }
+      ChaosGameKernel.flattenAffine(affine, coefficients, i * STRIDE);
+      // A ball of this radius around the origin is mapped into itself by this map
+      maxRadius = Math.max(maxRadius, Math.hypot(vector.getX0(), vector.getX1()) / (1 - norm));
+    }
+    this.radius = maxRadius;
+    // The fixed point of the first map lies on the attractor, and so do its images
+    double determinant = (1 - coefficients[0]) * (1 - coefficients[3])
+        - coefficients[1] * coefficients[2];
+    this.fixedX = ((1 - coefficients[3]) * coefficients[4] + coefficients[1] * coefficients[5])
+        / determinant;
+    this.fixedY = (coefficients[2] * coefficients[4] + (1 - coefficients[0]) * coefficients[5])
+        / determinant;
+    this.pixelWidth = (description.getMaxCoords().getX0() - description.getMinCoords().getX0())
+        / Math.max(1, width - 1);
+    this.pixelHeight = (description.getMaxCoords().getX1() - description.getMinCoords().getX1())
+        / Math.max(1, height - 1);
+  }
+
+  /**
+   * Returns the canvas the attractor is drawn on.
+   *
+   * @return the canvas
+   */
+  public ChaosCanvas getCanvas() {
+    return canvas;
+  }
+
+  /**
+   * Renders the attractor on a cleared canvas.
+   *
+   * @return the result of the render, where the steps are the number of branches that reached the
+   *         size of a pixel
+   */
+  public ChaosGameResult render() {
+    canvas.clear();
+    Map<Thread, Branches> workerBranches = new ConcurrentHashMap<>();
+    ForkJoinPool.commonPool().invoke(new RenderTask(workerBranches, 1, 0, 0, 1, 0, 0, 0));
+
+    long steps = 0;
+    long rejected = 0;
+    for (Branches worker : workerBranches.values()) {
+      canvas.merge(worker.canvas);
+      steps += worker.leaves;
+      rejected += worker.rejected;
+    }
+    return new ChaosGameResult(steps, rejected, StopReason.COMPLETED);
+  }
+
+  /**
+   * Follows a branch of the recursion on the current thread, until its image is smaller than a
+   * pixel. The maps applied so far are given as the matrix and vector of their composition.
+   *
+   * @param branches the canvas and counters of the current thread
+   * @param m00      the upper left element of the composed matrix
+   * @param m01      the upper right element of the composed matrix
+   * @param m10      the lower left element of the composed matrix
+   * @param m11      the lower right element of the composed matrix
+   * @param t0       the first element of the composed vector
+   * @param t1       the second element of the composed vector
+   */
+  private void renderBranch(Branches branches, double m00, double m01, double m10, double m11,
+      double t0, double t1) {
+    if (isSmallerThanPixel(m00, m01, m10, m11)) {
+      branches.leaves++;
+      if (!branches.canvas.putPixel(m00 * fixedX + m01 * fixedY + t0,
+          m10 * fixedX + m11 * fixedY + t1)) {
+        branches.rejected++;
+      }
+      return;
+    }
+    final double[] c = coefficients;
+    for (int i = 0; i < mapCount; i++) {
+      int offset = i * STRIDE;
+      renderBranch(branches,
+          m00 * c[offset] + m01 * c[offset + 2],
+          m00 * c[offset + 1] + m01 * c[offset + 3],
+          m10 * c[offset] + m11 * c[offset + 2],
+          m10 * c[offset + 1] + m11 * c[offset + 3],
+          m00 * c[offset + 4] + m01 * c[offset + 5] + t0,
+          m10 * c[offset + 4] + m11 * c[offset + 5] + t1);
+    }
+  }
+
+  /**
+   * Checks if the image of the square around the attractor under the given matrix fits inside one
+   * pixel.
+   *
+   * @param m00 the upper left element of the matrix
+   * @param m01 the upper right element of the matrix
+   * @param m10 the lower left element of the matrix
+   * @param m11 the lower right element of the matrix
+   * @return <code>true</code> if the image is smaller than a pixel in both directions
+   */
+  private boolean isSmallerThanPixel(double m00, double m01, double m10, double m11) {
+    return 2 * radius * (Math.abs(m00) + Math.abs(m01)) < pixelWidth
+        && 2 * radius * (Math.abs(m10) + Math.abs(m11)) < pixelHeight;
+  }
+
+  /**
+   * The canvas and counters of one worker thread.
+   */
+  private static final class Branches {
+
+    private final ChaosCanvas canvas;
+    private long leaves;
+    private long rejected;
+
+    private Branches(ChaosCanvas canvas) {
+      this.canvas = canvas;
+    }
+  }
+
+  /**
+   * A task that splits the first levels of the recursion into subtasks, and follows the rest of
+   * its branch on the thread that runs it.
+   */
+  private final class RenderTask extends RecursiveAction {
+
+    private final transient Map<Thread, Branches> workerBranches;
+    private final int depth;
+    private final double m00;
+    private final double m01;
+    private final double m10;
+    private final double m11;
+    private final double t0;
+    private final double t1;
+
+    private RenderTask(Map<Thread, Branches> workerBranches, double m00, double m01, double m10,
+        double m11, double t0, double t1, int depth) {
+      this.workerBranches = workerBranches;
+      this.m00 = m00;
+      this.m01 = m01;
+      this.m10 = m10;
+      this.m11 = m11;
+      this.t0 = t0;
+      this.t1 = t1;
+      this.depth = depth;
+    }
+
+    @Override
+    protected void compute() {
+      if (depth == FORK_DEPTH || isSmallerThanPixel(m00, m01, m10, m11)) {
+        Branches branches = workerBranches.computeIfAbsent(Thread.currentThread(),
+            thread -> new Branches(new ChaosCanvas(description.getMinCoords(),
+                description.getMaxCoords(), canvas.getWidth(), canvas.getHeight())));
+        renderBranch(branches, m00, m01, m10, m11, t0, t1);
+        return;
+      }
+      RenderTask[] subtasks = new RenderTask[mapCount];
+      final double[] c = coefficients;
+      for (int i = 0; i < mapCount; i++) {
+        int offset = i * STRIDE;
+        subtasks[i] = new RenderTask(workerBranches,
+            m00 * c[offset] + m01 * c[offset + 2],
+            m00 * c[offset + 1] + m01 * c[offset + 3],
+            m10 * c[offset] + m11 * c[offset + 2],
+            m10 * c[offset + 1] + m11 * c[offset + 3],
+            m00 * c[offset + 4] + m01 * c[offset + 5] + t0,
+            m10 * c[offset + 4] + m11 * c[offset + 5] + t1,
+            depth + 1);
+      }
+      invokeAll(subtasks);
+    }
+  }
+}
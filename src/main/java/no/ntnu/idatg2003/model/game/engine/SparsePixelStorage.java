@@ -0,0 +1,263 @@
+package no.ntnu.idatg2003.model.game.engine;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A {@link PixelStorage} that only allocates the parts of the image that are drawn on. The image
+ * is split into square tiles of 2<sup>tileShift</sup> × 2<sup>tileShift</sup> pixels, 64 × 64 by
+ * default, and a tile is allocated the first time a pixel in it is set. Untouched tiles cost one
+ * entry in the tile table, so the memory grows with the area the attractor covers instead of with
+ * the resolution. This suits thin attractors, such as the Sierpinski triangle or dragon curves,
+ * drawn at very high resolutions.
+ *
+ * <p>The counts saturate at {@link Integer#MAX_VALUE}. Clearing the storage frees every tile.
+ *
+ * @author Sigurd Riseth, Theodor Sjetnan Utvik
+ * @version 0.0.1
+ * @see PixelStorage
+ * @see ChaosCanvas
+ * @since 18.10.2026
+ */
+public final class SparsePixelStorage implements PixelStorage {
+
+  /**
+   * The base two logarithm of the width of a tile, if none is given, which makes each tile
+   * 64 × 64 pixels, or 16 KiB.
+   */
+  public static final int DEFAULT_TILE_SHIFT = 6;
+
+  // A tile must fit in one array
+  private static final int MAX_TILE_SHIFT = 14;
+
+  private final int width;
+  private final int height;
+  private final int tileShift;
+  private final int tileMask;
+  private final int tilesPerRow;
+  private final int[][] tiles;
+  private int allocatedTiles;
+
+  /**
+   * Creates a storage for an image of the given dimensions, with tiles of the default size and no
+   * tile allocated.
+   *
+   * @param width  the width of the image
+   * @param height the height of the image
+   * @throws IllegalArgumentException if the width or height is less than or equal to 0, or the
+   *                                  image has too many tiles for one tile table
+   */
+  public SparsePixelStorage(int width, int height) {
+    this(width, height, DEFAULT_TILE_SHIFT);
+  }
+
+  /**
+   * Creates a storage for an image of the given dimensions, with tiles of the given size and no
+   * tile allocated.
+   *
+   * @param width     the width of the image
+   * @param height    the height of the image
+   * @param tileShift the base two logarithm of the width of a tile
+   * @throws IllegalArgumentException if the width or height is less than or equal to 0, the tile
+   *                                  shift is negative or larger than 14, or the image has too
+   *                                  many tiles for one tile table
+   */
+  public SparsePixelStorage(int width, int height, int tileShift) {
+    if (width <= 0 || height <= 0) {
+      throw new IllegalArgumentException("The width and height must be positive");
+    }
+    if (tileShift < 0 || tileShift > MAX_TILE_SHIFT) {
+      throw new IllegalArgumentException("The tile shift must be between 0 and "
+          + MAX_TILE_SHIFT);
+    }
+    this.width = width;
+    this.height = height;
+    this.tileShift = tileShift;
+    this.tileMask = (1 << tileShift) - 1;
+    this.tilesPerRow = (int) Math.ceilDiv(width, 1L << tileShift);
+    long tileCount = Math.ceilDiv(height, 1L << tileShift) * tilesPerRow;
+    if (tileCount > Integer.MAX_VALUE - 8) {
+      throw new IllegalArgumentException("The image has too many tiles, use larger tiles");
+    }
+    this.tiles = new int[(int) tileCount][];
+  }
+
+  /**
+   * Returns the number of the tile holding the pixel in the given row and column.
+   *
+   * @param row    the row of the pixel
+   * @param column the column of the pixel
+   * @return the number of the tile
+   */
+  private int tile(int row, int column) {
+    return (row >>> tileShift) * tilesPerRow + (column >>> tileShift);
+  }
+
+  /**
+   * Returns the position of a pixel in its tile.
+   *
+   * @param row    the row of the pixel
+   * @param column the column of the pixel
+   * @return the position of the pixel in its tile
+   */
+  private int offset(int row, int column) {
+    return ((row & tileMask) << tileShift) | (column & tileMask);
+  }
+
+  /**
+   * Returns the row of the pixel with the given index.
+   *
+   * @param index the index of the pixel
+   * @return the row of the pixel
+   * @throws IndexOutOfBoundsException if the index is outside the storage
+   */
+  private int row(long index) {
+    return (int) (Objects.checkIndex(index, size()) / width);
+  }
+
+  /**
+   * Returns the tile with the given number, allocating it if it has not been used yet.
+   *
+   * @param tile the number of the tile
+   * @return the tile
+   */
+  private int[] allocate(int tile) {
+    int[] pixels = tiles[tile];
+    if (pixels == null) {
+      pixels = new int[1 << (2 * tileShift)];
+      tiles[tile] = pixels;
+      allocatedTiles++;
+    }
+    return pixels;
+  }
+
+  /**
+   * Returns the number of tiles that have been allocated.
+   *
+   * @return the number of allocated tiles
+   */
+  public int getAllocatedTiles() {
+    return allocatedTiles;
+  }
+
+  /**
+   * Returns the number of bytes held by the allocated tiles, not counting the tile table.
+   *
+   * @return the number of bytes in the allocated tiles
+   */
+  public long getAllocatedBytes() {
+    return (long) allocatedTiles * Integer.BYTES << (2 * tileShift);
+  }
+
+  @Override
+  public long size() {
+    return (long) width * height;
+  }
+
+  @Override
+  public long maxValue() {
+    return Integer.MAX_VALUE;
+  }
+
+  @Override
+  public long get(long index) {
+    int row = row(index);
+    int column = (int) (index - (long) row * width);
+    int[] pixels = tiles[tile(row, column)];
+    return pixels == null ? 0 : pixels[offset(row, column)];
+  }
+
+  /**
+   * Sets the count of a pixel. Setting a pixel in a tile that has not been allocated to zero does
+   * not allocate the tile.
+   *
+   * @param index the index of the pixel
+   * @param value the new count of the pixel
+   * @throws IndexOutOfBoundsException if the index is outside the storage
+   */
+  @Override
+  public void set(long index, long value) {
+    int row = row(index);
+    int column = (int) (index - (long) row * width);
+    int tile = tile(row, column);
+    if (value == 0 && tiles[tile] == null) {
+      return;
+    }
+    allocate(tile)[offset(row, column)] = (int) Math.clamp(value, Integer.MIN_VALUE,
+        Integer.MAX_VALUE);
+  }
+
+  @Override
+  public boolean increment(long index) {
+    int row = row(index);
+    int column = (int) (index - (long) row * width);
+    int[] pixels = allocate(tile(row, column));
+    int offset = offset(row, column);
+    int value = pixels[offset];
+    if (value != Integer.MAX_VALUE) {
+      pixels[offset] = value + 1;
+    }
+    return value == 0;
+  }
+
+  /**
+   * Checks whether another storage has the same dimensions and tile size as this storage.
+   *
+   * @param other the storage to compare with
+   * @return <code>true</code> if the storages have the same layout
+   */
+  boolean hasSameLayout(SparsePixelStorage other) {
+    return other.width == width && other.height == height && other.tileShift == tileShift;
+  }
+
+  /**
+   * Adds the counts of another storage with the same layout to this storage, only visiting the
+   * tiles the other storage has allocated. The sums saturate at {@link Integer#MAX_VALUE}.
+   *
+   * @param other the storage to add to this storage
+   * @return the number of pixels that were zero in this storage and not in the other
+   * @throws IllegalArgumentException if the storages have different dimensions or tile sizes
+   */
+  public long add(SparsePixelStorage other) {
+    if (!hasSameLayout(other)) {
+      throw new IllegalArgumentException("The storages must have the same layout");
+    }
+    long covered = 0;
+    for (int tile = 0; tile < tiles.length; tile++) {
+      int[] source = other.tiles[tile];
+      if (source == null) {
+        continue;
+      }
+      int[] target = allocate(tile);
+      for (int i = 0; i < target.length; i++) {
+        if (target[i] == 0 && source[i] != 0) {
+          covered++;
+        }
+        target[i] = (int) Math.min((long) target[i] + source[i], Integer.MAX_VALUE);
+      }
+    }
+    return covered;
+  }
+
+  /**
+   * Frees every tile, which sets the count of every pixel to zero.
+   */
+  @Override
+  public void clear() {
+    Arrays.fill(tiles, null);
+    allocatedTiles = 0;
+  }
+
+  @Override
+  public PixelStorage createEmpty() {
+    return new SparsePixelStorage(width, height, tileShift);
+  }
+
+  /**
+   * Does nothing, since the tiles are freed by the garbage collector.
+   */
+  @Override
+  public void close() {
+    // The tiles are freed by the garbage collector
+  }
+}
@@ -0,0 +1,86 @@
+package no.ntnu.idatg2003.model.game.engine;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.random.RandomGenerator;
+import no.ntnu.idatg2003.model.transformations.AffineTransform2D;
+import no.ntnu.idatg2003.model.transformations.JuliaTransform;
+import no.ntnu.idatg2003.model.transformations.Transform2D;
+
+/**
+ * A Chaos Game description compiled into a specialized loop that chooses, applies and draws
+ * transformations.
+ *
+ * <p>Calling {@link Transform2D#transform} through a list of transformations is a megamorphic
+ * interface call as soon as more than one kind of transformation has been loaded, so the JIT
+ * compiler cannot inline it. A program instead runs a whole batch of steps in one call. Inside
+ * that call, the choice of transformation, the arithmetic of the transformation and the deposit on
+ * the canvas are all fused in one loop over primitive values, written for one kind of
+ * description. The interface call only happens once per batch.
+ *
+ * <p>Descriptions of affine transformations only are compiled to {@link AffineProgram}, and Julia
+ * sets with a positive and a negative root of equal probability to {@link JuliaProgram}. All other
+ * descriptions are run by {@link InterpretedProgram}, which dispatches on the kind of each
+ * transformation through a {@link ChaosGameKernel}.
+ *
+ * <p>A program holds no mutable state, so it can be shared between threads. The current point is
+ * passed in and out through a two-element array.
+ *
+ * @author Sigurd Riseth, Theodor Sjetnan Utvik
+ * @version 0.0.1
+ * @see ChaosGame
+ * @see ChaosGameKernel
+ * @since 18.10.2026
+ */
+public sealed interface TransformProgram permits AffineProgram, JuliaProgram,
+    InterpretedProgram {
+
+  /**
+   * Compiles the given description into the most specialized program that can run it.
+   *
+   * @param description the description to compile
+   * @return the compiled program
+   * @throws NullPointerException     if the description is null
+   * @throws IllegalArgumentException if the description has no transformations
+   */
+  static TransformProgram compile(ChaosGameDescription description) {
+    Objects.requireNonNull(description, "The description cannot be null");
+    List<Transform2D> transforms = description.getTransforms();
+    if (transforms.isEmpty()) {
+      throw new IllegalArgumentException("The list of transformations cannot be empty");
+    }
+    if (JuliaProgram.canRun(transforms, description.getWeights())) {
+      JuliaTransform julia = (JuliaTransform) transforms.getFirst();
+      return new JuliaProgram(julia.getComplexConstant().getX0(),
+          julia.getComplexConstant().getX1());
+    }
+    AliasTable selector = new AliasTable(
+        description.getWeights().stream().mapToDouble(Double::doubleValue).toArray());
+    if (transforms.stream().allMatch(AffineTransform2D.class::isInstance)) {
+      return new AffineProgram(transforms, selector);
+    }
+    return new InterpretedProgram(new ChaosGameKernel(transforms), selector);
+  }
+
+  /**
+   * Runs the given number of steps from the given point, drawing each new point on the canvas.
+   * Points that fall outside the canvas are not drawn, but are counted.
+   *
+   * @param point  the current point as <code>{x, y}</code>, updated to the last point of the run
+   * @param steps  the number of steps to run
+   * @param random the random number generator that chooses the transformations
+   * @param canvas the canvas to draw on
+   * @return the number of points that fell outside the canvas
+   */
+  long run(double[] point, long steps, RandomGenerator random, ChaosCanvas canvas);
+
+  /**
+   * Runs the given number of steps from the given point without drawing them, to move the point
+   * onto the attractor before a run.
+   *
+   * @param point  the current point as <code>{x, y}</code>, updated to the last point of the run
+   * @param steps  the number of steps to run
+   * @param random the random number generator that chooses the transformations
+   */
+  void skip(double[] point, long steps, RandomGenerator random);
+}
@@ -26,7 +26,9 @@ public class Complex extends Vector2D {
   }
 
   /**
-   * Computes the square root of the complex number.
+   * Computes the principal square root of the complex number. The imaginary part of the root
+   * takes its sign from the imaginary part of this number, so a number on the negative real axis
+   * has a root on the imaginary axis.
    *
    * @return The square root of the complex number.
    */
@@ -34,9 +36,8 @@ public class Complex extends Vector2D {
     double magnitude =
         Math.sqrt(Math.pow(getX0(), 2) + Math.pow(getX1(), 2)); // Length of the vector
     double realPart = Math.sqrt((magnitude + getX0()) / 2); // Real part of result of square root
-    double imaginaryPart =
-        Math.signum(getX1())
-            * Math.sqrt((magnitude - getX0()) / 2); // Imaginary part of result of square root
+    double imaginaryPart = Math.copySign(
+        Math.sqrt((magnitude - getX0()) / 2), getX1()); // Imaginary part of result of square root
 
     return new Complex(realPart, imaginaryPart);
   }
@@ -65,6 +65,15 @@ public class JuliaTransform implements Transform2D {
     return complexConstant;
   }
 
+  /**
+   * Method to get the sign of the transformation.
+   *
+   * @return the sign of the transformation, either 1, -1 or 0
+   */
+  public int getSign() {
+    return sign;
+  }
+
   /**
    * Method to get the transformation as a string.
    *
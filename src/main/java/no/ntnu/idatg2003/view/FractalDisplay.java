@@ -12,6 +12,7 @@ import javafx.scene.control.ProgressBar;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextField;
+import javafx.scene.image.PixelFormat;
 import javafx.scene.image.PixelWriter;
 import javafx.scene.image.WritableImage;
 import javafx.scene.layout.BorderPane;
@@ -23,6 +24,8 @@ import javafx.scene.paint.Color;
 import javafx.scene.text.Text;
 import no.ntnu.idatg2003.controller.FractalDisplayController;
 import no.ntnu.idatg2003.model.game.engine.ChaosGameProgressObserver;
+import no.ntnu.idatg2003.model.game.engine.ChaosGameResult;
+import no.ntnu.idatg2003.model.game.engine.ChaosGameResult.StopReason;
 import no.ntnu.idatg2003.model.transformations.JuliaTransform;
 import no.ntnu.idatg2003.model.transformations.Transform2D;
 import no.ntnu.idatg2003.utility.enums.TransformType;
@@ -74,9 +77,9 @@ public class FractalDisplay implements ChaosGameProgressObserver {
   private static TextField buildIterationsField() {
     TextField iterationsField = new TextField();
     iterationsField.setMaxSize(100, 10);
-    // limit iterations filed to values from 0 to 100,000,000
+    // limit iterations filed to values from 0 to 100,000,000,000
     iterationsField.textProperty().addListener((observable, oldValue, newValue) -> {
-      if (!newValue.matches("\\d{0,8}")) {
+      if (!newValue.matches("\\d{0,11}")) {
         iterationsField.setText(oldValue);
       }
     });
@@ -144,9 +147,11 @@ public class FractalDisplay implements ChaosGameProgressObserver {
     progressBar.setProgress(0);
 
     Button runButton = buildRunButton(iterationsField, check);
+    Button continueButton = buildContinueButton(iterationsField, check);
+    HBox runButtons = new HBox(10, runButton, continueButton);
 
     content.getChildren().addAll(backButton, iterationsText, iterationsField,
-        progressBox, runButton, infoLabel, juliaDetailsBox, transformTable);
+        progressBox, runButtons, infoLabel, juliaDetailsBox, transformTable);
     content.setPadding(new Insets(10));
 
     return content;
@@ -163,13 +168,46 @@ public class FractalDisplay implements ChaosGameProgressObserver {
     Button runButton = new Button("Run");
     runButton.setOnAction(e -> {
       progressBar.setProgress(0);
-      int iterationsValue = Integer.parseInt(iterationsField.getText());
-      controller.runGame(iterationsValue);
-      check.setVisible(true);
+      long iterationsValue = Long.parseLong(iterationsField.getText());
+      check.setVisible(false);
+      controller.runGame(iterationsValue)
+          .thenAccept(result -> showCheckIfCompleted(result, check));
     });
     return runButton;
   }
 
+  /**
+   * Builds the continue button for the view, which adds more iterations to the current image.
+   *
+   * @param iterationsField The field for the iterations.
+   * @param check           The checkmark label.
+   * @return Button The continue button.
+   */
+  private Button buildContinueButton(TextField iterationsField, Label check) {
+    Button continueButton = new Button("Continue");
+    continueButton.setOnAction(e -> {
+      progressBar.setProgress(0);
+      long iterationsValue = Long.parseLong(iterationsField.getText());
+      check.setVisible(false);
+      controller.continueGame(iterationsValue)
+          .thenAccept(result -> showCheckIfCompleted(result, check));
+    });
+    return continueButton;
+  }
+
+  /**
+   * Shows the checkmark when a run has run all its iterations. A run that was cancelled by a newer
+   * run leaves the checkmark of the newer run alone.
+   *
+   * @param result The result of the run.
+   * @param check  The checkmark label.
+   */
+  private static void showCheckIfCompleted(ChaosGameResult result, Label check) {
+    if (result.stopReason() == StopReason.COMPLETED) {
+      Platform.runLater(() -> check.setVisible(true));
+    }
+  }
+
   /**
    * Resets the game by clearing the canvas and hiding the transformation table and Julia values.
    */
@@ -290,29 +328,40 @@ public class FractalDisplay implements ChaosGameProgressObserver {
   }
 
   /**
-   * Draws the given ChaosCanvas on the canvas.
+   * Draws the given pixels on the canvas. The colours are computed into one array of ARGB values,
+   * which is written to the image in a single call.
    *
-   * @param canvasArray The ChaosCanvas to draw.
+   * @param pixels the hit counts of the pixels in row-major order
+   * @param width  the width of the image
+   * @param height the height of the image
    */
-  private void drawCanvas(int[][] canvasArray) {
-    int width = canvasArray[0].length;
-    int height = canvasArray.length;
+  private void drawCanvas(int[] pixels, int width, int height) {
+    int[] argb = new int[pixels.length];
+    for (int i = 0; i < pixels.length; i++) {
+      argb[i] = toArgb(controller.calculateColor(pixels[i]));
+    }
 
     WritableImage image = new WritableImage(width, height);
     PixelWriter pixelWriter = image.getPixelWriter();
-
-    for (int x = 0; x < width; x++) {
-      for (int y = 0; y < height; y++) {
-        Color color = controller.calculateColor(canvasArray[y][x]);
-        pixelWriter.setColor(x, y, color);
-      }
-    }
+    pixelWriter.setPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), argb, 0, width);
 
     GraphicsContext gc = canvas.getGraphicsContext2D();
     gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight()); // Clear existing content
     gc.drawImage(image, 0, 0);
   }
 
+  /**
+   * Converts a colour to a packed ARGB value.
+   *
+   * @param color the colour to convert
+   * @return the colour as <code>0xAARRGGBB</code>
+   */
+  private static int toArgb(Color color) {
+    return (int) Math.round(color.getOpacity() * 255) << 24
+        | (int) Math.round(color.getRed() * 255) << 16
+        | (int) Math.round(color.getGreen() * 255) << 8
+        | (int) Math.round(color.getBlue() * 255);
+  }
 
   /**
    * Updates the view.
@@ -325,10 +374,13 @@ public class FractalDisplay implements ChaosGameProgressObserver {
   /**
    * Method to update the draw process of canvas array
    *
-   * @param canvasArray the canvas array
+   * @param pixels the hit counts of the pixels in row-major order, which must not change after
+   *               the call
+   * @param width  the width of the image
+   * @param height the height of the image
    */
-  public void updateCanvas(int[][] canvasArray) {
-    Platform.runLater(() -> drawCanvas(canvasArray));
+  public void updateCanvas(int[] pixels, int width, int height) {
+    Platform.runLater(() -> drawCanvas(pixels, width, height));
   }
 
   /**
@@ -338,7 +390,7 @@ public class FractalDisplay implements ChaosGameProgressObserver {
    */
   @Override
   public void updateProgress(int progress) {
-    progressBar.setProgress(progress / 100.0);
+    Platform.runLater(() -> progressBar.setProgress(progress / 100.0));
   }
 
 }
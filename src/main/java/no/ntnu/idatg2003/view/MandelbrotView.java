@@ -1,6 +1,7 @@
 package no.ntnu.idatg2003.view;
 
 import java.util.Optional;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.scene.Scene;
 import javafx.scene.canvas.Canvas;
@@ -9,8 +10,10 @@ import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
 import javafx.scene.control.Button;
 import javafx.scene.control.ButtonType;
+import javafx.scene.image.PixelFormat;
 import javafx.scene.image.PixelWriter;
 import javafx.scene.image.WritableImage;
+import javafx.scene.input.MouseEvent;
 import javafx.scene.input.ScrollEvent;
 import javafx.scene.layout.Background;
 import javafx.scene.layout.BackgroundFill;
@@ -25,14 +28,15 @@ import javafx.scene.text.Text;
 import no.ntnu.idatg2003.controller.MandelbrotController;
 import no.ntnu.idatg2003.model.game.engine.ChaosCanvas;
 import no.ntnu.idatg2003.model.game.engine.ChaosGameObserver;
+import no.ntnu.idatg2003.model.game.engine.MandelbrotViewport;
 
 public class MandelbrotView implements ChaosGameObserver {
 
-  private static final double MIN_SCALE = 1.0;
-  private static final double MAX_SCALE = 5.0;
+  private static final double ZOOM_FACTOR = 1.25;
   private final MandelbrotController mandelbrotController;
   private Canvas canvas;
-  private double scale = 1.0;
+  private double dragX;
+  private double dragY;
 
   public MandelbrotView(MandelbrotController mandelbrotController) {
     this.mandelbrotController = mandelbrotController;
@@ -51,13 +55,22 @@ public class MandelbrotView implements ChaosGameObserver {
     canvas = new Canvas(1000, 1000);
     StackPane canvasContainer = new StackPane(canvas);
 
-    // Add zoom functionality
-    canvasContainer.setOnScroll(this::handleZoom);
+    // Add zoom and pan functionality, which draw the set again at the new view
+    canvas.setOnScroll(this::handleZoom);
+    canvas.setOnMousePressed(e -> {
+      dragX = e.getX();
+      dragY = e.getY();
+    });
+    canvas.setOnMouseDragged(this::handlePan);
 
     // Set the mouse click event for the canvas
     canvas.setOnMouseClicked(e -> {
-      double re = (e.getX() - 500) / 250;
-      double im = -1 * ((e.getY() - 500) / 250);
+      if (!e.isStillSincePress()) {
+        return;
+      }
+      MandelbrotViewport viewport = mandelbrotController.getViewport();
+      double re = viewport.re(e.getX());
+      double im = viewport.im(e.getY());
 
       Alert alert = createJuliaAlert(re, im);
 
@@ -122,44 +135,28 @@ public class MandelbrotView implements ChaosGameObserver {
       return;
     }
 
-    double scaleFactor = (event.getDeltaY() > 0) ? 1.1 : 0.9;
-    double newScale = scale * scaleFactor;
-
-    if (newScale < MIN_SCALE || newScale > MAX_SCALE) {
-      return;
-    }
-
-    scale = newScale;
-    double f = (scaleFactor - 1);
-
-    double dx = event.getX() - (canvas.getWidth() / 2);
-    double dy = event.getY() - (canvas.getHeight() / 2);
-
-    canvas.setScaleX(scale);
-    canvas.setScaleY(scale);
-    canvas.setTranslateX(canvas.getTranslateX() - f * dx);
-    canvas.setTranslateY(canvas.getTranslateY() - f * dy);
+    double factor = (event.getDeltaY() > 0) ? ZOOM_FACTOR : 1 / ZOOM_FACTOR;
+    mandelbrotController.zoom(factor, event.getX(), event.getY());
   }
 
-  public void drawMandelbrot(ChaosCanvas chaosCanvas) {
-    int[][] canvasArray = chaosCanvas.getCanvasArray();
-    int width = canvasArray[0].length;
-    int height = canvasArray.length;
+  private void handlePan(MouseEvent event) {
+    mandelbrotController.pan(event.getX() - dragX, event.getY() - dragY);
+    dragX = event.getX();
+    dragY = event.getY();
+  }
 
+  public void drawMandelbrot(int[] pixels, int width, int height) {
     // Create a writable image with the same dimensions as the canvas
     WritableImage writableImage = new WritableImage(width, height);
     PixelWriter pixelWriter = writableImage.getPixelWriter();
 
-    // Iterate over the canvas array and write pixel data to the writable image
-    for (int y = 0; y < height; y++) {
-      for (int x = 0; x < width; x++) {
-        int value = canvasArray[y][x];
-        // Set pixel color based on the value
-        Color color = Color.rgb(value, value, value);
-        // Write pixel data to the writable image
-        pixelWriter.setColor(x, y, color);
-      }
+    // Map the grey values to ARGB and write all the pixels in one call
+    int[] argb = new int[pixels.length];
+    for (int i = 0; i < pixels.length; i++) {
+      int value = pixels[i];
+      argb[i] = 0xFF000000 | value << 16 | value << 8 | value;
     }
+    pixelWriter.setPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), argb, 0, width);
 
     // Draw the writable image onto the canvas
     GraphicsContext gc = this.canvas.getGraphicsContext2D();
@@ -168,6 +165,11 @@ public class MandelbrotView implements ChaosGameObserver {
 
   @Override
   public void update() {
-    drawMandelbrot(mandelbrotController.getCanvas());
+    // The set is rendered in the background, so the image is drawn on the JavaFX thread
+    ChaosCanvas chaosCanvas = mandelbrotController.getCanvas();
+    int[] pixels = chaosCanvas.copyPixels();
+    int width = chaosCanvas.getWidth();
+    int height = chaosCanvas.getHeight();
+    Platform.runLater(() -> drawMandelbrot(pixels, width, height));
   }
 }
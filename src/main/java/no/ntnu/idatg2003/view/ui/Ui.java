@@ -28,15 +28,17 @@ import no.ntnu.idatg2003.model.transformations.Transform2D;
 public class Ui {
 
   /**
-   * Method to print the canvas to the console. The canvas is represented as a 2D array of integers.
-   * If the value is 1, the point will be drawn. If the value is 0, the point will not be drawn.
+   * Method to print the canvas to the console. The canvas is represented as an array of integers
+   * in row-major order. If the value is 1, the point will be drawn. If the value is 0, the point
+   * will not be drawn.
    *
    * @param canvas the canvas to be printed
+   * @param width  the width of the canvas
    */
-  public static void print(int[][] canvas) {
-    for (int i = 0; i < canvas.length; i++) {
-      for (int j = 0; j < canvas[i].length; j++) {
-        if (canvas[i][j] == 1) {
+  public static void print(int[] canvas, int width) {
+    for (int i = 0; i < canvas.length / width; i++) {
+      for (int j = 0; j < width; j++) {
+        if (canvas[i * width + j] == 1) {
           System.out.print("X");
         } else {
           System.out.print(" ");
@@ -249,7 +251,7 @@ public class Ui {
 
     try {
       game.runSteps(steps);
-      print(game.getCanvas().getCanvasArray());
+      print(game.getCanvas().copyPixels(), game.getCanvas().getWidth());
     } catch (Exception e) {
       System.out.println("ERROR: Point outside canvas.");
     }
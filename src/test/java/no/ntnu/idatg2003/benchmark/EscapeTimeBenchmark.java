@@ -0,0 +1,116 @@
+package no.ntnu.idatg2003.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import no.ntnu.idatg2003.model.game.engine.EscapeTimeKernel;
+import no.ntnu.idatg2003.model.game.engine.MandelbrotKernel;
+import no.ntnu.idatg2003.model.math.datatypes.Complex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmark comparing two escape-time kernels for the Mandelbrot set over a 200 × 200 grid of
+ * [-2, 2]<sup>2</sup>: the iteration on {@link Complex} objects that the Mandelbrot set used to be
+ * drawn with, and the primitive {@link MandelbrotKernel}. At high limits most of the time goes to
+ * points in the set, which the kernel recognises early.
+ *
+ * @author Sigurd Riseth, Theodor Sjetnan Utvik
+ * @version 0.0.1
+ * @see MandelbrotKernel
+ * @since 18.10.2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EscapeTimeBenchmark {
+
+  private static final int SIZE = 200;
+
+  @Param({"40", "1000", "10000"})
+  private int maxIterations;
+
+  private EscapeTimeKernel kernel;
+
+  /**
+   * Creates the primitive kernel.
+   */
+  @Setup
+  public void setUp() {
+    kernel = new MandelbrotKernel();
+  }
+
+  /**
+   * Converts a grid index to a coordinate in [-2, 2].
+   *
+   * @param index the grid index
+   * @return the coordinate
+   */
+  private static double coordinate(int index) {
+    return -2 + 4.0 * index / (SIZE - 1);
+  }
+
+  /**
+   * Measures the grid through the iteration on Complex objects.
+   *
+   * @return the sum of the iterations, so the run is not removed
+   */
+  @Benchmark
+  public long complex() {
+    long sum = 0;
+    for (int y = 0; y < SIZE; y++) {
+      for (int x = 0; x < SIZE; x++) {
+        Complex c = new Complex(coordinate(x), coordinate(y));
+        Complex z = new Complex(0, 0);
+        int iterations = 0;
+        while (z.getLength() < 2 && iterations < maxIterations) {
+          z = z.multiply(z).add(c);
+          iterations++;
+        }
+        sum += iterations;
+      }
+    }
+    return sum;
+  }
+
+  /**
+   * Measures the grid through the primitive kernel.
+   *
+   * @return the sum of the iterations, so the run is not removed
+   */
+  @Benchmark
+  public long primitive() {
+    long sum = 0;
+    for (int y = 0; y < SIZE; y++) {
+      for (int x = 0; x < SIZE; x++) {
+        sum += kernel.escapeTime(coordinate(x), coordinate(y), maxIterations);
+      }
+    }
+    return sum;
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args not used
+   * @throws RunnerException if the benchmark fails to run
+   */
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(EscapeTimeBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+}
@@ -0,0 +1,124 @@
+package no.ntnu.idatg2003.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+import no.ntnu.idatg2003.model.game.engine.ChaosCanvas;
+import no.ntnu.idatg2003.model.game.engine.ChaosGame;
+import no.ntnu.idatg2003.model.game.engine.ChaosGameDescription;
+import no.ntnu.idatg2003.model.game.engine.ChaosGameDescriptionFactory;
+import no.ntnu.idatg2003.model.game.engine.ChaosGameKernel;
+import no.ntnu.idatg2003.model.game.engine.TransformProgram;
+import no.ntnu.idatg2003.model.math.datatypes.Vector2D;
+import no.ntnu.idatg2003.model.transformations.Transform2D;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmark comparing three ways of running inverse iteration of a Julia set: the
+ * <code>JuliaTransform</code> objects, the generic {@link ChaosGameKernel} and the compiled
+ * Julia {@link TransformProgram}.
+ *
+ * @author Sigurd Riseth, Theodor Sjetnan Utvik
+ * @version 0.0.1
+ * @see TransformProgram
+ * @since 18.10.2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JuliaProgramBenchmark {
+
+  private static final int STEPS = 100_000;
+
+  private Transform2D[] transforms;
+  private ChaosGameKernel kernel;
+  private TransformProgram program;
+  private RandomGenerator random;
+  private ChaosCanvas canvas;
+  private final double[] point = new double[2];
+
+  /**
+   * Creates the Julia set and the three ways of running it.
+   */
+  @Setup
+  public void setUp() {
+    ChaosGameDescription description = ChaosGameDescriptionFactory.createJuliaSet();
+    transforms = description.getTransforms().toArray(new Transform2D[0]);
+    kernel = new ChaosGameKernel(description);
+    program = TransformProgram.compile(description);
+    random = RandomGeneratorFactory.of(ChaosGame.DEFAULT_ALGORITHM).create(42);
+    canvas = new ChaosCanvas(description.getMinCoords(), description.getMaxCoords(), 800, 800);
+  }
+
+  /**
+   * Measures a batch of steps through the JuliaTransform objects.
+   *
+   * @return the number of rejected points, so the run is not removed
+   */
+  @Benchmark
+  public long juliaTransform() {
+    Vector2D current = new Vector2D(0, 0);
+    long rejected = 0;
+    for (int i = 0; i < STEPS; i++) {
+      current = transforms[random.nextInt(transforms.length)].transform(current);
+      if (!canvas.putPixel(current.getX0(), current.getX1())) {
+        rejected++;
+      }
+    }
+    return rejected;
+  }
+
+  /**
+   * Measures a batch of steps through the generic kernel.
+   *
+   * @return the number of rejected points, so the run is not removed
+   */
+  @Benchmark
+  public long kernel() {
+    long rejected = 0;
+    for (int i = 0; i < STEPS; i++) {
+      kernel.step(random.nextInt(transforms.length));
+      if (!canvas.putPixel(kernel.getX(), kernel.getY())) {
+        rejected++;
+      }
+    }
+    return rejected;
+  }
+
+  /**
+   * Measures a batch of steps through the compiled Julia program.
+   *
+   * @return the number of rejected points, so the run is not removed
+   */
+  @Benchmark
+  public long program() {
+    return program.run(point, STEPS, random, canvas);
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args not used
+   * @throws RunnerException if the benchmark fails to run
+   */
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(JuliaProgramBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+}
@@ -0,0 +1,93 @@
+package no.ntnu.idatg2003.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+import no.ntnu.idatg2003.model.game.engine.ChaosGame;
+import no.ntnu.idatg2003.model.game.engine.ChaosGameDescriptionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmark comparing the random number generators that can drive the chaos game.
+ *
+ * <p>It measures both the raw cost of a <code>nextDouble()</code> call and the cost of running the
+ * Barnsley fern with each generator.
+ *
+ * @author Sigurd Riseth, Theodor Sjetnan Utvik
+ * @version 0.0.1
+ * @see ChaosGame
+ * @since 18.10.2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RandomGeneratorBenchmark {
+
+  private static final int STEPS = 100_000;
+
+  @Param({"Random", "SplittableRandom", "L64X128MixRandom", "Xoshiro256PlusPlus"})
+  private String algorithm;
+
+  private RandomGenerator random;
+  private ChaosGame game;
+
+  /**
+   * Creates the generator and the game for the current algorithm.
+   */
+  @Setup
+  public void setUp() {
+    random = RandomGeneratorFactory.of(algorithm).create(42);
+    game = new ChaosGame(ChaosGameDescriptionFactory.createBarnsleyFern(), 800, 800,
+        RandomGeneratorFactory.of(algorithm).create(42));
+  }
+
+  /**
+   * Measures a single random double.
+   *
+   * @return the random double, so the call is not removed
+   */
+  @Benchmark
+  public double nextDouble() {
+    return random.nextDouble();
+  }
+
+  /**
+   * Measures a run of the Barnsley fern.
+   *
+   * @return the canvas, so the run is not removed
+   */
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public Object runSteps() {
+    game.runSteps(STEPS);
+    return game.getCanvas();
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args not used
+   * @throws RunnerException if the benchmark fails to run
+   */
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(RandomGeneratorBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+}
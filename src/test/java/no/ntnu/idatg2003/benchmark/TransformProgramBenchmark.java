@@ -0,0 +1,152 @@
+package no.ntnu.idatg2003.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+import no.ntnu.idatg2003.model.game.engine.AliasTable;
+import no.ntnu.idatg2003.model.game.engine.ChaosCanvas;
+import no.ntnu.idatg2003.model.game.engine.ChaosGame;
+import no.ntnu.idatg2003.model.game.engine.ChaosGameDescription;
+import no.ntnu.idatg2003.model.game.engine.ChaosGameDescriptionFactory;
+import no.ntnu.idatg2003.model.game.engine.TransformProgram;
+import no.ntnu.idatg2003.model.math.datatypes.Vector2D;
+import no.ntnu.idatg2003.model.transformations.Transform2D;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmark comparing a compiled {@link TransformProgram} with the interpreted path, where every
+ * step calls {@link Transform2D#transform(Vector2D)} through the list of transformations.
+ *
+ * <p>Before measuring, the interpreted loop is run with both affine and Julia transformations, so
+ * its call site is megamorphic like it is in the application.
+ *
+ * @author Sigurd Riseth, Theodor Sjetnan Utvik
+ * @version 0.0.1
+ * @see TransformProgram
+ * @see ChaosGame
+ * @since 18.10.2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransformProgramBenchmark {
+
+  private static final int STEPS = 100_000;
+
+  @Param({"barnsley-fern", "sierpinski", "julia"})
+  private String fractal;
+
+  private ChaosGameDescription description;
+  private TransformProgram program;
+  private AliasTable selector;
+  private RandomGenerator random;
+  private ChaosCanvas canvas;
+  private final double[] point = new double[2];
+
+  /**
+   * Compiles the description and makes the interpreted call site megamorphic.
+   */
+  @Setup
+  public void setUp() {
+    description = createDescription(fractal);
+    program = TransformProgram.compile(description);
+    selector = createSelector(description);
+    random = RandomGeneratorFactory.of(ChaosGame.DEFAULT_ALGORITHM).create(42);
+    canvas = new ChaosCanvas(description.getMinCoords(), description.getMaxCoords(), 800, 800);
+
+    for (String other : List.of("barnsley-fern", "sierpinski", "julia")) {
+      ChaosGameDescription otherDescription = createDescription(other);
+      ChaosCanvas otherCanvas = new ChaosCanvas(otherDescription.getMinCoords(),
+          otherDescription.getMaxCoords(), 800, 800);
+      interpretedRun(otherDescription.getTransforms(), createSelector(otherDescription),
+          random, otherCanvas, STEPS);
+    }
+  }
+
+  /**
+   * Measures a batch of steps run by the compiled program.
+   *
+   * @return the number of rejected points, so the run is not removed
+   */
+  @Benchmark
+  public long compiled() {
+    return program.run(point, STEPS, random, canvas);
+  }
+
+  /**
+   * Measures a batch of steps run through the list of transformations.
+   *
+   * @return the number of rejected points, so the run is not removed
+   */
+  @Benchmark
+  public long interpreted() {
+    return interpretedRun(description.getTransforms(), selector, random, canvas, STEPS);
+  }
+
+  /**
+   * Runs steps the way the game did before it was compiled, with one interface call and one
+   * new point per step.
+   *
+   * @param transforms the transformations to choose from
+   * @param selector   the table that chooses a transformation in each step
+   * @param random     the random number generator
+   * @param canvas     the canvas to draw on
+   * @param steps      the number of steps to run
+   * @return the number of points that fell outside the canvas
+   */
+  private static long interpretedRun(List<Transform2D> transforms, AliasTable selector,
+      RandomGenerator random, ChaosCanvas canvas, int steps) {
+    Vector2D current = new Vector2D(0, 0);
+    long rejected = 0;
+    for (int i = 0; i < steps; i++) {
+      current = transforms.get(selector.sample(random)).transform(current);
+      if (!canvas.putPixel(current.getX0(), current.getX1())) {
+        rejected++;
+      }
+    }
+    return rejected;
+  }
+
+  private static ChaosGameDescription createDescription(String fractal) {
+    return switch (fractal) {
+      case "barnsley-fern" -> ChaosGameDescriptionFactory.createBarnsleyFern();
+      case "sierpinski" -> ChaosGameDescriptionFactory.createSierpinskiTriangle();
+      case "julia" -> ChaosGameDescriptionFactory.createJuliaSet();
+      default -> throw new IllegalArgumentException("Unknown fractal: " + fractal);
+    };
+  }
+
+  private static AliasTable createSelector(ChaosGameDescription description) {
+    return new AliasTable(
+        description.getWeights().stream().mapToDouble(Double::doubleValue).toArray());
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args not used
+   * @throws RunnerException if the benchmark fails to run
+   */
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(TransformProgramBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+}
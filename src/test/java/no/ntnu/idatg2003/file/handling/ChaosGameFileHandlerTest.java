@@ -113,6 +113,85 @@ class ChaosGameFileHandlerTest {
     assertEquals(expectedDescription.getTransforms().getFirst().toString(), resultDescription.getTransforms().getFirst().toString(), "The transform is not correct");
   }
 
+  /**
+   * Tests if the <code>readFromFile()</code> method reads the weights of affine transformations and
+   * normalizes them.
+   */
+  @Test
+  void readFromFileWeightsTest() {
+    ChaosGameDescription description = ChaosGameFileHandler.readFromFile(filereader, "src/test/resources/csv/preset.games/barnsley-fern-weights.csv");
+    List<Double> weights = description.getWeights();
+
+    assertEquals(4, weights.size(), "The number of weights is not correct");
+    assertEquals(0.01, weights.get(0), 1e-12, "The first weight is not correct");
+    assertEquals(0.85, weights.get(1), 1e-12, "The second weight is not correct");
+    assertEquals(0.07, weights.get(2), 1e-12, "The third weight is not correct");
+    assertEquals(0.07, weights.get(3), 1e-12, "The fourth weight is not correct");
+  }
+
+  /**
+   * Tests if the weights written by the <code>writeToFile()</code> method are read back.
+   */
+  @Test
+  void writeWeightsToFileTest() {
+    ChaosGameDescription expectedDescription = ChaosGameFileHandler.readFromFile(filereader, "src/test/resources/csv/preset.games/barnsley-fern-weights.csv");
+
+    ChaosGameFileHandler.writeToFile(filewriter, expectedDescription, "src/test/resources/csv/preset.games/barnsley-fern-weightsTest.csv");
+    ChaosGameDescription resultDescription = ChaosGameFileHandler.readFromFile(filereader, "src/test/resources/csv/preset.games/barnsley-fern-weightsTest.csv");
+
+    for (int i = 0; i < expectedDescription.getWeights().size(); i++) {
+      assertEquals(expectedDescription.getWeights().get(i), resultDescription.getWeights().get(i), 1e-12, "The weight is not correct");
+    }
+  }
+
+  /**
+   * Tests if the <code>readFromFile()</code> method returns <code>null</code> when only some of the transformations have a weight.
+   */
+  @Test
+  void testMissingWeight() {
+    assertNull(ChaosGameFileHandler.readFromFile(filereader, "src/test/resources/csv/preset.games/missingWeight.csv"));
+  }
+
+  /**
+   * Tests if the <code>readFromFile()</code> method returns <code>null</code> for an affine file with one line of bounds and no transformations.
+   */
+  @Test
+  void testMissingTransforms() {
+    assertNull(ChaosGameFileHandler.readFromFile(filereader, "src/test/resources/csv/preset.games/missingTransforms.csv"));
+  }
+
+  /**
+   * Tests if the <code>readFromFile()</code> method returns <code>null</code> for a transformation with more than seven values.
+   */
+  @Test
+  void testTooManyValues() {
+    assertNull(ChaosGameFileHandler.readFromFile(filereader, "src/test/resources/csv/preset.games/tooManyValues.csv"));
+  }
+
+  /**
+   * Tests if the <code>readFromFile()</code> method returns <code>null</code> for coordinates with more than two values.
+   */
+  @Test
+  void testTooManyCoordinates() {
+    assertNull(ChaosGameFileHandler.readFromFile(filereader, "src/test/resources/csv/preset.games/tooManyCoordinates.csv"));
+  }
+
+  /**
+   * Tests if the <code>readFromFile()</code> method returns <code>null</code> for a Julia constant with more than two values.
+   */
+  @Test
+  void testTooManyJuliaValues() {
+    assertNull(ChaosGameFileHandler.readFromFile(filereader, "src/test/resources/csv/preset.games/tooManyJuliaValues.csv"));
+  }
+
+  /**
+   * Tests if the <code>readFromFile()</code> method returns <code>null</code> for an affine file without any valid transformations.
+   */
+  @Test
+  void testNoValidTransforms() {
+    assertNull(ChaosGameFileHandler.readFromFile(filereader, "src/test/resources/csv/preset.games/noValidTransforms.csv"));
+  }
+
   /**
    * Tests if the <code>readFromFile()</code> method returns <code>null</code> for an empty file.
    */
@@ -137,4 +216,35 @@ class ChaosGameFileHandlerTest {
     assertNull(ChaosGameFileHandler.readFromFile(filereader, "src/test/resources/csv/preset.games/invalidCoordinate.csv"));
   }
 
-}
\ No newline at end of file
+  /**
+   * Tests if the <code>readFromFile()</code> method estimates the bounds of an affine file without
+   * min and max coordinates, so that the fern fits inside them.
+   */
+  @Test
+  void readFromFileWithoutBoundsTest() {
+    ChaosGameDescription description = ChaosGameFileHandler.readFromFile(filereader, "src/test/resources/csv/preset.games/barnsley-fern-no-bounds.csv");
+
+    assertNotNull(description, "The description was not read");
+    assertTrue(filereader.hasEstimatedBounds(), "The bounds should be marked as estimated");
+    assertEquals(4, description.getTransforms().size(), "The number of transformations is not correct");
+    assertTrue(description.getMinCoords().getX0() < -2.1 && description.getMinCoords().getX0() > -3, "The minimum x is not correct");
+    assertTrue(description.getMaxCoords().getX0() > 2.6 && description.getMaxCoords().getX0() < 3.3, "The maximum x is not correct");
+    assertTrue(description.getMinCoords().getX1() < 0 && description.getMinCoords().getX1() > -1, "The minimum y is not correct");
+    assertTrue(description.getMaxCoords().getX1() > 9.9 && description.getMaxCoords().getX1() < 11, "The maximum y is not correct");
+  }
+
+  /**
+   * Tests if the <code>readFromFile()</code> method estimates the bounds of a Julia file with only
+   * the constant.
+   */
+  @Test
+  void readJuliaWithoutBoundsTest() {
+    ChaosGameDescription description = ChaosGameFileHandler.readFromFile(filereader, "src/test/resources/csv/preset.games/Julia-no-bounds.csv");
+
+    assertNotNull(description, "The description was not read");
+    assertEquals(2, description.getTransforms().size(), "The number of transformations is not correct");
+    assertTrue(description.getMinCoords().getX0() < -1.3 && description.getMaxCoords().getX0() > 1.3, "The bounds do not contain the Julia set");
+    assertTrue(description.getMaxCoords().getX0() < 1.8, "The bounds are too loose");
+  }
+
+}
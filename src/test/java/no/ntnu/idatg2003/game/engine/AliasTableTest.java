@@ -0,0 +1,62 @@
+package no.ntnu.idatg2003.game.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+import no.ntnu.idatg2003.model.game.engine.AliasTable;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the AliasTable class.
+ */
+class AliasTableTest {
+
+  /**
+   * Test that the indices are drawn with frequencies close to their weights.
+   */
+  @Test
+  void testSampleFollowsWeights() {
+    double[] weights = {0.01, 0.85, 0.07, 0.07};
+    AliasTable table = new AliasTable(weights);
+    Random random = new Random(42);
+    int samples = 1_000_000;
+    int[] counts = new int[weights.length];
+    for (int i = 0; i < samples; i++) {
+      counts[table.sample(random)]++;
+    }
+    for (int i = 0; i < weights.length; i++) {
+      assertEquals(weights[i], counts[i] / (double) samples, 0.005,
+          "Index " + i + " should be drawn with a frequency close to its weight");
+    }
+  }
+
+  /**
+   * Test that an index with a weight of zero is never drawn.
+   */
+  @Test
+  void testZeroWeightIsNeverDrawn() {
+    AliasTable table = new AliasTable(new double[]{0, 3, 1});
+    Random random = new Random(7);
+    for (int i = 0; i < 100_000; i++) {
+      int index = table.sample(random);
+      assertNotEquals(0, index, "Index 0 should never be drawn");
+    }
+  }
+
+  /**
+   * Test that invalid weights are rejected.
+   */
+  @Test
+  void testInvalidWeights() {
+    assertThrows(IllegalArgumentException.class, () -> new AliasTable(new double[0]),
+        "Constructor should throw IllegalArgumentException for no weights");
+    assertThrows(IllegalArgumentException.class, () -> new AliasTable(new double[]{1, -1}),
+        "Constructor should throw IllegalArgumentException for a negative weight");
+    assertThrows(IllegalArgumentException.class, () -> new AliasTable(new double[]{0, 0}),
+        "Constructor should throw IllegalArgumentException when all weights are zero");
+    assertThrows(IllegalArgumentException.class, () -> new AliasTable(new double[]{Double.NaN}),
+        "Constructor should throw IllegalArgumentException for a NaN weight");
+  }
+}
@@ -0,0 +1,190 @@
+package no.ntnu.idatg2003.game.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.random.RandomGeneratorFactory;
+import no.ntnu.idatg2003.model.game.engine.AttractorBounds;
+import no.ntnu.idatg2003.model.game.engine.ChaosGame;
+import no.ntnu.idatg2003.model.game.engine.ChaosGameDescription;
+import no.ntnu.idatg2003.model.game.engine.ChaosGameDescriptionFactory;
+import no.ntnu.idatg2003.model.game.engine.ChaosGameResult;
+import no.ntnu.idatg2003.model.math.datatypes.Complex;
+import no.ntnu.idatg2003.model.math.datatypes.Matrix2x2;
+import no.ntnu.idatg2003.model.math.datatypes.Vector2D;
+import no.ntnu.idatg2003.model.transformations.AffineTransform2D;
+import no.ntnu.idatg2003.model.transformations.Transform2D;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the AttractorBounds class.
+ */
+class AttractorBoundsTest {
+
+  /**
+   * Test that the estimated bounds of the Sierpinski triangle are the unit square, padded.
+   */
+  @Test
+  void testEstimateSierpinski() {
+    AttractorBounds bounds =
+        AttractorBounds.estimate(ChaosGameDescriptionFactory.createSierpinskiTriangle());
+
+    assertEquals(-0.05, bounds.minCoords().getX0(), 1e-3, "The minimum x is not correct");
+    assertEquals(-0.05, bounds.minCoords().getX1(), 1e-3, "The minimum y is not correct");
+    assertEquals(1.05, bounds.maxCoords().getX0(), 1e-3, "The maximum x is not correct");
+    assertEquals(1.05, bounds.maxCoords().getX1(), 1e-3, "The maximum y is not correct");
+  }
+
+  /**
+   * Test that a render with the estimated bounds loses no points, and that the estimate is always
+   * the same.
+   */
+  @Test
+  void testEstimatedBoundsHoldTheRender() {
+    ChaosGameDescription fern = ChaosGameDescriptionFactory.createBarnsleyFern();
+    AttractorBounds bounds = AttractorBounds.estimate(fern);
+    ChaosGame game = new ChaosGame(bounds.applyTo(fern), 200, 200, 7);
+    ChaosGameResult result = game.runSteps(1_000_000);
+
+    assertEquals(0, result.rejectedPoints(), "No points should fall outside the estimated bounds");
+    AttractorBounds again = AttractorBounds.estimate(fern);
+    assertEquals(bounds.minCoords().getX0(), again.minCoords().getX0(),
+        "The estimate should be deterministic");
+    assertEquals(bounds.maxCoords().getX1(), again.maxCoords().getX1(),
+        "The estimate should be deterministic");
+  }
+
+  /**
+   * Test that a description with the exact bounds of the walk fits them, while the padded
+   * estimate only is a suggestion around them.
+   */
+  @Test
+  void testExactBoundsFit() {
+    ChaosGameDescription fern = ChaosGameDescriptionFactory.createBarnsleyFern();
+    AttractorBounds unpadded = AttractorBounds.estimateUnpadded(fern);
+    AttractorBounds padded = AttractorBounds.estimate(fern);
+    ChaosGameDescription exact = unpadded.applyTo(fern);
+
+    assertTrue(unpadded.fitsIn(exact), "Bounds that hold the attractor exactly should fit");
+    assertFalse(padded.fitsIn(exact), "The padded bounds should be larger than the walk");
+    AttractorBounds expected = unpadded.padded(AttractorBounds.DEFAULT_PADDING);
+    assertEquals(expected.minCoords().getX0(), padded.minCoords().getX0(),
+        "The estimate should be the unpadded bounds, padded");
+    assertEquals(expected.maxCoords().getX1(), padded.maxCoords().getX1(),
+        "The estimate should be the unpadded bounds, padded");
+  }
+
+  /**
+   * Test that a walk only covers the points it visits, and that the contraction bounds contain
+   * them.
+   */
+  @Test
+  void testContractionBoundsContainWalk() {
+    ChaosGameDescription fern = ChaosGameDescriptionFactory.createBarnsleyFern();
+    AttractorBounds walk = AttractorBounds.fromWalk(fern, 10_000,
+        RandomGeneratorFactory.of("L64X128MixRandom").create(3));
+    AttractorBounds contraction = AttractorBounds.fromContraction(fern.getTransforms());
+    ChaosGameDescription contractionDescription = contraction.applyTo(fern);
+
+    assertTrue(walk.fitsIn(contractionDescription),
+        "The contraction bounds should contain the walk");
+    assertEquals(-contraction.maxCoords().getX0(), contraction.minCoords().getX0(), 1e-12,
+        "The contraction bounds should be centered on the origin");
+  }
+
+  /**
+   * Test the contraction bounds of a Julia set.
+   */
+  @Test
+  void testJuliaContractionBounds() {
+    ChaosGameDescription julia = ChaosGameDescriptionFactory.createJuliaSet(
+        new Vector2D(-1, -1), new Vector2D(1, 1),
+        new Complex(2, 0));
+
+    AttractorBounds bounds = AttractorBounds.fromContraction(julia.getTransforms());
+
+    assertEquals(2, bounds.maxCoords().getX0(), 1e-12, "The radius should be 1/2 + sqrt(9/4)");
+  }
+
+  /**
+   * Test that padding keeps the description, and that a point gets an area.
+   */
+  @Test
+  void testPaddedAndApplyTo() {
+    AttractorBounds point = new AttractorBounds(new Vector2D(3, 3), new Vector2D(3, 3));
+    AttractorBounds padded = point.padded(0.5);
+    ChaosGameDescription fern = ChaosGameDescriptionFactory.createBarnsleyFern();
+    ChaosGameDescription applied = padded.applyTo(fern);
+
+    assertEquals(2.5, padded.minCoords().getX0(), 1e-12, "The point should be padded");
+    assertEquals(3.5, padded.maxCoords().getX1(), 1e-12, "The point should be padded");
+    assertSame(fern.getTransforms(), applied.getTransforms(),
+        "The transformations should be kept");
+    assertEquals(fern.getWeights(), applied.getWeights(), "The weights should be kept");
+    assertFalse(padded.fitsIn(fern), "The padded point should not fit in the fern bounds");
+  }
+
+  /**
+   * Test that a walk that overflows falls back to the contraction bounds, which are finite. The
+   * constant is so large that its squared magnitude overflows in the walk, while the contraction
+   * radius only grows with its square root.
+   */
+  @Test
+  void testDivergingWalkFallsBackToContraction() {
+    ChaosGameDescription julia = ChaosGameDescriptionFactory.createJuliaSet(
+        new Vector2D(-1, -1), new Vector2D(1, 1), new Complex(1e200, 0));
+
+    AttractorBounds estimated = AttractorBounds.estimate(julia);
+    AttractorBounds unpadded = AttractorBounds.estimateUnpadded(julia);
+    AttractorBounds contraction = AttractorBounds.fromContraction(julia.getTransforms());
+
+    assertTrue(Double.isFinite(estimated.maxCoords().getX0()),
+        "The fallback bounds should be finite");
+    assertEquals(contraction.maxCoords().getX0(), estimated.maxCoords().getX0(),
+        "The estimate should be the contraction bounds");
+    assertEquals(contraction.minCoords().getX1(), unpadded.minCoords().getX1(),
+        "The unpadded estimate should be the contraction bounds");
+    assertThrows(IllegalArgumentException.class, () -> AttractorBounds.fromWalk(julia, 100,
+            RandomGeneratorFactory.of("L64X128MixRandom").create(3)),
+        "A walk that diverges has no bounds of its own");
+  }
+
+  /**
+   * Test that a description whose walk diverges and which has no contraction bounds is rejected.
+   */
+  @Test
+  void testDivergingWalkWithoutContraction() {
+    List<Transform2D> expanding = List.of(
+        new AffineTransform2D(new Matrix2x2(2, 0, 0, 2), new Vector2D(1, 0)));
+    ChaosGameDescription diverging =
+        new ChaosGameDescription(new Vector2D(0, 0), new Vector2D(1, 1), expanding);
+
+    assertThrows(IllegalArgumentException.class, () -> AttractorBounds.estimate(diverging),
+        "A description without finite walk or contraction bounds should be rejected");
+    assertThrows(IllegalArgumentException.class,
+        () -> AttractorBounds.estimateUnpadded(diverging),
+        "A description without finite walk or contraction bounds should be rejected");
+  }
+
+  /**
+   * Test that invalid arguments are rejected.
+   */
+  @Test
+  void testInvalidArguments() {
+    List<Transform2D> expanding = List.of(
+        new AffineTransform2D(new Matrix2x2(2, 0, 0, 2), new Vector2D(1, 0)));
+    AttractorBounds bounds = new AttractorBounds(new Vector2D(0, 0), new Vector2D(1, 1));
+
+    assertThrows(IllegalArgumentException.class,
+        () -> AttractorBounds.fromContraction(expanding),
+        "A map that is not a contraction should have no contraction bounds");
+    assertThrows(IllegalArgumentException.class, () -> bounds.padded(-1),
+        "Negative padding should not be accepted");
+    assertThrows(NullPointerException.class, () -> new AttractorBounds(null, new Vector2D(0, 0)),
+        "Null corners should not be accepted");
+  }
+}
@@ -2,7 +2,14 @@ package no.ntnu.idatg2003.game.engine;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
 import no.ntnu.idatg2003.model.game.engine.ChaosCanvas;
+import no.ntnu.idatg2003.model.game.engine.MappedPixelStorage;
+import no.ntnu.idatg2003.model.game.engine.OffHeapPixelStorage;
+import no.ntnu.idatg2003.model.game.engine.SparsePixelStorage;
 import no.ntnu.idatg2003.model.math.datatypes.Vector2D;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -50,7 +57,7 @@ class ChaosCanvasTest {
   @Test
   void putPixel() {
     chaosCanvas.putPixel(new Vector2D(5,5));
-    assertEquals(1, chaosCanvas.getCanvasArray()[5][5],
+    assertEquals(1, chaosCanvas.copyPixels()[5 * 10 + 5],
         "The pixel value at (5,5) should be 1 after putPixel is called.");
   }
 
@@ -65,17 +72,150 @@ class ChaosCanvasTest {
   void clear() {
     chaosCanvas.putPixel(new Vector2D(5,5)); // Set a pixel to ensure clear has an effect
     chaosCanvas.clear(); // Clear the canvas
-    assertEquals(0, chaosCanvas.getCanvasArray()[5][5],
+    assertEquals(0, chaosCanvas.copyPixels()[5 * 10 + 5],
         "The pixel value at (5,5) should be reset to 0 after clear is called.");
   }
 
+  @Test
+  void clearReusesArray() {
+    int[] pixels = chaosCanvas.getPixels();
+    chaosCanvas.putPixel(5, 5, 2);
+    chaosCanvas.clear();
+    assertSame(pixels, chaosCanvas.getPixels(),
+        "clear should zero the existing pixel array instead of creating a new one.");
+    assertEquals(0, pixels[5 * 10 + 5],
+        "The pixel value at (5,5) should be reset to 0 after clear is called.");
+  }
+
+  @Test
+  @SuppressWarnings("deprecation")
+  void pixelsAreRowMajor() {
+    chaosCanvas.putPixel(3, 7, 9);
+    int[][] canvasArray = chaosCanvas.getCanvasArray();
+    int[] copy = chaosCanvas.copyPixels();
+    assertEquals(9, chaosCanvas.getPixels()[7 * 10 + 3],
+        "The pixel at column 3 and row 7 should be at index 7 * width + 3.");
+    assertEquals(9, canvasArray[7][3],
+        "The 2D array should be indexed by row and then column.");
+    assertEquals(9, chaosCanvas.getCanvasArray()[7][3],
+        "Every call should return a new snapshot of the canvas.");
+    canvasArray[7][3] = 0;
+    copy[7 * 10 + 3] = 0;
+    assertEquals(9, chaosCanvas.getPixels()[7 * 10 + 3],
+        "Changing the copies should not change the canvas.");
+  }
+
   @Test
   void putPixelValue() {
     chaosCanvas.putPixel(5, 5, 2);
-    assertEquals(2, chaosCanvas.getCanvasArray()[5][5],
+    assertEquals(2, chaosCanvas.copyPixels()[5 * 10 + 5],
         "The pixel value at (5,5) should be 2 after putPixelValue is called.");
   }
 
+  @Test
+  void merge() {
+    ChaosCanvas other = new ChaosCanvas(new Vector2D(0,0), new Vector2D(10,10), 10, 10);
+    chaosCanvas.putPixel(5, 5, 2);
+    other.putPixel(5, 5, 3);
+    other.putPixel(1, 2, 4);
+    chaosCanvas.merge(other);
+    assertEquals(5, chaosCanvas.copyPixels()[5 * 10 + 5],
+        "The pixel values at (5,5) should be added together by merge.");
+    assertEquals(4, chaosCanvas.copyPixels()[2 * 10 + 1],
+        "The pixel value at (1,2) should be copied by merge.");
+  }
+
+  @Test
+  void countsSaturate() {
+    ChaosCanvas other = new ChaosCanvas(new Vector2D(0,0), new Vector2D(10,10), 10, 10);
+    chaosCanvas.putPixel(5, 5, Integer.MAX_VALUE - 1);
+    other.putPixel(5, 5, 2);
+    chaosCanvas.merge(other);
+    assertEquals(Integer.MAX_VALUE, chaosCanvas.copyPixels()[5 * 10 + 5],
+        "merge should saturate at Integer.MAX_VALUE instead of overflowing.");
+    Arrays.fill(chaosCanvas.getPixels(), Integer.MAX_VALUE);
+    chaosCanvas.putPixel(5.0, 5.0);
+    chaosCanvas.putPixel(new Vector2D(5, 5));
+    assertEquals(Integer.MAX_VALUE, chaosCanvas.getPixel(new Vector2D(5, 5)),
+        "putPixel should saturate at Integer.MAX_VALUE instead of overflowing.");
+  }
+
+  @Test
+  void coveredPixels() {
+    chaosCanvas.putPixel(5.0, 5.0);
+    chaosCanvas.putPixel(5.0, 5.0);
+    chaosCanvas.putPixel(new Vector2D(1, 1));
+    assertEquals(2, chaosCanvas.getCoveredPixels(),
+        "A pixel should only be counted as covered the first time it is hit.");
+
+    ChaosCanvas other = new ChaosCanvas(new Vector2D(0,0), new Vector2D(10,10), 10, 10);
+    other.putPixel(5.0, 5.0);
+    other.putPixel(8.0, 2.0);
+    chaosCanvas.merge(other);
+    assertEquals(3, chaosCanvas.getCoveredPixels(),
+        "merge should only count the pixels that were not covered before.");
+
+    chaosCanvas.clear();
+    assertEquals(0, chaosCanvas.getCoveredPixels(),
+        "clear should reset the number of covered pixels.");
+  }
+
+  @Test
+  void mergeDifferentDimensions() {
+    ChaosCanvas other = new ChaosCanvas(new Vector2D(0,0), new Vector2D(10,10), 5, 10);
+    assertThrows(IllegalArgumentException.class, () -> chaosCanvas.merge(other),
+        "merge should throw an IllegalArgumentException when the dimensions differ.");
+  }
+
+  @Test
+  void putPixelCoordinates() {
+    assertTrue(chaosCanvas.putPixel(5.0, 5.0),
+        "putPixel should report that a point inside the canvas was drawn.");
+    assertEquals(1, chaosCanvas.getPixel(new Vector2D(5, 5)),
+        "The pixel value at (5,5) should be 1 after putPixel is called.");
+  }
+
+  @Test
+  void getPixelCoordinates() {
+    chaosCanvas.putPixel(5.0, 5.0);
+    assertEquals(1, chaosCanvas.getPixel(5.0, 5.0),
+        "getPixel should return the value of the pixel at the coordinates.");
+    assertEquals(-1, chaosCanvas.getPixel(100000.0, 5.0),
+        "getPixel should return -1 for a point outside the canvas.");
+  }
+
+  @Test
+  void pixelIndex() {
+    assertEquals(0, chaosCanvas.pixelIndex(0.0, 10.0),
+        "The upper left corner should be the first pixel.");
+    assertEquals(99, chaosCanvas.pixelIndex(10.0, 0.0),
+        "The lower right corner should be the last pixel.");
+    assertEquals(9, chaosCanvas.pixelIndex(10.5, 10.0),
+        "A point less than half a pixel outside should round into the canvas.");
+    assertEquals(-1, chaosCanvas.pixelIndex(10.6, 10.0),
+        "A point more than half a pixel outside should not have an index.");
+    assertEquals(-1, chaosCanvas.pixelIndex(5.0, Double.NaN),
+        "A NaN point should not have an index.");
+    for (double x = 0; x <= 10; x += 0.37) {
+      for (double y = 0; y <= 10; y += 0.41) {
+        chaosCanvas.clear();
+        chaosCanvas.putPixel(new Vector2D(x, y));
+        assertEquals(1, chaosCanvas.getPixels()[(int) chaosCanvas.pixelIndex(x, y)],
+            "The vector and primitive paths should map a point to the same pixel.");
+      }
+    }
+  }
+
+  @Test
+  void putPixelCoordinatesOutOfBounds() {
+    assertFalse(chaosCanvas.putPixel(100000.0, 10.0),
+        "putPixel should report that a point outside the canvas was not drawn.");
+    assertFalse(chaosCanvas.putPixel(-0.6, 5.0),
+        "putPixel should report that a point outside the canvas was not drawn.");
+    assertFalse(chaosCanvas.putPixel(Double.NaN, 5.0),
+        "putPixel should report that a NaN point was not drawn.");
+  }
+
   @Test
   void indexOutOfBounds() {
     assertThrows(IndexOutOfBoundsException.class, () -> chaosCanvas.putPixel(100000, 10, 1),
@@ -88,4 +228,143 @@ class ChaosCanvasTest {
     assertThrows(IndexOutOfBoundsException.class, () -> chaosCanvas.putPixel(vector),
         "putPixel should throw an IndexOutOfBoundsException when the index is out of bounds.");
   }
+
+  @Test
+  void offHeapStorageMatchesHeap() {
+    // Chunks of 16 counts make the 100 pixels span several buffers
+    ChaosCanvas offHeap = new ChaosCanvas(new Vector2D(0, 0), new Vector2D(10, 10), 10, 10,
+        new OffHeapPixelStorage(100, 4));
+    for (double x = 0; x <= 10; x += 0.37) {
+      for (double y = 0; y <= 10; y += 0.41) {
+        assertEquals(chaosCanvas.putPixel(x, y), offHeap.putPixel(x, y),
+            "Both storages should accept the same points.");
+      }
+    }
+    assertArrayEquals(chaosCanvas.copyPixels(), offHeap.copyPixels(),
+        "Both storages should count the same hits.");
+    assertEquals(chaosCanvas.getCoveredPixels(), offHeap.getCoveredPixels(),
+        "Both storages should cover the same pixels.");
+    assertThrows(UnsupportedOperationException.class, offHeap::getPixels,
+        "An off-heap canvas has no pixel array to return.");
+
+    ChaosCanvas copy = offHeap.createEmpty();
+    copy.merge(offHeap).merge(chaosCanvas);
+    assertEquals(2 * offHeap.getPixel(5.0, 5.0), copy.getPixel(5.0, 5.0),
+        "Merging should add the counts of both storages.");
+
+    offHeap.clear();
+    assertEquals(0, offHeap.getCoveredPixels(), "Clearing should reset the covered pixels.");
+    assertEquals(0, offHeap.getPixel(5.0, 5.0), "Clearing should reset every pixel.");
+    offHeap.close();
+    copy.close();
+    assertThrows(IllegalStateException.class, () -> offHeap.putPixel(5.0, 5.0),
+        "A closed storage should not be used.");
+  }
+
+  @Test
+  void storageOfWrongSize() {
+    Vector2D minCoords = new Vector2D(0, 0);
+    Vector2D maxCoords = new Vector2D(10, 10);
+    OffHeapPixelStorage storage = new OffHeapPixelStorage(99);
+    assertThrows(IllegalArgumentException.class,
+        () -> new ChaosCanvas(minCoords, maxCoords, 10, 10, storage),
+        "The storage must hold exactly width times height pixels.");
+  }
+
+  @Test
+  void mappedStorageSurvivesReopening() throws IOException {
+    Path file = Files.createTempFile("chaos-canvas", ".bin");
+    try {
+      Vector2D minCoords = new Vector2D(0, 0);
+      Vector2D maxCoords = new Vector2D(10, 10);
+      // Tiles of 4 x 4 pixels and batches of 7 increments exercise the edge tiles and the batching
+      ChaosCanvas mapped = new ChaosCanvas(minCoords, maxCoords, 10, 10,
+          MappedPixelStorage.create(file, 10, 10, 2, 7));
+      for (double x = 0; x <= 10; x += 0.37) {
+        for (double y = 0; y <= 10; y += 0.41) {
+          chaosCanvas.putPixel(x, y);
+          mapped.putPixel(x, y);
+        }
+      }
+      assertArrayEquals(chaosCanvas.copyPixels(), mapped.copyPixels(),
+          "The mapped storage should count the same hits as the heap.");
+      assertEquals(chaosCanvas.getCoveredPixels(), mapped.getCoveredPixels(),
+          "The deferred increments should be counted as covered once they are written.");
+      mapped.close();
+
+      ChaosCanvas reopened = new ChaosCanvas(minCoords, maxCoords, 10, 10,
+          MappedPixelStorage.open(file));
+      assertArrayEquals(chaosCanvas.copyPixels(), reopened.copyPixels(),
+          "The counts should be kept in the file.");
+      assertEquals(chaosCanvas.getCoveredPixels(), reopened.getCoveredPixels(),
+          "The covered pixels should be kept in the file.");
+      reopened.putPixel(5.0, 5.0);
+      assertEquals(chaosCanvas.getPixel(5.0, 5.0) + 1, reopened.getPixel(5.0, 5.0),
+          "A reopened render should continue from the saved counts.");
+      reopened.close();
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  @Test
+  void mappedStorageRecountsAfterUncleanClose() throws IOException {
+    Path file = Files.createTempFile("chaos-canvas", ".bin");
+    try {
+      MappedPixelStorage storage = MappedPixelStorage.create(file, 10, 10, 2, 7);
+      for (long index = 0; index < 30; index++) {
+        storage.increment(index);
+      }
+      storage.flush();
+      // Setting pixels directly does not write the count, as if the process had been killed
+      storage.set(50, 3);
+      storage.set(60, 4);
+      MappedPixelStorage reopened = MappedPixelStorage.open(file);
+      assertEquals(32, reopened.getCoveredPixels(),
+          "A file that was not closed should have its covered pixels counted again.");
+      reopened.close();
+      storage.close();
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  @Test
+  void sparseStorageOnlyAllocatesTouchedTiles() {
+    Vector2D minCoords = new Vector2D(0, 0);
+    Vector2D maxCoords = new Vector2D(10, 10);
+    // Tiles of 4 x 4 pixels split the canvas into 3 x 3 tiles, with partial tiles at the edges
+    SparsePixelStorage storage = new SparsePixelStorage(10, 10, 2);
+    ChaosCanvas sparse = new ChaosCanvas(minCoords, maxCoords, 10, 10, storage);
+    assertEquals(0, storage.getAllocatedTiles(), "No tile should be allocated up front.");
+    sparse.putPixel(0.0, 10.0);
+    sparse.putPixel(0.0, 10.0);
+    sparse.putPixel(10.0, 0.0);
+    assertEquals(2, storage.getAllocatedTiles(), "Only the two touched tiles should be allocated.");
+    assertEquals(2, sparse.getCoveredPixels(), "Two pixels should be covered.");
+    assertEquals(2, sparse.getPixel(0.0, 10.0), "The upper left pixel should be hit twice.");
+    assertEquals(0, sparse.getPixel(5.0, 5.0), "An untouched pixel should be zero.");
+
+    for (double x = 0; x <= 10; x += 0.37) {
+      for (double y = 0; y <= 10; y += 0.41) {
+        chaosCanvas.putPixel(x, y);
+        sparse.putPixel(x, y);
+      }
+    }
+    chaosCanvas.putPixel(0.0, 10.0);
+    chaosCanvas.putPixel(0.0, 10.0);
+    chaosCanvas.putPixel(10.0, 0.0);
+    assertArrayEquals(chaosCanvas.copyPixels(), sparse.copyPixels(),
+        "The sparse storage should count the same hits as the heap.");
+
+    ChaosCanvas merged = sparse.createEmpty().merge(sparse).merge(sparse);
+    assertEquals(sparse.getCoveredPixels(), merged.getCoveredPixels(),
+        "Merging should cover the same pixels.");
+    assertEquals(2 * sparse.getPixel(0.0, 10.0), merged.getPixel(0.0, 10.0),
+        "Merging should add the counts.");
+
+    sparse.clear();
+    assertEquals(0, storage.getAllocatedTiles(), "Clearing should free every tile.");
+    assertEquals(0, sparse.getPixel(0.0, 10.0), "Clearing should reset every pixel.");
+  }
 }
@@ -1,13 +1,16 @@
 package no.ntnu.idatg2003.game.engine;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.util.List;
 import no.ntnu.idatg2003.model.game.engine.ChaosGameDescription;
+import no.ntnu.idatg2003.model.math.datatypes.Complex;
 import no.ntnu.idatg2003.model.math.datatypes.Matrix2x2;
 import no.ntnu.idatg2003.model.math.datatypes.Vector2D;
 import no.ntnu.idatg2003.model.transformations.AffineTransform2D;
+import no.ntnu.idatg2003.model.transformations.JuliaTransform;
 import no.ntnu.idatg2003.model.transformations.Transform2D;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -54,4 +57,51 @@ public class ChaosGameDescriptionTest {
         "The constructor should throw a NullPointerException when the transforms parameter is null.");
   }
 
+  @Test
+  void defaultWeightsFollowDeterminants() {
+    List<Transform2D> fern = List.of(
+        new AffineTransform2D(new Matrix2x2(0, 0, 0, 0.16), new Vector2D(0, 0)),
+        new AffineTransform2D(new Matrix2x2(0.5, 0, 0, 0.5), new Vector2D(0, 0)),
+        new AffineTransform2D(new Matrix2x2(0.25, 0, 0, 0.5), new Vector2D(0, 0)));
+    List<Double> weights = new ChaosGameDescription(minCoords, maxCoords, fern).getWeights();
+
+    assertEquals(1, weights.stream().mapToDouble(Double::doubleValue).sum(), 1e-12,
+        "The weights should sum to one");
+    assertEquals(2 * weights.get(2), weights.get(1), 1e-12,
+        "A map with twice the determinant should get twice the weight");
+    assertEquals(0.01 * 0.375 / (0.375 + 0.01 * 0.375), weights.get(0), 1e-12,
+        "A map with a zero determinant should get the minimum weight");
+  }
+
+  @Test
+  void defaultWeightsForJuliaAreEqual() {
+    List<Transform2D> julia = List.of(
+        new JuliaTransform(new Complex(0.285, 0.01), 1),
+        new JuliaTransform(new Complex(0.285, 0.01), -1));
+    List<Double> weights = new ChaosGameDescription(minCoords, maxCoords, julia).getWeights();
+
+    assertEquals(List.of(0.5, 0.5), weights, "Julia transforms should be equally likely");
+  }
+
+  @Test
+  void explicitWeightsAreNormalized() {
+    ChaosGameDescription description =
+        new ChaosGameDescription(minCoords, maxCoords, transforms, List.of(4.0));
+
+    assertEquals(List.of(1.0), description.getWeights(), "The weights should be normalized");
+  }
+
+  @Test
+  void invalidWeights() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new ChaosGameDescription(minCoords, maxCoords, transforms, List.of(1.0, 2.0)),
+        "The constructor should throw an IllegalArgumentException when there is not one weight per transformation.");
+    assertThrows(IllegalArgumentException.class,
+        () -> new ChaosGameDescription(minCoords, maxCoords, transforms, List.of(-1.0)),
+        "The constructor should throw an IllegalArgumentException for negative weights.");
+    assertThrows(IllegalArgumentException.class,
+        () -> new ChaosGameDescription(minCoords, maxCoords, transforms, List.of(0.0)),
+        "The constructor should throw an IllegalArgumentException when all weights are zero.");
+  }
+
 }
@@ -0,0 +1,109 @@
+package no.ntnu.idatg2003.game.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import no.ntnu.idatg2003.model.game.engine.ChaosGameKernel;
+import no.ntnu.idatg2003.model.math.datatypes.Complex;
+import no.ntnu.idatg2003.model.math.datatypes.Matrix2x2;
+import no.ntnu.idatg2003.model.math.datatypes.Vector2D;
+import no.ntnu.idatg2003.model.transformations.AffineTransform2D;
+import no.ntnu.idatg2003.model.transformations.JuliaTransform;
+import no.ntnu.idatg2003.model.transformations.Transform2D;
+import no.ntnu.idatg2003.utility.enums.TransformType;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the ChaosGameKernel class.
+ */
+class ChaosGameKernelTest {
+
+  /**
+   * Test that an affine step gives the same point as the AffineTransform2D it was built from.
+   */
+  @Test
+  void testAffineStepMatchesTransform() {
+    AffineTransform2D transform =
+        new AffineTransform2D(new Matrix2x2(0.85, 0.04, -0.04, 0.85), new Vector2D(0, 1.6));
+    ChaosGameKernel kernel = new ChaosGameKernel(List.of(transform));
+    kernel.setPoint(0.3, -0.7);
+    kernel.step(0);
+
+    Vector2D expected = transform.transform(new Vector2D(0.3, -0.7));
+    assertEquals(expected.getX0(), kernel.getX(), 1e-12, "The x-coordinate is not correct");
+    assertEquals(expected.getX1(), kernel.getY(), 1e-12, "The y-coordinate is not correct");
+  }
+
+  /**
+   * Test that Julia steps of both signs give the same point as the JuliaTransform they were built
+   * from.
+   */
+  @Test
+  void testJuliaStepMatchesTransform() {
+    List<Transform2D> transforms = List.of(
+        new JuliaTransform(new Complex(-0.74543, 0.11301), 1),
+        new JuliaTransform(new Complex(-0.74543, 0.11301), -1));
+    ChaosGameKernel kernel = new ChaosGameKernel(transforms);
+
+    for (int i = 0; i < transforms.size(); i++) {
+      kernel.setPoint(0.4, -0.2);
+      kernel.step(i);
+      Vector2D expected = transforms.get(i).transform(new Vector2D(0.4, -0.2));
+      assertEquals(expected.getX0(), kernel.getX(), 1e-12, "The real part is not correct");
+      assertEquals(expected.getX1(), kernel.getY(), 1e-12, "The imaginary part is not correct");
+    }
+  }
+
+  /**
+   * Test that a Julia step from a point on the negative real axis, relative to the constant, gives
+   * a root on the imaginary axis, like the JuliaTransform does.
+   */
+  @Test
+  void testJuliaStepOnNegativeRealAxis() {
+    List<Transform2D> transforms = List.of(new JuliaTransform(new Complex(0.5, 0.25), 1));
+    ChaosGameKernel kernel = new ChaosGameKernel(transforms);
+
+    kernel.setPoint(-3.5, 0.25);
+    kernel.step(0);
+
+    Vector2D expected = transforms.getFirst().transform(new Vector2D(-3.5, 0.25));
+    assertEquals(0, kernel.getX(), 1e-12, "The root of a negative number has no real part");
+    assertEquals(2, kernel.getY(), 1e-12, "The root of -4 should be 2i");
+    assertEquals(expected.getX1(), kernel.getY(), 1e-12, "The kernel should match the transform");
+  }
+
+  /**
+   * Test that transformations of unknown types are applied through their own transform method.
+   */
+  @Test
+  void testUnknownTransformFallsBack() {
+    Transform2D swap = new Transform2D() {
+      @Override
+      public Vector2D transform(Vector2D point) {
+        return new Vector2D(point.getX1(), point.getX0());
+      }
+
+      @Override
+      public TransformType getType() {
+        return TransformType.AFFINE2D;
+      }
+    };
+    ChaosGameKernel kernel = new ChaosGameKernel(List.of(swap));
+    kernel.setPoint(1, 2);
+    kernel.step(0);
+
+    assertEquals(2, kernel.getX(), "The x-coordinate is not correct");
+    assertEquals(1, kernel.getY(), "The y-coordinate is not correct");
+  }
+
+  /**
+   * Test that the kernel cannot be built from an empty list of transformations.
+   */
+  @Test
+  void testEmptyTransforms() {
+    List<Transform2D> transforms = List.of();
+    assertThrows(IllegalArgumentException.class, () -> new ChaosGameKernel(transforms),
+        "Constructor should throw IllegalArgumentException for an empty list");
+  }
+}
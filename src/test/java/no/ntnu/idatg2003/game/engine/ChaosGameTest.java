@@ -1,10 +1,23 @@
 package no.ntnu.idatg2003.game.engine;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.SplittableRandom;
+import no.ntnu.idatg2003.model.game.engine.CancellationToken;
 import no.ntnu.idatg2003.model.game.engine.ChaosGame;
 import no.ntnu.idatg2003.model.game.engine.ChaosGameDescription;
+import no.ntnu.idatg2003.model.game.engine.ChaosGameDescriptionFactory;
+import no.ntnu.idatg2003.model.game.engine.ChaosGameProgressObserver;
+import no.ntnu.idatg2003.model.game.engine.ChaosGameResult;
+import no.ntnu.idatg2003.model.game.engine.ChaosGameResult.StopReason;
+import no.ntnu.idatg2003.model.game.engine.OffHeapPixelStorage;
+import no.ntnu.idatg2003.model.game.engine.PixelStorage;
+import no.ntnu.idatg2003.model.game.engine.SparsePixelStorage;
 import no.ntnu.idatg2003.model.math.datatypes.Complex;
+import no.ntnu.idatg2003.model.math.datatypes.Matrix2x2;
 import no.ntnu.idatg2003.model.math.datatypes.Vector2D;
+import no.ntnu.idatg2003.model.transformations.AffineTransform2D;
 import no.ntnu.idatg2003.model.transformations.JuliaTransform;
 import no.ntnu.idatg2003.model.transformations.Transform2D;
 import org.junit.jupiter.api.BeforeEach;
@@ -51,6 +64,331 @@ class ChaosGameTest {
     assertDoesNotThrow(() -> chaosGame.runSteps(1000), "runSteps should not throw any exceptions");
   }
 
+  /**
+   * Test that the progress observers are told each percent once, in order, ending at 100.
+   */
+  @Test
+  void testProgress() {
+    ChaosGame chaosGame = new ChaosGame(description, 100, 100, 42);
+    List<Integer> progress = new ArrayList<>();
+    chaosGame.registerObserver(new ChaosGameProgressObserver() {
+      @Override
+      public void updateProgress(int value) {
+        progress.add(value);
+      }
+
+      @Override
+      public void update() {
+        // Only the progress is of interest
+      }
+    });
+
+    chaosGame.runSteps(12_345L);
+    assertEquals(100, progress.size(), "Every percent should be reported once");
+    for (int i = 0; i < progress.size(); i++) {
+      assertEquals(i + 1, progress.get(i), "The progress should be reported in order");
+    }
+
+    progress.clear();
+    chaosGame.runSteps(7);
+    assertEquals(100, progress.getLast(), "A short run should also end at 100");
+  }
+
+  /**
+   * Test that a long parallel run publishes its progress and image while it runs, and not only
+   * when it is done.
+   */
+  @Test
+  void testParallelProgress() {
+    ChaosGame chaosGame = new ChaosGame(ChaosGameDescriptionFactory.createSierpinskiTriangle(), 100, 100, 42);
+    List<Integer> progress = new ArrayList<>();
+    List<Long> images = new ArrayList<>();
+    chaosGame.registerObserver(new ChaosGameProgressObserver() {
+      @Override
+      public void updateProgress(int value) {
+        progress.add(value);
+      }
+
+      @Override
+      public void update() {
+        images.add(sumPixels(chaosGame.getCanvas().copyPixels()));
+      }
+    });
+
+    ChaosGameResult result = chaosGame.runForParallel(ChaosGame.PUBLISH_INTERVAL.multipliedBy(3));
+    assertTrue(images.size() >= 3, "The image should be published after every round");
+    assertTrue(images.getFirst() > 0, "The first image should show the steps of the first round");
+    assertEquals(result.steps(), images.getLast(), "The last image should show every step");
+    assertTrue(progress.size() >= 3, "The progress should be reported after every round");
+    for (int i = 1; i < progress.size(); i++) {
+      assertTrue(progress.get(i) > progress.get(i - 1), "The progress should only grow");
+    }
+    assertEquals(100, progress.getLast(), "A run that used its budget should end at 100");
+  }
+
+  /**
+   * Test that a parallel run puts one pixel per step when all points land on the canvas.
+   */
+  @Test
+  void testRunStepsParallel() {
+    ChaosGame chaosGame = new ChaosGame(ChaosGameDescriptionFactory.createSierpinskiTriangle(), 100, 100);
+    chaosGame.runStepsParallel(10_001, 4);
+    assertEquals(10_001, sumPixels(chaosGame.getCanvas().copyPixels()), "Every step should put one pixel on the canvas");
+  }
+
+  /**
+   * Test that continuing a run adds to the canvas, while a new run starts over.
+   */
+  @Test
+  void testContinueSteps() {
+    ChaosGame chaosGame = new ChaosGame(ChaosGameDescriptionFactory.createSierpinskiTriangle(), 100, 100);
+    chaosGame.runSteps(1_000);
+    chaosGame.continueSteps(500);
+    assertEquals(1_500, sumPixels(chaosGame.getCanvas().copyPixels()), "Continuing should add to the canvas");
+
+    chaosGame.continueStepsParallel(500, 2);
+    assertEquals(2_000, sumPixels(chaosGame.getCanvas().copyPixels()), "Continuing in parallel should add to the canvas");
+
+    chaosGame.runSteps(1_000);
+    assertEquals(1_000, sumPixels(chaosGame.getCanvas().copyPixels()), "A new run should start on a cleared canvas");
+  }
+
+  /**
+   * Test that two games with the same seed draw the same image, also when run in parallel.
+   */
+  @Test
+  void testSeededRunsAreReproducible() {
+    ChaosGame first = new ChaosGame(ChaosGameDescriptionFactory.createBarnsleyFern(), 100, 100, 42);
+    ChaosGame second = new ChaosGame(ChaosGameDescriptionFactory.createBarnsleyFern(), 100, 100, 42);
+    first.runSteps(10_000);
+    second.runSteps(10_000);
+    assertArrayEquals(first.getCanvas().copyPixels(), second.getCanvas().copyPixels(), "Games with the same seed should draw the same image");
+
+    first.runStepsParallel(10_000, 4);
+    second.runStepsParallel(10_000, 4);
+    assertArrayEquals(first.getCanvas().copyPixels(), second.getCanvas().copyPixels(), "Parallel games with the same seed should draw the same image");
+  }
+
+  /**
+   * Test that a game can use any random number generator.
+   */
+  @Test
+  void testRandomGeneratorConstructor() {
+    ChaosGame chaosGame = new ChaosGame(ChaosGameDescriptionFactory.createSierpinskiTriangle(), 100, 100, new SplittableRandom(1));
+    chaosGame.runStepsParallel(1_000, 2);
+    assertEquals(1_000, sumPixels(chaosGame.getCanvas().copyPixels()), "Every step should put one pixel on the canvas");
+    assertThrows(NullPointerException.class, () -> new ChaosGame(description, 800, 600, null), "Constructor should throw NullPointerException for a null random number generator");
+  }
+
+  /**
+   * Test that points outside the canvas are counted as rejected without stopping the run.
+   */
+  @Test
+  void testPointsOutsideCanvasAreRejected() {
+    ChaosGameDescription sierpinski = ChaosGameDescriptionFactory.createSierpinskiTriangle();
+    ChaosGameDescription tooTight = new ChaosGameDescription(new Vector2D(0, 0), new Vector2D(0.5, 0.5), sierpinski.getTransforms());
+    ChaosGame chaosGame = new ChaosGame(tooTight, 100, 100, 42);
+
+    ChaosGameResult result = chaosGame.runSteps(10_000);
+    assertEquals(10_000, result.steps(), "The run should not stop when a point is outside the canvas");
+    assertTrue(result.rejectedPoints() > 0, "Points outside the canvas should be rejected");
+    assertEquals(result.drawnPoints(), sumPixels(chaosGame.getCanvas().copyPixels()), "Only the drawn points should be on the canvas");
+
+    ChaosGameResult parallelResult = chaosGame.runStepsParallel(10_000, 4);
+    assertEquals(10_000, parallelResult.steps(), "The parallel run should not stop when a point is outside the canvas");
+    assertEquals(parallelResult.drawnPoints(), sumPixels(chaosGame.getCanvas().copyPixels()), "Only the drawn points should be on the canvas");
+  }
+
+  /**
+   * Test that a run with a time budget stops when the budget is used up and keeps its image.
+   */
+  @Test
+  void testRunForTimeBudget() {
+    ChaosGame chaosGame = new ChaosGame(ChaosGameDescriptionFactory.createSierpinskiTriangle(), 100, 100, 42);
+
+    ChaosGameResult result = chaosGame.runFor(Duration.ofMillis(20));
+    assertEquals(StopReason.TIME_BUDGET, result.stopReason(), "The run should stop because of the time budget");
+    assertTrue(result.steps() > 0, "The run should use its budget to run steps");
+    assertEquals(result.steps(), sumPixels(chaosGame.getCanvas().copyPixels()), "The image drawn before the budget ran out should be kept");
+
+    ChaosGameResult parallelResult = chaosGame.runForParallel(Duration.ofMillis(20));
+    assertEquals(StopReason.TIME_BUDGET, parallelResult.stopReason(), "The parallel run should stop because of the time budget");
+    assertEquals(parallelResult.steps(), sumPixels(chaosGame.getCanvas().copyPixels()), "The image drawn by the walkers should be kept");
+  }
+
+  /**
+   * Test that a step limited run that finishes within its budget is reported as completed.
+   */
+  @Test
+  void testRunStepsWithinBudget() {
+    ChaosGame chaosGame = new ChaosGame(description, 100, 100, 42);
+    ChaosGameResult result = chaosGame.runSteps(1_000, Duration.ofMinutes(1), new CancellationToken());
+    assertEquals(StopReason.COMPLETED, result.stopReason(), "The run should complete within its budget");
+    assertEquals(1_000, result.steps(), "All the steps should be run");
+  }
+
+  /**
+   * Test that a run can be cancelled from another thread and keeps its image.
+   */
+  @Test
+  void testCancelRun() throws InterruptedException {
+    ChaosGame chaosGame = new ChaosGame(ChaosGameDescriptionFactory.createSierpinskiTriangle(), 100, 100, 42);
+    CancellationToken token = new CancellationToken();
+    Thread canceller = new Thread(() -> {
+      try {
+        Thread.sleep(20);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      token.cancel();
+    });
+    canceller.start();
+
+    ChaosGameResult result = chaosGame.runSteps(Long.MAX_VALUE, ChaosGame.NO_BUDGET, token);
+    canceller.join();
+    assertEquals(StopReason.CANCELLED, result.stopReason(), "The run should stop because it was cancelled");
+    assertEquals(result.steps(), sumPixels(chaosGame.getCanvas().copyPixels()), "The image drawn before the cancellation should be kept");
+
+    ChaosGameResult parallelResult = chaosGame.continueStepsParallel(1_000, 4, ChaosGame.NO_BUDGET, token);
+    assertEquals(StopReason.CANCELLED, parallelResult.stopReason(), "A cancelled token should stop a parallel run");
+    assertEquals(0, parallelResult.steps(), "A cancelled token should stop a run before any steps");
+  }
+
+  /**
+   * Test that invalid budgets and tokens are rejected.
+   */
+  @Test
+  void testInvalidBudget() {
+    ChaosGame chaosGame = new ChaosGame(description, 100, 100);
+    CancellationToken token = new CancellationToken();
+    assertThrows(IllegalArgumentException.class, () -> chaosGame.runFor(Duration.ofMillis(-1)), "runFor should throw IllegalArgumentException for a negative budget");
+    assertThrows(NullPointerException.class, () -> chaosGame.runFor(null), "runFor should throw NullPointerException for a null budget");
+    assertThrows(NullPointerException.class, () -> chaosGame.continueSteps(10, Duration.ZERO, null), "continueSteps should throw NullPointerException for a null token");
+    assertThrows(IllegalArgumentException.class, () -> chaosGame.runStepsParallel(10, 0, Duration.ZERO, token), "runStepsParallel should throw IllegalArgumentException for no walkers");
+  }
+
+  /**
+   * Test that a convergence run stops once the image stops growing and reports the steps used.
+   */
+  @Test
+  void testRunUntilConverged() {
+    ChaosGame chaosGame = new ChaosGame(ChaosGameDescriptionFactory.createSierpinskiTriangle(), 100, 100, 42);
+
+    ChaosGameResult result = chaosGame.runUntilConverged(0.001, 100_000_000L);
+    assertEquals(StopReason.CONVERGED, result.stopReason(), "The Sierpinski triangle should converge on a small canvas");
+    assertTrue(result.steps() < 100_000_000L, "A converged run should use fewer steps than the maximum");
+    assertEquals(0, result.steps() % ChaosGame.CONVERGENCE_WINDOW, "The image should only be measured after whole windows");
+    assertEquals(result.steps(), sumPixels(chaosGame.getCanvas().copyPixels()), "Every step should put one pixel on the canvas");
+
+    List<Integer> progress = new ArrayList<>();
+    chaosGame.registerObserver(new ChaosGameProgressObserver() {
+      @Override
+      public void updateProgress(int value) {
+        progress.add(value);
+      }
+
+      @Override
+      public void update() {
+        // Only the progress is of interest
+      }
+    });
+    ChaosGameResult parallelResult = chaosGame.runUntilConvergedParallel(0.001, 100_000_000L);
+    assertEquals(StopReason.CONVERGED, parallelResult.stopReason(), "The parallel run should also converge");
+    assertEquals(0, parallelResult.steps() % ChaosGame.CONVERGENCE_WINDOW, "The merged image should only be measured after whole windows");
+    assertTrue(progress.getFirst() < 100, "The progress should be reported toward the maximum number of steps");
+    for (int i = 1; i < progress.size(); i++) {
+      assertTrue(progress.get(i) > progress.get(i - 1), "The progress should only grow");
+    }
+    assertEquals(100, progress.getLast(), "A converged run should end at 100");
+    assertEquals(parallelResult.steps(), sumPixels(chaosGame.getCanvas().copyPixels()), "Every step should put one pixel on the canvas");
+  }
+
+  /**
+   * Test that a convergence run stops at the maximum number of steps if it has not converged.
+   */
+  @Test
+  void testRunUntilConvergedMaxSteps() {
+    ChaosGame chaosGame = new ChaosGame(description, 100, 100, 42);
+    ChaosGameResult result = chaosGame.runUntilConverged(0.001, 1_000);
+    assertEquals(StopReason.COMPLETED, result.stopReason(), "The run should stop at the maximum number of steps");
+    assertEquals(1_000, result.steps(), "All the steps should be run");
+    assertThrows(IllegalArgumentException.class, () -> chaosGame.runUntilConverged(-0.1, 1_000), "A negative tolerance should be rejected");
+    assertThrows(IllegalArgumentException.class, () -> chaosGame.runUntilConverged(Double.NaN, 1_000), "A NaN tolerance should be rejected");
+  }
+
+  /**
+   * Test that a run whose points all fall outside the canvas does not converge on the empty image.
+   */
+  @Test
+  void testRunUntilConvergedOutsideCanvas() {
+    ChaosGameDescription outside = new ChaosGameDescription(new Vector2D(100, 100),
+        new Vector2D(101, 101), ChaosGameDescriptionFactory.createSierpinskiTriangle().getTransforms());
+    ChaosGame chaosGame = new ChaosGame(outside, 100, 100, 42);
+    long maxSteps = 3L * ChaosGame.CONVERGENCE_WINDOW;
+
+    ChaosGameResult result = chaosGame.runUntilConverged(0.001, maxSteps);
+    assertEquals(StopReason.COMPLETED, result.stopReason(), "An empty image should not converge");
+    assertEquals(maxSteps, result.steps(), "All the steps should be run");
+    assertEquals(maxSteps, result.rejectedPoints(), "Every point should fall outside the canvas");
+
+    ChaosGameResult parallelResult = chaosGame.runUntilConvergedParallel(0.001, maxSteps);
+    assertEquals(StopReason.COMPLETED, parallelResult.stopReason(), "An empty merged image should not converge");
+    assertEquals(maxSteps, parallelResult.steps(), "All the steps should be run");
+  }
+
+  /**
+   * Test that the burn-in keeps the transient points from the origin off the canvas, for both
+   * sequential and parallel runs.
+   */
+  @Test
+  void testBurnIn() {
+    // The attractor of this map is its fixed point (20, 20), far from the origin
+    ChaosGameDescription farFromOrigin = new ChaosGameDescription(new Vector2D(19, 19),
+        new Vector2D(22, 22), List.of(new AffineTransform2D(new Matrix2x2(0.5, 0, 0, 0.5),
+        new Vector2D(10, 10))));
+    ChaosGame chaosGame = new ChaosGame(farFromOrigin, 100, 100, 42);
+
+    assertEquals(11, chaosGame.getBurnInSteps(), "The burn-in should last until the point is within a pixel of the attractor");
+    assertEquals(0, chaosGame.runSteps(1_000).rejectedPoints(), "No transient points should be drawn");
+    assertEquals(1, chaosGame.getCanvas().getCoveredPixels(), "Only the pixel of the attractor should be hit");
+    assertEquals(0, chaosGame.runStepsParallel(1_000, 4).rejectedPoints(), "No walker should draw transient points");
+
+    chaosGame.setBurnInSteps(0);
+    assertTrue(chaosGame.runSteps(1_000).rejectedPoints() > 0, "Without a burn-in the transient points should be drawn");
+    assertEquals(ChaosGame.DEFAULT_BURN_IN_STEPS, new ChaosGame(description, 100, 100).getBurnInSteps(), "Julia sets should use the default burn-in");
+    assertThrows(IllegalArgumentException.class, () -> chaosGame.setBurnInSteps(-1), "A negative burn-in should be rejected");
+  }
+
+  /**
+   * Test that parallel walkers draw the same image into a shared off-heap or sparse storage as into
+   * private canvases on the heap.
+   */
+  @Test
+  void testRunStepsParallelSharedStorage() {
+    ChaosGameDescription fern = ChaosGameDescriptionFactory.createBarnsleyFern();
+    ChaosGame heap = new ChaosGame(fern, 200, 200, new SplittableRandom(7));
+    heap.runStepsParallel(200_000, 4);
+    int[] expected = heap.getCanvas().copyPixels();
+
+    for (PixelStorage storage : List.of(new OffHeapPixelStorage(200 * 200), new SparsePixelStorage(200, 200))) {
+      ChaosGame shared = new ChaosGame(fern, 200, 200, new SplittableRandom(7), storage);
+      assertEquals(200_000, shared.runStepsParallel(200_000, 4).steps(), "All the steps should be run");
+      assertArrayEquals(expected, shared.getCanvas().copyPixels(), "The walkers should draw the same image into shared storage");
+      assertEquals(heap.getCanvas().getCoveredPixels(), shared.getCanvas().getCoveredPixels(), "The covered pixels should be counted once");
+      assertSame(storage, shared.getCanvas().getStorage(), "The storage should not be replaced");
+      shared.getCanvas().close();
+    }
+  }
+
+  /**
+   * Test runStepsParallel method with a non-positive number of walkers.
+   */
+  @Test
+  void testRunStepsParallelNoWalkers() {
+    ChaosGame chaosGame = new ChaosGame(description, 800, 600);
+    assertThrows(IllegalArgumentException.class, () -> chaosGame.runStepsParallel(100, 0), "runStepsParallel should throw IllegalArgumentException for zero walkers");
+  }
+
   /**
    * Test constructor with a null description parameter.
    */
@@ -101,4 +439,18 @@ class ChaosGameTest {
     ChaosGame chaosGame = new ChaosGame(description, 800, 600);
     assertThrows(NullPointerException.class, () -> chaosGame.removeObserver(null), "removeObserver should throw NullPointerException for null observer");
   }
+
+  /**
+   * Sums all the pixel values of a canvas array.
+   *
+   * @param canvasArray the canvas array to sum
+   * @return the sum of the pixel values
+   */
+  private static long sumPixels(int[] pixels) {
+    long sum = 0;
+    for (int value : pixels) {
+      sum += value;
+    }
+    return sum;
+  }
 }
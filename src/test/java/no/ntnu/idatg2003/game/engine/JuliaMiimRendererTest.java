@@ -0,0 +1,94 @@
+package no.ntnu.idatg2003.game.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import no.ntnu.idatg2003.model.game.engine.ChaosCanvas;
+import no.ntnu.idatg2003.model.game.engine.ChaosGame;
+import no.ntnu.idatg2003.model.game.engine.ChaosGameDescription;
+import no.ntnu.idatg2003.model.game.engine.ChaosGameDescriptionFactory;
+import no.ntnu.idatg2003.model.game.engine.ChaosGameResult;
+import no.ntnu.idatg2003.model.game.engine.JuliaMiimRenderer;
+import no.ntnu.idatg2003.model.math.datatypes.Complex;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the JuliaMiimRenderer class.
+ */
+class JuliaMiimRendererTest {
+
+  /**
+   * Test that the Julia set of zero, which is the unit circle, is drawn on the unit circle only.
+   */
+  @Test
+  void testUnitCircle() {
+    ChaosGameDescription description = ChaosGameDescriptionFactory.createJuliaSet(new Complex(0, 0));
+    JuliaMiimRenderer renderer = new JuliaMiimRenderer(description, 200, 200);
+    renderer.render();
+
+    int[] pixels = renderer.getCanvas().getPixels();
+    double pixelSize = 4.0 / 199;
+    long covered = 0;
+    for (int row = 0; row < 200; row++) {
+      for (int column = 0; column < 200; column++) {
+        if (pixels[row * 200 + column] > 0) {
+          covered++;
+          double x = -2 + column * pixelSize;
+          double y = 2 - row * pixelSize;
+          assertEquals(1, Math.hypot(x, y), pixelSize, "Every pixel should lie on the unit circle");
+        }
+      }
+    }
+    assertTrue(covered > 300, "The whole circle should be drawn");
+  }
+
+  /**
+   * Test that no pixel is hit more often than the density cap.
+   */
+  @Test
+  void testDensityCap() {
+    ChaosGameDescription description = ChaosGameDescriptionFactory.createJuliaSet();
+    JuliaMiimRenderer renderer = new JuliaMiimRenderer(description, 200, 200, 4, 1_000);
+    ChaosGameResult result = renderer.render();
+
+    long drawn = 0;
+    for (int value : renderer.getCanvas().getPixels()) {
+      assertTrue(value <= 4, "No pixel should be hit more often than the density cap");
+      drawn += value;
+    }
+    assertTrue(result.steps() > 0, "The render should compute preimages");
+    assertTrue(drawn <= result.drawnPoints() + 1, "Pruned points should not be drawn");
+  }
+
+  /**
+   * Test that the renderer covers more of the Julia set than random inverse iteration with the
+   * same number of steps.
+   */
+  @Test
+  void testBetterCoverageThanRandomIteration() {
+    ChaosGameDescription description = ChaosGameDescriptionFactory.createJuliaSet();
+    JuliaMiimRenderer renderer = new JuliaMiimRenderer(description, 300, 300);
+    ChaosGameResult result = renderer.render();
+
+    ChaosGame game = new ChaosGame(description, 300, 300, 42);
+    game.runSteps(result.steps());
+    ChaosCanvas randomCanvas = game.getCanvas();
+
+    assertTrue(renderer.getCanvas().getCoveredPixels() > randomCanvas.getCoveredPixels(),
+        "Modified inverse iteration should cover more pixels with the same number of steps");
+  }
+
+  /**
+   * Test that descriptions that are not Julia sets and invalid limits are rejected.
+   */
+  @Test
+  void testInvalidArguments() {
+    ChaosGameDescription julia = ChaosGameDescriptionFactory.createJuliaSet();
+    ChaosGameDescription fern = ChaosGameDescriptionFactory.createBarnsleyFern();
+    assertThrows(IllegalArgumentException.class, () -> new JuliaMiimRenderer(fern, 100, 100), "An affine description should be rejected");
+    assertThrows(IllegalArgumentException.class, () -> new JuliaMiimRenderer(julia, 100, 100, 0, 10), "A density cap of zero should be rejected");
+    assertThrows(IllegalArgumentException.class, () -> new JuliaMiimRenderer(julia, 100, 100, 1, 0), "A queue capacity of zero should be rejected");
+    assertThrows(NullPointerException.class, () -> new JuliaMiimRenderer(null, 100, 100), "A null description should be rejected");
+  }
+}
@@ -0,0 +1,127 @@
+package no.ntnu.idatg2003.game.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import no.ntnu.idatg2003.model.game.engine.MandelbrotKernel;
+import no.ntnu.idatg2003.model.math.datatypes.Complex;
+import org.junit.jupiter.api.Test;
+
+class MandelbrotKernelTest {
+
+  private final MandelbrotKernel kernel = new MandelbrotKernel();
+
+  /**
+   * Counts the iterations with Complex objects, the way the Mandelbrot set used to be drawn.
+   */
+  private static int complexEscapeTime(double re, double im, int maxIterations) {
+    Complex c = new Complex(re, im);
+    Complex z = new Complex(0, 0);
+    int iterations = 0;
+    while (z.getLength() < 2 && iterations < maxIterations) {
+      z = z.multiply(z).add(c);
+      iterations++;
+    }
+    return iterations;
+  }
+
+  /**
+   * Counts the iterations with primitives, without any shortcut for points in the set.
+   */
+  private static int plainEscapeTime(double re, double im, int maxIterations) {
+    double zr = 0;
+    double zi = 0;
+    int iterations = 0;
+    while (zr * zr + zi * zi < 4 && iterations < maxIterations) {
+      double nextZr = zr * zr - zi * zi + re;
+      zi = 2 * zr * zi + im;
+      zr = nextZr;
+      iterations++;
+    }
+    return iterations;
+  }
+
+  @Test
+  void interiorPointsRunToTheLimit() {
+    assertEquals(100, kernel.escapeTime(0, 0, 100), "The origin is in the set");
+    assertEquals(100, kernel.escapeTime(-1, 0, 100), "-1 has an orbit of period 2");
+  }
+
+  @Test
+  void exteriorPointsEscape() {
+    assertEquals(1, kernel.escapeTime(2, 2, 100), "A point outside the disc escapes at once");
+    assertEquals(2, kernel.escapeTime(1, 1, 100), "1 + i escapes after two iterations");
+  }
+
+  @Test
+  void matchesComplexIteration() {
+    for (int y = 0; y <= 200; y++) {
+      for (int x = 0; x <= 200; x++) {
+        double re = -2 + x * 0.02;
+        double im = -2 + y * 0.02;
+        assertEquals(complexEscapeTime(re, im, 40), kernel.escapeTime(re, im, 40),
+            "The kernel should count the same iterations as the Complex loop");
+      }
+    }
+  }
+
+  @Test
+  void recognisesCardioidAndBulb() {
+    assertTrue(MandelbrotKernel.isInCardioidOrBulb(0, 0), "The origin is in the cardioid");
+    assertTrue(MandelbrotKernel.isInCardioidOrBulb(0.25, 0), "The cusp is on the cardioid");
+    assertTrue(MandelbrotKernel.isInCardioidOrBulb(-0.7, 0.1), "The point is in the cardioid");
+    assertTrue(MandelbrotKernel.isInCardioidOrBulb(-1, 0), "-1 is the center of the bulb");
+    assertTrue(MandelbrotKernel.isInCardioidOrBulb(-1.2, 0.1), "The point is in the bulb");
+    assertFalse(MandelbrotKernel.isInCardioidOrBulb(0.3, 0), "The point is right of the cusp");
+    assertFalse(MandelbrotKernel.isInCardioidOrBulb(-0.12, 0.75),
+        "The period-3 bulb is outside both");
+    assertFalse(MandelbrotKernel.isInCardioidOrBulb(-1.5, 0), "The point is left of the bulb");
+  }
+
+  @Test
+  void detectsPeriodicOrbitsOutsideCardioidAndBulb() {
+    assertEquals(1_000_000, kernel.escapeTime(-0.12, 0.75, 1_000_000),
+        "A point in the period-3 bulb is in the set");
+    assertEquals(1_000_000, kernel.escapeTime(-1.3, 0, 1_000_000),
+        "A point in the period-4 bulb is in the set");
+  }
+
+  @Test
+  void shortcutsDoNotChangeTheResult() {
+    for (int y = 0; y <= 150; y++) {
+      for (int x = 0; x <= 150; x++) {
+        double re = -2 + x * 0.0173;
+        double im = -1.3 + y * 0.0173;
+        assertEquals(plainEscapeTime(re, im, 3000), kernel.escapeTime(re, im, 3000),
+            "The kernel should count the same iterations as the plain loop");
+      }
+    }
+  }
+
+  @Test
+  void shortcutsMatchThePlainLoopNearTheCardioidAndBulbBoundaries() {
+    double[] offsets = {-1e-3, -1e-6, 0, 1e-6, 1e-3};
+    for (int i = 0; i < 360; i++) {
+      double angle = 2 * Math.PI * (i + 0.5) / 360;
+      // The boundary of the main cardioid is e^(it) / 2 - e^(2it) / 4, and the boundary of the
+      // period-2 bulb is the circle of radius 1/4 around -1
+      double cardioidRe = Math.cos(angle) / 2 - Math.cos(2 * angle) / 4;
+      double cardioidIm = Math.sin(angle) / 2 - Math.sin(2 * angle) / 4;
+      double bulbRe = -1 + Math.cos(angle) / 4;
+      double bulbIm = Math.sin(angle) / 4;
+      for (double offset : offsets) {
+        double cardioidScale = 1 + offset;
+        double bulbScale = 1 + 4 * offset;
+        double re = 0.25 + (cardioidRe - 0.25) * cardioidScale;
+        double im = cardioidIm * cardioidScale;
+        assertEquals(plainEscapeTime(re, im, 2000), kernel.escapeTime(re, im, 2000),
+            "The kernel should match the plain loop near the cardioid at " + re + ", " + im);
+        re = -1 + (bulbRe + 1) * bulbScale;
+        im = bulbIm * bulbScale;
+        assertEquals(plainEscapeTime(re, im, 2000), kernel.escapeTime(re, im, 2000),
+            "The kernel should match the plain loop near the bulb at " + re + ", " + im);
+      }
+    }
+  }
+}
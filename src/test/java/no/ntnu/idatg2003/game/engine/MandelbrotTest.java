@@ -1,7 +1,10 @@
 package no.ntnu.idatg2003.game.engine;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.util.concurrent.ForkJoinPool;
 import no.ntnu.idatg2003.model.game.engine.Mandelbrot;
 import org.junit.jupiter.api.Test;
 
@@ -24,4 +27,33 @@ class MandelbrotTest {
     Mandelbrot mandelbrot = new Mandelbrot(10, 10);
     assertThrows(NullPointerException.class, () -> mandelbrot.removeObserver(null));
   }
+
+  @Test
+  void drawMandelbrotFillsEveryTile() {
+    Mandelbrot mandelbrot = new Mandelbrot(1000, 1000);
+    mandelbrot.drawMandelbrot();
+    int[] pixels = mandelbrot.getCanvas().getPixels();
+    assertEquals(255, pixels[500 * 1000 + 500], "The origin is in the set");
+    assertEquals(255 / 40, pixels[0], "The corner escapes after one iteration");
+    for (int y = 1; y < 1000; y++) {
+      for (int x = 0; x < 1000; x++) {
+        assertEquals(pixels[y * 1000 + x], pixels[(1000 - y) * 1000 + x],
+            "The set is symmetric around the real axis");
+      }
+    }
+  }
+
+  @Test
+  void drawMandelbrotIsIndependentOfParallelism() {
+    Mandelbrot parallel = new Mandelbrot(300, 200);
+    parallel.drawMandelbrot();
+    Mandelbrot sequential = new Mandelbrot(300, 200);
+    ForkJoinPool pool = new ForkJoinPool(1);
+    try {
+      sequential.drawMandelbrot(pool);
+    } finally {
+      pool.shutdown();
+    }
+    assertArrayEquals(sequential.getCanvas().getPixels(), parallel.getCanvas().getPixels());
+  }
 }
@@ -0,0 +1,77 @@
+package no.ntnu.idatg2003.game.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import no.ntnu.idatg2003.model.game.engine.Mandelbrot;
+import no.ntnu.idatg2003.model.game.engine.MandelbrotViewport;
+import org.junit.jupiter.api.Test;
+
+class MandelbrotViewportTest {
+
+  private final MandelbrotViewport fullView = MandelbrotViewport.fullView(1000, 1000);
+
+  @Test
+  void fullViewShowsTheWholeSet() {
+    assertEquals(-2, fullView.re(0), 1e-12, "The left edge is at -2");
+    assertEquals(0, fullView.re(500), 1e-12, "The center column is at 0");
+    assertEquals(2, fullView.im(0), 1e-12, "The top edge is at 2i");
+    assertEquals(MandelbrotViewport.DEFAULT_MAX_ITERATIONS, fullView.maxIterations());
+  }
+
+  @Test
+  void zoomKeepsThePointUnderThePixel() {
+    MandelbrotViewport zoomed = fullView.zoom(8, 250, 700);
+    assertEquals(fullView.re(250), zoomed.re(250), 1e-12, "The real part should stay in place");
+    assertEquals(fullView.im(700), zoomed.im(700), 1e-12,
+        "The imaginary part should stay in place");
+    assertEquals(fullView.scale() / 8, zoomed.scale(), 1e-15, "The pixels should shrink");
+    assertEquals(MandelbrotViewport.DEFAULT_MAX_ITERATIONS
+            + 3 * MandelbrotViewport.ITERATIONS_PER_DOUBLING, zoomed.maxIterations(),
+        "Three doublings should add iterations three times");
+    assertEquals(MandelbrotViewport.DEFAULT_MAX_ITERATIONS,
+        fullView.zoom(0.5, 500, 500).maxIterations(),
+        "Zooming out should not drop below the default iterations");
+  }
+
+  @Test
+  void panFollowsTheDrag() {
+    MandelbrotViewport moved = fullView.pan(100, -50);
+    assertEquals(fullView.re(400), moved.re(500), 1e-12,
+        "Dragging right should bring the points on the left to the center");
+    assertEquals(fullView.im(550), moved.im(500), 1e-12,
+        "Dragging up should bring the points below to the center");
+  }
+
+  @Test
+  void invalidViewportsThrow() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new MandelbrotViewport(0, 0, 0, 10, 10, 10));
+    assertThrows(IllegalArgumentException.class,
+        () -> new MandelbrotViewport(0, Double.NaN, 1, 10, 10, 10));
+    assertThrows(IllegalArgumentException.class,
+        () -> new MandelbrotViewport(0, 0, 1, 10, 10, 0));
+    assertThrows(IllegalArgumentException.class, () -> fullView.zoom(0, 0, 0));
+    Mandelbrot mandelbrot = new Mandelbrot(10, 10);
+    assertThrows(IllegalArgumentException.class, () -> mandelbrot.setViewport(fullView));
+  }
+
+  @Test
+  void zoomedViewIsRenderedAgain() {
+    Mandelbrot mandelbrot = new Mandelbrot(200, 200);
+    mandelbrot.drawMandelbrot();
+    int[] full = mandelbrot.getCanvas().copyPixels();
+    // Zoom in on the cusp of the main cardioid, where the boundary is at 0.25
+    double scale = mandelbrot.getViewport().scale() / 100;
+    mandelbrot.setViewport(new MandelbrotViewport(0.25, 0, scale, 200, 200,
+        MandelbrotViewport.iterationsForScale(scale, 200, 200)));
+    mandelbrot.drawMandelbrot();
+    int[] zoomed = mandelbrot.getCanvas().copyPixels();
+    assertNotEquals(full[0], zoomed[0], "The zoomed view should be drawn from scratch");
+    long distinct = Arrays.stream(zoomed).distinct().count();
+    assertTrue(distinct > 10, "The zoomed boundary should show detail, got " + distinct);
+  }
+}
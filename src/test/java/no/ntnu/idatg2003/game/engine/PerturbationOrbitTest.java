@@ -0,0 +1,110 @@
+package no.ntnu.idatg2003.game.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Arrays;
+import no.ntnu.idatg2003.model.game.engine.Mandelbrot;
+import no.ntnu.idatg2003.model.game.engine.MandelbrotKernel;
+import no.ntnu.idatg2003.model.game.engine.MandelbrotViewport;
+import no.ntnu.idatg2003.model.game.engine.PerturbationOrbit;
+import org.junit.jupiter.api.Test;
+
+class PerturbationOrbitTest {
+
+  private static final BigDecimal FOUR = BigDecimal.valueOf(4);
+
+  /**
+   * Counts the iterations of a point with BigDecimal arithmetic, which is exact enough but slow.
+   */
+  private static int bigDecimalEscapeTime(BigDecimal re, BigDecimal im, int maxIterations,
+      MathContext context) {
+    BigDecimal zr = BigDecimal.ZERO;
+    BigDecimal zi = BigDecimal.ZERO;
+    for (int iterations = 1; iterations <= maxIterations; iterations++) {
+      BigDecimal nextZr = zr.multiply(zr, context).subtract(zi.multiply(zi, context), context)
+          .add(re, context);
+      zi = zr.multiply(zi, context).multiply(BigDecimal.TWO).add(im, context);
+      zr = nextZr;
+      if (zr.multiply(zr, context).add(zi.multiply(zi, context), context).compareTo(FOUR) >= 0) {
+        return iterations;
+      }
+    }
+    return maxIterations;
+  }
+
+  @Test
+  void matchesTheKernelAtShallowZoom() {
+    MandelbrotViewport view = MandelbrotViewport.fullView(100, 100).withMaxIterations(100);
+    PerturbationOrbit orbit = PerturbationOrbit.compute(view.centerRe(), view.centerIm(), 100,
+        view.mathContext());
+    MandelbrotKernel kernel = new MandelbrotKernel();
+    int mismatches = 0;
+    for (int y = 0; y < 100; y++) {
+      for (int x = 0; x < 100; x++) {
+        if (orbit.escapeTime(view.deltaRe(x), view.deltaIm(y), 100)
+            != kernel.escapeTime(view.re(x), view.im(y), 100)) {
+          mismatches++;
+        }
+      }
+    }
+    // Rounding differs slightly, which may move a pixel on the edge of a band
+    assertTrue(mismatches < 50, "Almost every pixel should match the kernel, got "
+        + mismatches + " mismatches");
+  }
+
+  @Test
+  void matchesBigDecimalIterationAtDeepZoom() {
+    // The boundary near the Misiurewicz point i has structure at every depth
+    double scale = 1e-60;
+    MandelbrotViewport view = new MandelbrotViewport(BigDecimal.ZERO, BigDecimal.ONE, scale, 40,
+        40, MandelbrotViewport.iterationsForScale(scale, 40, 40));
+    MathContext context = view.mathContext();
+    PerturbationOrbit orbit = PerturbationOrbit.compute(view.centerRe(), view.centerIm(),
+        view.maxIterations(), context);
+    for (int y = 0; y < 40; y += 13) {
+      for (int x = 0; x < 40; x += 13) {
+        int expected = bigDecimalEscapeTime(
+            view.centerRe().add(new BigDecimal(view.deltaRe(x)), context),
+            view.centerIm().add(new BigDecimal(view.deltaIm(y)), context),
+            view.maxIterations(), context);
+        assertEquals(expected,
+            orbit.escapeTime(view.deltaRe(x), view.deltaIm(y), view.maxIterations()),
+            "The perturbed pixel should escape with the high precision orbit");
+      }
+    }
+  }
+
+  @Test
+  void rebasesWhenTheReferenceEscapes() {
+    // The reference at 0.3 escapes, but points to the left of it are in the set
+    PerturbationOrbit orbit = PerturbationOrbit.compute(new BigDecimal("0.3"), BigDecimal.ZERO,
+        200, MathContext.DECIMAL64);
+    assertTrue(orbit.getReferenceIterations() < 200, "The reference should escape");
+    assertEquals(200, orbit.escapeTime(-0.1, 0, 200), "0.2 is in the set");
+    assertEquals(new MandelbrotKernel().escapeTime(0.26, 0.01, 200),
+        orbit.escapeTime(-0.04, 0.01, 200), "A pixel outliving the reference should be rebased");
+  }
+
+  @Test
+  void deepZoomIsDrawnWithPerturbation() {
+    Mandelbrot mandelbrot = new Mandelbrot(40, 40);
+    double scale = 1e-100;
+    mandelbrot.setViewport(new MandelbrotViewport(BigDecimal.ZERO, BigDecimal.ONE, scale, 40, 40,
+        MandelbrotViewport.iterationsForScale(scale, 40, 40)));
+    mandelbrot.drawMandelbrot();
+    long distinct = Arrays.stream(mandelbrot.getCanvas().getPixels()).distinct().count();
+    assertTrue(distinct > 1, "A deep zoom should still show detail");
+  }
+
+  @Test
+  void invalidArgumentsThrow() {
+    assertThrows(IllegalArgumentException.class, () -> PerturbationOrbit.compute(BigDecimal.ZERO,
+        BigDecimal.ZERO, 0, MathContext.DECIMAL64));
+    assertThrows(NullPointerException.class, () -> PerturbationOrbit.compute(null,
+        BigDecimal.ZERO, 10, MathContext.DECIMAL64));
+  }
+}
@@ -0,0 +1,106 @@
+package no.ntnu.idatg2003.game.engine;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import no.ntnu.idatg2003.model.game.engine.ChaosGame;
+import no.ntnu.idatg2003.model.game.engine.ChaosGameDescription;
+import no.ntnu.idatg2003.model.game.engine.ChaosGameDescriptionFactory;
+import no.ntnu.idatg2003.model.game.engine.ChaosGameResult;
+import no.ntnu.idatg2003.model.game.engine.RecursiveIfsRenderer;
+import no.ntnu.idatg2003.model.math.datatypes.Matrix2x2;
+import no.ntnu.idatg2003.model.math.datatypes.Vector2D;
+import no.ntnu.idatg2003.model.transformations.AffineTransform2D;
+import no.ntnu.idatg2003.model.transformations.Transform2D;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the RecursiveIfsRenderer class.
+ */
+class RecursiveIfsRendererTest {
+
+  /**
+   * Test that a render is deterministic and that every branch is counted once on the canvas.
+   */
+  @Test
+  void testRenderIsDeterministic() {
+    ChaosGameDescription description = ChaosGameDescriptionFactory.createBarnsleyFern();
+    RecursiveIfsRenderer renderer = new RecursiveIfsRenderer(description, 200, 200);
+    ChaosGameResult first = renderer.render();
+    int[] firstImage = renderer.getCanvas().copyPixels();
+    ChaosGameResult second = renderer.render();
+
+    assertEquals(first, second, "Two renders should give the same result");
+    assertArrayEquals(firstImage, renderer.getCanvas().getPixels(),
+        "Two renders should draw the same image");
+    assertEquals(second.drawnPoints(), sum(renderer.getCanvas().getPixels()),
+        "Every branch inside the canvas should hit one pixel");
+  }
+
+  /**
+   * Test that the Sierpinski triangle is drawn on the same pixels as a long random run, up to one
+   * pixel.
+   */
+  @Test
+  void testSierpinskiTriangle() {
+    ChaosGameDescription description = ChaosGameDescriptionFactory.createSierpinskiTriangle();
+    RecursiveIfsRenderer renderer = new RecursiveIfsRenderer(description, 128, 128);
+    ChaosGameResult result = renderer.render();
+    assertEquals(0, result.rejectedPoints(), "The triangle should fit on the canvas");
+
+    ChaosGame game = new ChaosGame(description, 128, 128, 42);
+    game.runSteps(2_000_000);
+    int[] randomImage = game.getCanvas().getPixels();
+    int[] image = renderer.getCanvas().getPixels();
+    for (int row = 0; row < 128; row++) {
+      for (int column = 0; column < 128; column++) {
+        if (randomImage[row * 128 + column] > 0) {
+          assertTrue(hasNeighbour(image, 128, row, column),
+              "Every pixel of the attractor should be drawn, up to one pixel");
+        }
+        if (image[row * 128 + column] > 0) {
+          assertTrue(hasNeighbour(randomImage, 128, row, column),
+              "Only pixels next to the attractor should be drawn");
+        }
+      }
+    }
+  }
+
+  /**
+   * Test that descriptions that cannot be rendered are rejected.
+   */
+  @Test
+  void testInvalidDescriptions() {
+    List<Transform2D> expanding = List.of(
+        new AffineTransform2D(new Matrix2x2(1.2, 0, 0, 0.5), new Vector2D(0, 0)));
+    ChaosGameDescription expandingDescription =
+        new ChaosGameDescription(new Vector2D(0, 0), new Vector2D(1, 1), expanding);
+    ChaosGameDescription julia = ChaosGameDescriptionFactory.createJuliaSet();
+    assertThrows(IllegalArgumentException.class, () -> new RecursiveIfsRenderer(expandingDescription, 100, 100), "A map that is not a contraction should be rejected");
+    assertThrows(IllegalArgumentException.class, () -> new RecursiveIfsRenderer(julia, 100, 100), "A Julia description should be rejected");
+    assertThrows(NullPointerException.class, () -> new RecursiveIfsRenderer(null, 100, 100), "A null description should be rejected");
+  }
+
+  private static boolean hasNeighbour(int[] image, int width, int row, int column) {
+    int height = image.length / width;
+    for (int r = Math.max(0, row - 1); r <= Math.min(height - 1, row + 1); r++) {
+      for (int c = Math.max(0, column - 1); c <= Math.min(width - 1, column + 1); c++) {
+        if (image[r * width + c] > 0) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private static long sum(int[] image) {
+    long sum = 0;
+    for (int value : image) {
+      sum += value;
+    }
+    return sum;
+  }
+}
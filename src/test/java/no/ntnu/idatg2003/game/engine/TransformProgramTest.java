@@ -0,0 +1,150 @@
+package no.ntnu.idatg2003.game.engine;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+import no.ntnu.idatg2003.model.game.engine.AliasTable;
+import no.ntnu.idatg2003.model.game.engine.ChaosCanvas;
+import no.ntnu.idatg2003.model.game.engine.ChaosGameDescription;
+import no.ntnu.idatg2003.model.game.engine.ChaosGameDescriptionFactory;
+import no.ntnu.idatg2003.model.game.engine.ChaosGameKernel;
+import no.ntnu.idatg2003.model.game.engine.TransformProgram;
+import no.ntnu.idatg2003.model.math.datatypes.Complex;
+import no.ntnu.idatg2003.model.math.datatypes.Matrix2x2;
+import no.ntnu.idatg2003.model.math.datatypes.Vector2D;
+import no.ntnu.idatg2003.model.transformations.AffineTransform2D;
+import no.ntnu.idatg2003.model.transformations.JuliaTransform;
+import no.ntnu.idatg2003.model.transformations.Transform2D;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the TransformProgram interface.
+ */
+class TransformProgramTest {
+
+  private static final int STEPS = 20_000;
+
+  /**
+   * Test that a compiled affine description draws the same image as the interpreted kernel.
+   */
+  @Test
+  void testAffineProgramMatchesKernel() {
+    assertMatchesKernel(ChaosGameDescriptionFactory.createBarnsleyFern());
+  }
+
+  /**
+   * Test that a description that cannot be specialized draws the same image as the interpreted
+   * kernel.
+   */
+  @Test
+  void testInterpretedProgramMatchesKernel() {
+    Complex constant = new Complex(0.285, 0.01);
+    List<Transform2D> transforms = List.of(
+        new JuliaTransform(constant, 1),
+        new JuliaTransform(constant, -1),
+        new AffineTransform2D(new Matrix2x2(0.5, 0, 0, 0.5), new Vector2D(0, 0)));
+    assertMatchesKernel(new ChaosGameDescription(
+        new Vector2D(-2, -2), new Vector2D(2, 2), transforms));
+  }
+
+  /**
+   * Test that every step of a compiled Julia set is one of the two roots given by the
+   * JuliaTransform objects, and that both roots are used.
+   */
+  @Test
+  void testJuliaProgramStepsAreRoots() {
+    Complex constant = new Complex(-0.74543, 0.11301);
+    JuliaTransform positive = new JuliaTransform(constant, 1);
+    JuliaTransform negative = new JuliaTransform(constant, -1);
+    ChaosGameDescription description = ChaosGameDescriptionFactory.createJuliaSet(constant);
+    TransformProgram program = TransformProgram.compile(description);
+    ChaosCanvas canvas = createCanvas(description);
+    RandomGenerator random = createRandom();
+
+    double[] point = {0.4, -0.2};
+    int positiveSteps = 0;
+    for (int i = 0; i < 1_000; i++) {
+      Vector2D current = new Vector2D(point[0], point[1]);
+      program.run(point, 1, random, canvas);
+      Vector2D expected = positive.transform(current);
+      if (Math.abs(expected.getX0() - point[0]) > 1e-12
+          || Math.abs(expected.getX1() - point[1]) > 1e-12) {
+        expected = negative.transform(current);
+      } else {
+        positiveSteps++;
+      }
+      assertEquals(expected.getX0(), point[0], 1e-12, "The real part should be a root");
+      assertEquals(expected.getX1(), point[1], 1e-12, "The imaginary part should be a root");
+    }
+    assertTrue(positiveSteps > 400 && positiveSteps < 600,
+        "Both roots should be chosen about equally often");
+  }
+
+  /**
+   * Test that the square root of zero is zero, without any NaN values.
+   */
+  @Test
+  void testJuliaProgramRootOfZero() {
+    Complex constant = new Complex(0.285, 0.01);
+    ChaosGameDescription description = ChaosGameDescriptionFactory.createJuliaSet(constant);
+    double[] point = {0.285, 0.01};
+    TransformProgram.compile(description)
+        .run(point, 1, createRandom(), createCanvas(description));
+    assertEquals(0, point[0], 0, "The real part of the root of zero should be zero");
+    assertEquals(0, point[1], 0, "The imaginary part of the root of zero should be zero");
+  }
+
+  /**
+   * Test that compiling a null description throws a NullPointerException.
+   */
+  @Test
+  void testCompileNull() {
+    assertThrows(NullPointerException.class, () -> TransformProgram.compile(null),
+        "compile should throw NullPointerException for a null description");
+  }
+
+  /**
+   * Runs the compiled program and the kernel with the same seed, and checks that they end in the
+   * same point and draw the same image.
+   *
+   * @param description the description to run
+   */
+  private static void assertMatchesKernel(ChaosGameDescription description) {
+    ChaosCanvas programCanvas = createCanvas(description);
+    double[] point = new double[2];
+    long rejected = TransformProgram.compile(description)
+        .run(point, STEPS, createRandom(), programCanvas);
+
+    ChaosCanvas kernelCanvas = createCanvas(description);
+    ChaosGameKernel kernel = new ChaosGameKernel(description);
+    AliasTable selector = new AliasTable(
+        description.getWeights().stream().mapToDouble(Double::doubleValue).toArray());
+    RandomGenerator random = createRandom();
+    long kernelRejected = 0;
+    for (int i = 0; i < STEPS; i++) {
+      kernel.step(selector.sample(random));
+      if (!kernelCanvas.putPixel(kernel.getX(), kernel.getY())) {
+        kernelRejected++;
+      }
+    }
+
+    assertEquals(kernelRejected, rejected, "The same points should be rejected");
+    assertEquals(kernel.getX(), point[0], "The program should end in the same point");
+    assertEquals(kernel.getY(), point[1], "The program should end in the same point");
+    assertArrayEquals(kernelCanvas.getPixels(), programCanvas.getPixels(),
+        "The program should draw the same image");
+  }
+
+  private static ChaosCanvas createCanvas(ChaosGameDescription description) {
+    return new ChaosCanvas(description.getMinCoords(), description.getMaxCoords(), 120, 100);
+  }
+
+  private static RandomGenerator createRandom() {
+    return RandomGeneratorFactory.of("L64X128MixRandom").create(42);
+  }
+}
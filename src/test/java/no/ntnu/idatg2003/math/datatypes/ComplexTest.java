@@ -46,7 +46,9 @@ class ComplexTest {
   @CsvSource({
       "0.1, -0.4, 0.506, -0.395",
       "0.1, 0.4, 0.506, 0.395",
-      "0.1, 0, 0.316, 0"
+      "0.1, 0, 0.316, 0",
+      "-4, 0, 0, 2",
+      "-4, -0.0, 0, -2"
   })
   void sqrtParameterizedTest(double x0, double x1, double expectedX0, double expectedX1) {
     Complex complex = new Complex(x0, x1);